@@ -40,10 +40,11 @@ function Dashboard({ userInfo, onLogout, toggleTheme, currentTheme }) {
     try {
       const response = await fetch('http://localhost:8080/api/generate', {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
-        body: JSON.stringify({ sourceCode: inputCode, userId: userInfo?.id }),
+        headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${userInfo?.token}` },
+        body: JSON.stringify({ sourceCode: inputCode }),
       });
       
+      if (response.status === 401) { onLogout(); return; }
       if (!response.ok) throw new Error(`Server error: ${response.status}`);
       
       const data = await response.json();
@@ -82,7 +83,7 @@ function Dashboard({ userInfo, onLogout, toggleTheme, currentTheme }) {
       </Box>
       
       <Box sx={{ display: 'flex', flexGrow: 1, overflow: 'hidden' }}>
-        <HistorySidebar userId={userInfo?.id} onSelectHistory={handleSelectHistory} refreshTrigger={refreshTrigger} />
+        <HistorySidebar userId={userInfo?.id} token={userInfo?.token} onSelectHistory={handleSelectHistory} refreshTrigger={refreshTrigger} />
         <Box component="main" sx={{ flexGrow: 1, display: 'flex', p: 3, gap: 3, overflowY: 'auto', bgcolor: '#F8FAFC' }}>
           <CodeInputPanel code={inputCode} setCode={setInputCode} onGenerate={handleGenerate} isLoading={isLoading} />
           <GeneratedOutputPanel generatedCode={generatedCode} suggestions={suggestions} error={error} isLoading={isLoading} />
@@ -339,7 +340,7 @@ export default function App() {
             <AuthPage onLogin={(u) => {setUserInfo(u); setIsAuthenticated(true);}} toggleTheme={() => setMode(mode === 'light' ? 'dark' : 'light')} currentTheme={mode} /> 
             : <Navigate to="/dashboard" />} />
           <Route path="/dashboard" element={isAuthenticated ? 
-            <Dashboard userInfo={userInfo} onLogout={() => setIsAuthenticated(false)} toggleTheme={() => setMode(mode === 'light' ? 'dark' : 'light')} currentTheme={mode} /> 
+            <Dashboard userInfo={userInfo} onLogout={() => { setIsAuthenticated(false); setUserInfo(null); }} toggleTheme={() => setMode(mode === 'light' ? 'dark' : 'light')} currentTheme={mode} /> 
             : <Navigate to="/" />} />
         </Routes>
       </Router>
@@ -7,15 +7,20 @@ import HistoryIcon from '@mui/icons-material/History';
 import CodeIcon from '@mui/icons-material/Code';
 import DeleteOutlineIcon from '@mui/icons-material/DeleteOutline';
 
-function HistorySidebar({ userId, onSelectHistory, refreshTrigger }) {
+function HistorySidebar({ userId, token, onSelectHistory, refreshTrigger }) {
   const [history, setHistory] = useState([]);
   const [loading, setLoading] = useState(false);
 
   useEffect(() => {
     if (!userId) return;
     setLoading(true);
-    fetch(`http://localhost:8080/api/history/${userId}`)
-      .then(res => res.json())
+    fetch(`http://localhost:8080/api/history/${userId}`, {
+      headers: { Authorization: `Bearer ${token}` },
+    })
+      .then(res => {
+        if (!res.ok) throw new Error(`Server error: ${res.status}`);
+        return res.json();
+      })
       .then(data => {
         setHistory(data);
         setLoading(false);
@@ -24,7 +29,7 @@ function HistorySidebar({ userId, onSelectHistory, refreshTrigger }) {
         console.error("Failed to fetch history:", err);
         setLoading(false);
       });
-  }, [userId, refreshTrigger]);
+  }, [userId, token, refreshTrigger]);
 
   // --- FAIL-SAFE DELETE FUNCTION ---
   const handleDelete = async (e, id) => {
@@ -36,6 +41,7 @@ function HistorySidebar({ userId, onSelectHistory, refreshTrigger }) {
     try {
       const response = await fetch(`http://localhost:8080/api/history/${id}`, {
         method: 'DELETE',
+        headers: { Authorization: `Bearer ${token}` },
       });
       
       if (response.ok) {
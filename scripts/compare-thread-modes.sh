@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Runs the same load against the platform-thread and virtual-thread modes
+# and writes one JSON report per mode to target/loadtest/.
+#
+# Needs JDK 21 and the database configured in application.properties.
+# LoadGenerator signs in many users from one address and sends far more than
+# a person would, so the login and per-user rate limits are switched off;
+# otherwise the reports would measure rate limiting, not thread modes.
+# Usage: scripts/compare-thread-modes.sh [concurrency] [duration-seconds]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY="${1:-400}"
+DURATION="${2:-60}"
+PORT=8080
+NO_LIMITS="--auth.login.max-attempts-per-minute=0 --generator.admission.user-requests-per-minute=0"
+mkdir -p target/loadtest
+
+sh ./mvnw -q -Pjava21 -DskipTests package
+JAR=$(ls target/unit-test-generator-*.jar | head -n 1)
+sh ./mvnw -q -Pjava21 test-compile
+
+run_mode() {
+    local mode="$1"; shift
+    java -jar "$JAR" --server.port=$PORT $NO_LIMITS "$@" > "target/loadtest/server-$mode.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+    sh ./mvnw -q -Pjava21 exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.example.unittestgenerator.loadtest.LoadGenerator \
+        -Dexec.args="--url=http://localhost:$PORT --concurrency=$CONCURRENCY --duration=$DURATION --label=$mode --report=target/loadtest/$mode.json"
+
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform
+run_mode virtual --spring.profiles.active=virtual
+
+echo "Reports: target/loadtest/platform.json target/loadtest/virtual.json"
@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Starts the server on the embedded H2 database ("test" profile, no MySQL needed),
+# drives it with LoadGenerator and writes target/loadtest/<commit>.json. Pass an
+# earlier report as the third argument to print the change against it.
+#
+# Usage: scripts/load-test.sh [concurrency] [duration-seconds] [baseline-report.json]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY="${1:-50}"
+DURATION="${2:-60}"
+BASELINE="${3:-}"
+PORT=8080
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+if ! git diff --quiet HEAD 2>/dev/null; then COMMIT="$COMMIT-dirty"; fi
+mkdir -p target/loadtest
+
+sh ./mvnw -q test-compile
+# useTestClasspath brings in H2; test-classes holds application-test.properties
+sh ./mvnw -q spring-boot:run -Dspring-boot.run.profiles=test \
+    -Dspring-boot.run.useTestClasspath=true -Dspring-boot.run.additional-classpath-elements=target/test-classes \
+    -Dspring-boot.run.arguments="--server.port=$PORT" > "target/loadtest/server-$COMMIT.log" 2>&1 &
+PID=$!
+trap "kill $PID 2>/dev/null || true" EXIT
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+ARGS="--url=http://localhost:$PORT --concurrency=$CONCURRENCY --duration=$DURATION --label=$COMMIT --report=target/loadtest/$COMMIT.json"
+if [ -n "$BASELINE" ]; then ARGS="$ARGS --baseline=$BASELINE"; fi
+sh ./mvnw -q exec:java -Dexec.classpathScope=test \
+    -Dexec.mainClass=com.example.unittestgenerator.loadtest.LoadGenerator -Dexec.args="$ARGS"
+
+echo "Report: target/loadtest/$COMMIT.json"
@@ -0,0 +1,85 @@
+package com.example.unittestgenerator.service;
+
+/**
+ * Deterministic synthetic sources for the benchmarks, from a small POJO up to
+ * a ~5k-line class with hundreds of overloaded public methods.
+ */
+final class BenchmarkCorpus {
+
+    private static final String[] PARAM_TYPES = {"int", "long", "double", "boolean", "String", "List<String>", "Order"};
+
+    private BenchmarkCorpus() {}
+
+    static String source(String name) {
+        return switch (name) {
+            case "pojo" -> pojo(8);
+            case "service" -> service(40, 6);
+            case "large" -> service(300, 12);
+            default -> throw new IllegalArgumentException("Unknown corpus entry: " + name);
+        };
+    }
+
+    static String pojo(int fields) {
+        StringBuilder src = new StringBuilder("package com.acme.model;\n\npublic class Customer {\n\n");
+        for (int i = 0; i < fields; i++) {
+            String type = i % 2 == 0 ? "String" : "int";
+            src.append("    private ").append(type).append(" field").append(i).append(";\n");
+        }
+        src.append('\n');
+        for (int i = 0; i < fields; i++) {
+            String type = i % 2 == 0 ? "String" : "int";
+            src.append("    public ").append(type).append(" getField").append(i).append("() {\n")
+               .append("        return field").append(i).append(";\n    }\n\n")
+               .append("    public void setField").append(i).append('(').append(type).append(" value) {\n")
+               .append("        this.field").append(i).append(" = value;\n    }\n\n");
+        }
+        return src.append("}\n").toString();
+    }
+
+    // Methods come in overload groups of five sharing one name; bodyLines pads each method body
+    static String service(int methods, int bodyLines) {
+        StringBuilder src = new StringBuilder("""
+                package com.acme.service;
+
+                import java.util.List;
+
+                /**
+                 * Synthetic service used to benchmark the generator.
+                 */
+                public class PricingService {
+
+                    private final OrderRepository repository;
+
+                    public PricingService(OrderRepository repository) {
+                        this.repository = repository;
+                    }
+
+                """);
+        for (int m = 0; m < methods; m++) {
+            String returnType = PARAM_TYPES[m % PARAM_TYPES.length];
+            src.append("    /** Computes variant ").append(m).append(". */\n");
+            src.append("    public ").append(returnType.equals("Order") ? "void" : returnType)
+               .append(" compute").append(m / 5).append('(');
+            int params = 1 + m % 5;
+            for (int p = 0; p < params; p++) {
+                if (p > 0) src.append(", ");
+                src.append(PARAM_TYPES[(m + p) % PARAM_TYPES.length]).append(" arg").append(p);
+            }
+            src.append(") {\n");
+            for (int line = 0; line < bodyLines; line++) {
+                src.append("        int local").append(line).append(" = ").append(line).append(" * ").append(m).append(";\n");
+            }
+            src.append(defaultReturn(returnType)).append("    }\n\n");
+        }
+        return src.append("}\n").toString();
+    }
+
+    private static String defaultReturn(String type) {
+        return switch (type) {
+            case "int", "long", "double" -> "        return 0;\n";
+            case "boolean" -> "        return false;\n";
+            case "Order" -> "";
+            default -> "        return null;\n";
+        };
+    }
+}
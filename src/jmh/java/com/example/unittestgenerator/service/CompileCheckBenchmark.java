@@ -0,0 +1,48 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.CompileReport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the compile check per generated test, with warm pooled file
+ * managers as in a running server. Compare with GeneratorBenchmark's
+ * end-to-end time to judge whether generator.compile.enabled can stay on.
+ * The benchmark class path has no JUnit, so point the check at a jar:
+ * -Djmh.args="CompileCheckBenchmark -jvmArgsAppend -Dgenerator.compile.classpath=/path/to/junit-jupiter-api.jar"
+ * (otherwise every check is skipped and setup fails).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompileCheckBenchmark {
+
+    @Param({"pojo", "service", "large"})
+    public String corpus;
+
+    private CompileCheck compileCheck;
+    private String source;
+    private String test;
+
+    @Setup
+    public void setUp() {
+        compileCheck = new CompileCheck(true, System.getProperty("generator.compile.classpath", ""), 4, false,
+                GeneratorMetrics.noop());
+        GeneratorService generatorService = GeneratorService.standalone().create();
+        source = BenchmarkCorpus.source(corpus);
+        test = generatorService.generate(source, false).getMainTestFileContent();
+        CompileReport first = compileCheck.check(source, test);
+        if (first.getStatus() == CompileReport.Status.SKIPPED) {
+            throw new IllegalStateException(first.getNote());
+        }
+    }
+
+    @Benchmark
+    public CompileReport check() {
+        return compileCheck.check(source, test);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each stage of the engine over the {@link BenchmarkCorpus}.
+ * Throughput and SampleTime (latency percentiles) run for every benchmark;
+ * the default profile arguments add -prof gc for allocation per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"pojo", "service", "large"})
+    public String corpus;
+
+    private String source;
+    private GeneratorService generatorService;
+    private ParserPool parserPool;
+    private ClassOrInterfaceDeclaration type;
+    private ClassModel model;
+    private byte[] encodedModel;
+
+    @Setup
+    public void setUp() {
+        source = BenchmarkCorpus.source(corpus);
+        parserPool = new ParserPool("JAVA_17", 4);
+        generatorService = GeneratorService.standalone().withParserPool(parserPool).create();
+
+        CompilationUnit cu = parserPool.parse(source);
+        type = cu.findFirst(ClassOrInterfaceDeclaration.class).orElseThrow();
+        model = ClassAnalyzer.analyze(type, type.getNameAsString());
+        encodedModel = ClassModelCodec.encode(model);
+    }
+
+    @Benchmark
+    public CompilationUnit parse() {
+        return parserPool.parse(source);
+    }
+
+    @Benchmark
+    public ClassModel analyze() {
+        return ClassAnalyzer.analyze(type, type.getNameAsString());
+    }
+
+    @Benchmark
+    public String generateSmartTestFile() {
+        return generatorService.generateSmartTestFile(model, GenerationOptions.defaults());
+    }
+
+    // What reopening a history entry costs instead of a parse
+    @Benchmark
+    public ClassModel decodeStoredModel() {
+        return ClassModelCodec.decode(encodedModel);
+    }
+
+    @Benchmark
+    public Object generateEndToEnd() {
+        return generatorService.generate(source, false);
+    }
+}
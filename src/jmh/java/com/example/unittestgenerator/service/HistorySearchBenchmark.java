@@ -0,0 +1,64 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.HistoryPage;
+import com.example.unittestgenerator.dto.SavedTestSummary;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History search over one user's index of 100k saved tests, each with a
+ * generated service class's terms plus words drawn from a shared vocabulary.
+ * "se" is a short prefix hitting most entries, "payment calc" two selective
+ * words, "zz" nothing. Loading the index is excluded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistorySearchBenchmark {
+
+    @Param({"100000"})
+    public int entries;
+
+    @Param({"", "se", "payment calc", "zz"})
+    public String query;
+
+    private UserSearchIndex index;
+    private List<String> words;
+
+    @Setup
+    public void setUp() {
+        String serviceTerms = SearchTerms.of("Service", null, BenchmarkCorpus.service(12, 2));
+        String[] vocabulary = new String[20_000];
+        Random random = new Random(42);
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+        }
+        vocabulary[0] = "payment";
+        vocabulary[1] = "calculator";
+
+        index = new UserSearchIndex();
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int id = 1; id <= entries; id++) {
+            StringBuilder terms = new StringBuilder(serviceTerms);
+            for (int i = 0; i < 40; i++) {
+                // Skewed towards the start of the vocabulary, like real identifiers
+                int word = (int) (vocabulary.length * Math.pow(random.nextDouble(), 3));
+                terms.append(' ').append(vocabulary[word]);
+            }
+            index.add(new SavedTestSummary((long) id, "Service" + id, createdAt, 1000, 2000), terms.toString());
+        }
+        words = SearchTerms.queryOf(query);
+    }
+
+    @Benchmark
+    public HistoryPage search() {
+        return index.search(words, null, 20);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential vs parallel rendering of the method tests by class size, to
+ * find where generator.parallel.method-threshold should sit on a given
+ * host: the smallest method count at which "parallel" wins. Rendering
+ * only; the model is analyzed once in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelRenderingBenchmark {
+
+    @Param({"8", "16", "32", "64", "128", "256", "512"})
+    public int methods;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private ParallelRendering rendering;
+    private GeneratorService generatorService;
+    private ClassModel model;
+
+    @Setup
+    public void setUp() {
+        // Lowest threshold: every size that splits into at least two runs goes parallel
+        rendering = mode.equals("parallel") ? new ParallelRendering(1, 0) : ParallelRendering.sequential();
+        ParserPool parserPool = new ParserPool("JAVA_17", 4);
+        generatorService = GeneratorService.standalone().withParserPool(parserPool).withRendering(rendering).create();
+
+        ClassOrInterfaceDeclaration type = parserPool.parse(BenchmarkCorpus.service(methods, 2))
+                .findFirst(ClassOrInterfaceDeclaration.class).orElseThrow();
+        model = ClassAnalyzer.analyze(type, type.getNameAsString());
+    }
+
+    @TearDown
+    public void tearDown() {
+        rendering.shutdown();
+    }
+
+    @Benchmark
+    public String generateSmartTestFile() {
+        return generatorService.generateSmartTestFile(model, GenerationOptions.defaults());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.unittestgenerator.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the last run generated, per source file: its size, modification time
+ * and {@link com.example.unittestgenerator.service.SourceFingerprint}, and
+ * the test files written for it. A file whose size and time still match is
+ * skipped without being read; one that was only touched or reformatted is
+ * read and hashed, but not generated again. The settings line makes a run
+ * with another template style, language level, template text or generator
+ * version start from scratch.
+ *
+ * <p>Stored as tab-separated text next to the generated tests, one line per
+ * source, sorted by path so the file diffs cleanly between runs.
+ */
+final class GenerationManifest {
+
+    static final String FILE_NAME = ".unit-test-generator.manifest";
+    private static final String HEADER = "# unit-test-generator manifest v1 ";
+
+    record Entry(long size, long modifiedMillis, String fingerprint, List<String> outputs) {
+
+        boolean sameFile(long size, long modifiedMillis) {
+            return this.size == size && this.modifiedMillis == modifiedMillis;
+        }
+    }
+
+    private final String settings;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private GenerationManifest(String settings, Map<String, Entry> previous) {
+        this.settings = settings;
+        this.previous = previous;
+    }
+
+    // Empty when the file is missing, unreadable as a manifest, or written with other settings
+    static GenerationManifest load(Path file, String settings) throws IOException {
+        Map<String, Entry> entries = new TreeMap<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return new GenerationManifest(settings, entries);
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(HEADER + settings)) {
+            return new GenerationManifest(settings, entries);
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 5) {
+                continue;
+            }
+            List<String> outputs = fields[4].isEmpty() ? List.of() : List.of(fields[4].split("\\|"));
+            entries.put(fields[0], new Entry(Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3], outputs));
+        }
+        return new GenerationManifest(settings, entries);
+    }
+
+    Entry previous(String source) {
+        return previous.get(source);
+    }
+
+    void record(String source, Entry entry) {
+        current.put(source, entry);
+    }
+
+    // Sources from the last run that weren't seen in this one
+    List<String> vanished() {
+        List<String> gone = new ArrayList<>();
+        for (String source : previous.keySet()) {
+            if (!current.containsKey(source)) {
+                gone.add(source);
+            }
+        }
+        return gone;
+    }
+
+    // Written to a temporary file first, so an interrupted run leaves the old manifest intact
+    void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write(HEADER + settings);
+            out.newLine();
+            for (Map.Entry<String, Entry> e : new TreeMap<>(current).entrySet()) {
+                Entry entry = e.getValue();
+                out.write(e.getKey() + "\t" + entry.size() + "\t" + entry.modifiedMillis() + "\t"
+                        + entry.fingerprint() + "\t" + String.join("|", entry.outputs()));
+                out.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.unittestgenerator.cli;
+
+import com.example.unittestgenerator.service.GenerationOptions;
+import com.example.unittestgenerator.service.GeneratorService;
+import com.example.unittestgenerator.service.ParserPool;
+import com.example.unittestgenerator.service.TemplateRegistry;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Headless batch mode: generates tests for a source tree straight from the
+ * generator engine, without the web server, Spring context or database.
+ * Reruns only touch files that changed since the last run (see
+ * {@link GenerationManifest}), so it is cheap to schedule nightly.
+ *
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.example.unittestgenerator.cli.GeneratorCli \
+ *     -Dexec.args="--source=../monorepo/billing/src/main/java --out=target/generated-tests"
+ *
+ * java -cp unit-test-generator.jar -Dloader.main=com.example.unittestgenerator.cli.GeneratorCli \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher --source=... --out=...
+ * </pre>
+ *
+ * Options: --style (template style, default junit5), --level (Java language
+ * level, default JAVA_17), --templates (template override directory, as
+ * generator.templates.dir), --threads (default: available processors) and
+ * --force to regenerate everything. Exits with 1 when any file failed.
+ */
+public final class GeneratorCli {
+
+    private GeneratorCli() {}
+
+    public static void main(String[] args) throws Exception {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        if (!options.containsKey("source") || !options.containsKey("out")) {
+            err.println("Usage: GeneratorCli --source=<dir> --out=<dir> [--style=junit5] [--level=JAVA_17]"
+                    + " [--templates=<dir>] [--threads=<n>] [--force]");
+            return 2;
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        GeneratorService generatorService;
+        GenerationOptions generation;
+        try {
+            ParserPool parserPool = new ParserPool("JAVA_17", threads);
+            TemplateRegistry templates = new TemplateRegistry("junit5", options.get("templates"));
+            // No cache: every file is generated at most once per run. Files are the unit of parallelism.
+            generatorService = GeneratorService.standalone().withParserPool(parserPool).withTemplates(templates).create();
+            generation = GenerationOptions.defaults()
+                    .withLanguageLevel(parserPool.resolve(options.get("level")))
+                    .withTemplateStyle(generatorService.resolveTemplateStyle(options.get("style")));
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return 2;
+        }
+
+        SourceTreeGenerator generator = new SourceTreeGenerator(generatorService, generation,
+                Path.of(options.get("source")), Path.of(options.get("out")), threads,
+                Boolean.parseBoolean(options.get("force")), err);
+        SourceTreeGenerator.Summary summary = generator.run();
+        out.printf("%d source files in %d ms: %d generated (%d tests written), %d unchanged, %d failed, %d stale tests removed%n",
+                summary.scanned(), summary.elapsedMillis(), summary.generated(), summary.testsWritten(),
+                summary.unchanged(), summary.failed(), summary.testsRemoved());
+        return summary.failed() > 0 ? 1 : 0;
+    }
+
+    // "--name=value", or "--flag" for true
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, split), arg.substring(split + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.unittestgenerator.cli;
+
+import com.example.unittestgenerator.dto.ClassTestResult;
+import com.example.unittestgenerator.service.ClassModel;
+import com.example.unittestgenerator.service.GenerationOptions;
+import com.example.unittestgenerator.service.GeneratorService;
+import com.example.unittestgenerator.service.SourceFingerprint;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates tests for every .java file under a source root into a test tree
+ * with the same layout: src/main/java/com/acme/Foo.java becomes
+ * com/acme/FooTest.java under the output root, one file per class (a nested
+ * Foo.Inner becomes Foo_InnerTest.java). The walk is split per directory
+ * across a fork/join pool and every file is read, generated and written by
+ * the worker that found it. Files the {@link GenerationManifest} marks as
+ * unchanged are skipped, and tests whose source disappeared are deleted.
+ */
+final class SourceTreeGenerator {
+
+    // Below this a file is read into a reused heap buffer; mapping costs more than it saves
+    static final int MAP_THRESHOLD = 256 * 1024;
+    private static final String FAILED = "-"; // fingerprint that never matches, so the file is retried
+    // From the jar manifest; "dev" when running from classes, where only the templates are tracked
+    private static final String GENERATOR_VERSION = Objects.requireNonNullElse(
+            SourceTreeGenerator.class.getPackage().getImplementationVersion(), "dev");
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAP_THRESHOLD));
+
+    record Summary(long scanned, long generated, long unchanged, long failed, long testsWritten, long testsRemoved,
+                   long elapsedMillis) {}
+
+    private final GeneratorService generatorService;
+    private final GenerationOptions options;
+    private final Path sourceRoot;
+    private final Path outputRoot;
+    private final int threads;
+    private final boolean force;
+    private final PrintStream errors;
+
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder testsWritten = new LongAdder();
+    private final LongAdder testsRemoved = new LongAdder();
+    private final Map<String, String> outputOwners = new ConcurrentHashMap<>(); // test path -> source that writes it
+    private final Queue<String> staleOutputs = new ConcurrentLinkedQueue<>();
+    private GenerationManifest manifest;
+
+    SourceTreeGenerator(GeneratorService generatorService, GenerationOptions options, Path sourceRoot, Path outputRoot,
+                        int threads, boolean force, PrintStream errors) {
+        this.generatorService = generatorService;
+        this.options = options;
+        this.sourceRoot = sourceRoot.toAbsolutePath().normalize();
+        this.outputRoot = outputRoot.toAbsolutePath().normalize();
+        this.threads = Math.max(1, threads);
+        this.force = force;
+        this.errors = errors;
+    }
+
+    // Anything that changes the output of unchanged sources: a run with other settings starts from scratch
+    String settings() {
+        return options.getTemplateStyle() + " " + options.getLanguageLevel()
+                + " templates=" + generatorService.templateFingerprint(options.getTemplateStyle())
+                + " generator=" + GENERATOR_VERSION;
+    }
+
+    Summary run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        if (!Files.isDirectory(sourceRoot)) {
+            throw new IOException("Not a directory: " + sourceRoot);
+        }
+        Files.createDirectories(outputRoot);
+        Path manifestFile = outputRoot.resolve(GenerationManifest.FILE_NAME);
+        manifest = GenerationManifest.load(manifestFile, settings());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new DirectoryTask(sourceRoot));
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        for (String source : manifest.vanished()) {
+            staleOutputs.addAll(manifest.previous(source).outputs());
+        }
+        deleteStaleOutputs();
+        manifest.save(manifestFile);
+
+        return new Summary(scanned.sum(), generated.sum(), unchanged.sum(), failed.sum(), testsWritten.sum(),
+                testsRemoved.sum(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // ============================================================
+    // WALK
+    // ============================================================
+
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path directory;
+
+        DirectoryTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        // Hidden directories (.git, .idea) and an output tree inside the sources are left alone
+                        if (!name.startsWith(".") && !entry.equals(outputRoot)) {
+                            tasks.add(new DirectoryTask(entry));
+                        }
+                    } else if (isSource(name)) {
+                        tasks.add(ForkJoinTask.adapt(() -> process(entry)));
+                    }
+                }
+            } catch (IOException e) {
+                errors.println(sourceRoot.relativize(directory) + ": " + e.getMessage());
+                failed.increment();
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private static boolean isSource(String name) {
+        return name.endsWith(".java") && !name.equals("package-info.java") && !name.equals("module-info.java");
+    }
+
+    // ============================================================
+    // ONE FILE
+    // ============================================================
+
+    private void process(Path file) {
+        scanned.increment();
+        String source = sourceRoot.relativize(file).toString().replace('\\', '/');
+        GenerationManifest.Entry previous = manifest.previous(source);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+            // A file that failed last time is always retried, however unchanged it looks
+            if (!force && previous != null && !FAILED.equals(previous.fingerprint())
+                    && previous.sameFile(size, modified) && outputsExist(previous)) {
+                claim(source, previous.outputs());
+                manifest.record(source, previous);
+                unchanged.increment();
+                return;
+            }
+
+            String sourceCode = read(file, size);
+            String fingerprint = SourceFingerprint.of(sourceCode);
+            if (!force && previous != null && previous.fingerprint().equals(fingerprint) && outputsExist(previous)) {
+                claim(source, previous.outputs());
+                manifest.record(source, new GenerationManifest.Entry(size, modified, fingerprint, previous.outputs()));
+                unchanged.increment();
+                return;
+            }
+
+            boolean complete = true;
+            List<String> outputs = new ArrayList<>();
+            for (ClassTestResult result : generatorService.generateAllClasses(source, sourceCode, options)) {
+                if (result.isSuccess()) {
+                    String output = testPathFor(source, result.getClassName());
+                    String owner = outputOwners.putIfAbsent(output, source);
+                    if (owner != null && !owner.equals(source)) {
+                        errors.println(source + " (" + result.getClassName() + "): " + output + " is also written for " + owner);
+                        complete = false;
+                        continue;
+                    }
+                    write(outputRoot.resolve(output), result.getMainTestFileContent());
+                    outputs.add(output);
+                    testsWritten.increment();
+                } else if (!GeneratorService.NO_CLASS_FOUND.equals(result.getError())) {
+                    errors.println(source + (result.getClassName() == null ? "" : " (" + result.getClassName() + ")")
+                            + ": " + result.getError());
+                    complete = false;
+                }
+            }
+            if (previous != null) {
+                for (String output : previous.outputs()) {
+                    if (!outputs.contains(output)) {
+                        staleOutputs.add(output);
+                    }
+                }
+            }
+            manifest.record(source, new GenerationManifest.Entry(size, modified, complete ? fingerprint : FAILED, outputs));
+            (complete ? generated : failed).increment();
+        } catch (IOException | RuntimeException e) {
+            errors.println(source + ": " + e);
+            if (previous != null) {
+                manifest.record(source, previous); // keep its tests until the file can be read again
+            }
+            failed.increment();
+        }
+    }
+
+    // Memory-mapped above MAP_THRESHOLD; malformed bytes become U+FFFD rather than failing the file
+    static String read(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes;
+            if (size >= MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = READ_BUFFER.get().clear().limit((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                    // keep reading until the buffer is full or the file ends
+                }
+                bytes.flip();
+            }
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes)
+                    .toString();
+        }
+    }
+
+    // "com/acme/Foo.java" + "Foo.Inner" -> "com/acme/Foo_InnerTest.java", matching the rendered test class
+    static String testPathFor(String source, String className) {
+        int slash = source.lastIndexOf('/');
+        return source.substring(0, slash + 1) + ClassModel.testClassNameOf(className) + ".java";
+    }
+
+    // Unchanged sources keep their tests; a changed source that maps onto one of them reports the clash
+    private void claim(String source, List<String> outputs) {
+        for (String output : outputs) {
+            outputOwners.putIfAbsent(output, source);
+        }
+    }
+
+    private boolean outputsExist(GenerationManifest.Entry entry) {
+        for (String output : entry.outputs()) {
+            if (!Files.exists(outputRoot.resolve(output))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    // Only ever deletes files an earlier run recorded as its own, and only once every worker is done,
+    // so a test another source writes in this run is never taken for its old owner's leftover
+    private void deleteStaleOutputs() {
+        for (String output : staleOutputs) {
+            if (outputOwners.containsKey(output)) {
+                continue;
+            }
+            try {
+                if (Files.deleteIfExists(outputRoot.resolve(output))) {
+                    testsRemoved.increment();
+                }
+            } catch (IOException e) {
+                errors.println(output + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.unittestgenerator.config;
+
+import com.example.unittestgenerator.service.AdmissionRejectedException;
+import com.example.unittestgenerator.service.GenerationAdmission;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Size and concurrency admission for the endpoints that parse or generate.
+ * Runs before the body is read, so an oversized paste is refused on its
+ * Content-Length and a full server answers 429 without binding the JSON.
+ * The permit is held until the response is complete, including streamed
+ * responses that finish on another thread.
+ */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Pattern ADMITTED_PATHS =
+            Pattern.compile("/api/generate(/.*)?|/api/jobs(/zip)?|/api/history/entry/[^/]+/regenerate|/api/projects/[^/]+/(sources|jars)");
+    // Many files per request, each still checked against the source limit
+    private static final Pattern BATCH_PATHS = Pattern.compile("/api/generate/batch|/api/jobs|/api/projects/[^/]+/sources");
+
+    private final GenerationAdmission admission;
+
+    public AdmissionFilter(GenerationAdmission admission) {
+        this.admission = admission;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !ADMITTED_PATHS.matcher(pathOf(request)).matches();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GenerationAdmission.Permit permit;
+        try {
+            // Multipart uploads are bounded by spring.servlet.multipart instead
+            if (!isMultipart(request)) {
+                admission.checkRequestSize(request.getContentLengthLong(), BATCH_PATHS.matcher(pathOf(request)).matches());
+            }
+            permit = admission.acquire();
+        } catch (AdmissionRejectedException e) {
+            reject(response, e);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(permit));
+            } else {
+                permit.close();
+            }
+        }
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    private static void reject(HttpServletResponse response, AdmissionRejectedException e) throws IOException {
+        response.setStatus(e.getStatus());
+        if (e.getRetryAfterSeconds() > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+        // Unread request bodies would otherwise be drained before the response goes out
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(e.getMessage());
+    }
+
+    private record ReleaseOnCompletion(GenerationAdmission.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // the same request continues, keep the permit
+        }
+    }
+}
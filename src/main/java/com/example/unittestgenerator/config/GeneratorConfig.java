@@ -0,0 +1,43 @@
+package com.example.unittestgenerator.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class GeneratorConfig {
+
+    // CPU-bound pool for parsing/generation fan-out; 0 means one thread per core
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService generatorExecutor(@Value("${generator.batch.threads:0}") int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(size, namedDaemonThreads("generator-"));
+    }
+
+    // Background jobs: a few low-priority threads, so interactive requests keep the CPU.
+    // shutdownNow interrupts running jobs; they resume from their last committed file.
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService jobExecutor(@Value("${generator.jobs.threads:0}") int threads) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadFactory daemons = namedDaemonThreads("generation-job-");
+        return Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = daemons.newThread(runnable);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.unittestgenerator.config; // Your actual package name
 
+import com.example.unittestgenerator.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -25,9 +29,15 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**", "/api/generate/**", "/api/history/**").permitAll()
+                // Generation works anonymously; a valid token only attaches the results to its user.
+                // Projects (uploaded sources and jars) belong to a user, so /api/projects needs a token.
+                .requestMatchers("/api/auth/**", "/api/generate/**", "/api/jobs/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
-            );
+            )
+            // Bearer tokens from /api/auth/login, checked by signature alone: no session, no user lookup
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {}));
             
         return http.build();
     }
@@ -45,9 +55,15 @@ public class SecurityConfig {
         return source;
     }
 
+    @Bean
+    public JwtDecoder jwtDecoder(TokenService tokenService) {
+        return tokenService.decoder();
+    }
+
     // THE NEW BEAN THAT FIXES YOUR CRASH
+    // Existing hashes keep their own strength and are rehashed at the next login after it changes
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
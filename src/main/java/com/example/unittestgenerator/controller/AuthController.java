@@ -3,6 +3,11 @@ package com.example.unittestgenerator.controller;
 import com.example.unittestgenerator.dto.AuthRequest;
 import com.example.unittestgenerator.models.User;
 import com.example.unittestgenerator.repository.UserRepository;
+import com.example.unittestgenerator.service.AdmissionRejectedException;
+import com.example.unittestgenerator.service.LoginService;
+import com.example.unittestgenerator.service.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -18,10 +23,15 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LoginService loginService;
+    private final TokenService tokenService;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          LoginService loginService, TokenService tokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.loginService = loginService;
+        this.tokenService = tokenService;
     }
 
     @PostMapping("/register")
@@ -45,23 +55,33 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody AuthRequest request) {
-        Optional<User> optionalUser = userRepository.findByUsername(request.getUsername());
+    public ResponseEntity<?> authenticateUser(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        Optional<User> optionalUser;
+        try {
+            optionalUser = loginService.authenticate(request.getUsername(), request.getPassword(),
+                    httpRequest.getRemoteAddr());
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        }
 
         if (optionalUser.isPresent()) {
             User user = optionalUser.get();
-            
-            if (passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                
-                // THE FIX: Create a proper JSON object for React to consume
-                Map<String, Object> userData = new HashMap<>();
-                userData.put("id", user.getId());
-                userData.put("username", user.getUsername());
-                userData.put("email", user.getEmail());
-                userData.put("fullName", user.getFullName());
-                
-                return ResponseEntity.ok(userData);
-            }
+            TokenService.IssuedToken token = tokenService.issue(user);
+
+            // THE FIX: Create a proper JSON object for React to consume.
+            // Later requests send the token as "Authorization: Bearer <token>" instead of a userId.
+            Map<String, Object> userData = new HashMap<>();
+            userData.put("id", user.getId());
+            userData.put("username", user.getUsername());
+            userData.put("email", user.getEmail());
+            userData.put("fullName", user.getFullName());
+            userData.put("token", token.value());
+            userData.put("tokenType", "Bearer");
+            userData.put("expiresAt", token.expiresAt());
+
+            return ResponseEntity.ok(userData);
         }
         return ResponseEntity.status(401).body("Invalid username or password");
     }
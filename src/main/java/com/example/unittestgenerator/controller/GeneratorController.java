@@ -1,17 +1,49 @@
 package com.example.unittestgenerator.controller;
 
+import com.example.unittestgenerator.dto.AdmissionStats;
+import com.example.unittestgenerator.dto.BatchGenerateRequest;
+import com.example.unittestgenerator.dto.BatchGenerateResponse;
+import com.example.unittestgenerator.dto.CacheStats;
+import com.example.unittestgenerator.dto.ClassTestResult;
 import com.example.unittestgenerator.dto.GenerateRequest;
 import com.example.unittestgenerator.dto.GenerateResponse;
+import com.example.unittestgenerator.dto.IncrementalGenerateRequest;
+import com.example.unittestgenerator.dto.IncrementalGenerateResponse;
+import com.example.unittestgenerator.dto.SourceFile;
+import com.example.unittestgenerator.dto.WriterStats;
 import com.example.unittestgenerator.models.SavedTest;
-import com.example.unittestgenerator.models.User;
 import com.example.unittestgenerator.repository.SavedTestRepository;
-import com.example.unittestgenerator.repository.UserRepository;
+import com.example.unittestgenerator.service.AdmissionRejectedException;
+import com.example.unittestgenerator.service.BatchGenerationService;
+import com.example.unittestgenerator.service.BlobStore;
+import com.example.unittestgenerator.service.ClassModel;
+import com.example.unittestgenerator.service.GenerationAdmission;
+import com.example.unittestgenerator.service.GenerationOptions;
 import com.example.unittestgenerator.service.GeneratorService;
+import com.example.unittestgenerator.service.IncrementalGenerator;
+import com.example.unittestgenerator.service.PendingSave;
+import com.example.unittestgenerator.service.SavedTestWriter;
+import com.example.unittestgenerator.service.SymbolSolverCache;
+import com.example.unittestgenerator.service.TestStream;
+import com.example.unittestgenerator.service.TokenService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -19,37 +51,273 @@ import java.util.Optional;
 public class GeneratorController {
 
     private final GeneratorService generatorService;
+    private final BatchGenerationService batchGenerationService;
+    private final IncrementalGenerator incrementalGenerator;
+    private final SavedTestWriter savedTestWriter;
     private final SavedTestRepository savedTestRepository;
-    private final UserRepository userRepository;
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    private final SymbolSolverCache symbolSolverCache;
+    private final GenerationAdmission admission;
 
     public GeneratorController(GeneratorService generatorService, 
-                               SavedTestRepository savedTestRepository, 
-                               UserRepository userRepository) {
+                               BatchGenerationService batchGenerationService,
+                               IncrementalGenerator incrementalGenerator,
+                               SavedTestWriter savedTestWriter, 
+                               SavedTestRepository savedTestRepository,
+                               BlobStore blobStore,
+                               ObjectMapper objectMapper,
+                               SymbolSolverCache symbolSolverCache,
+                               GenerationAdmission admission) {
         this.generatorService = generatorService;
+        this.batchGenerationService = batchGenerationService;
+        this.incrementalGenerator = incrementalGenerator;
+        this.savedTestWriter = savedTestWriter;
         this.savedTestRepository = savedTestRepository;
-        this.userRepository = userRepository;
+        this.blobStore = blobStore;
+        this.objectMapper = objectMapper;
+        this.symbolSolverCache = symbolSolverCache;
+        this.admission = admission;
     }
 
     @PostMapping("/generate")
-    public ResponseEntity<?> generateTest(@RequestBody GenerateRequest request) {
-        try {
-            GenerateResponse response = generatorService.generate(request.getSourceCode());
-
-            // THE SAVE LOGIC: Links the test to the user ID sent from React
-            if (request.getUserId() != null) {
-                Optional<User> userOpt = userRepository.findById(request.getUserId());
-                if (userOpt.isPresent()) {
-                    SavedTest savedTest = new SavedTest();
-                    savedTest.setUser(userOpt.get());
-                    savedTest.setSourceCode(request.getSourceCode());
-                    savedTest.setGeneratedTestCode(response.getMainTestFileContent()); 
-                    savedTestRepository.save(savedTest);
+    public ResponseEntity<?> generateTest(@RequestBody GenerateRequest request, @AuthenticationPrincipal Jwt jwt) {
+        Long userId = TokenService.userIdOf(jwt);
+        try {
+            admit(userId, request.getSourceCode());
+            boolean useCache = !Boolean.FALSE.equals(request.getUseCache());
+            GenerationOptions options = options(request.getLanguageLevel(), request.getTemplateStyle(),
+                    userId, request.getProjectId()).withCompileCheck(request.getCompileCheck());
+            GenerateResponse response = generatorService.generate(request.getSourceCode(), useCache, options);
+
+            // THE SAVE LOGIC: Links the test to the user in the bearer token.
+            // Queued for the background writer so the response doesn't wait on MySQL.
+            if (userId != null) {
+                savedTestWriter.submit(new PendingSave(userId, response.getClassName(),
+                        request.getSourceCode(), response.getMainTestFileContent(), response.getClassModel()));
+            }
+            return ResponseEntity.ok(response);
+        } catch (AdmissionRejectedException e) {
+            return rejected(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An error occurred: " + e.getMessage());
+        }
+    }
+
+    // Incremental mode: only added or changed methods get new tests, the rest of the
+    // previous test file (including manual edits) is kept as it was
+    @PostMapping("/generate/incremental")
+    public ResponseEntity<?> generateIncremental(@RequestBody IncrementalGenerateRequest request,
+                                                 @AuthenticationPrincipal Jwt jwt) {
+        Long userId = TokenService.userIdOf(jwt);
+        try {
+            admit(userId, request.getSourceCode(), request.getPreviousSourceCode(),
+                    request.getPreviousTestCode());
+            GenerationOptions options = options(request.getLanguageLevel(), request.getTemplateStyle());
+            IncrementalGenerateResponse response;
+            if (request.getPreviousTestId() != null) {
+                SavedTest previous = savedTestRepository.findWithBodiesById(request.getPreviousTestId()).orElse(null);
+                // Someone else's history entry looks the same as a missing one
+                if (previous == null || !previous.getUser().getId().equals(userId)) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Previous test not found");
+                }
+                // Stored model when there is one, so the previous source isn't parsed again
+                ClassModel previousModel = generatorService.modelOf(previous.getClassModel(),
+                        () -> blobStore.sourceOf(previous), options);
+                response = incrementalGenerator.regenerate(previousModel, blobStore.testOf(previous),
+                        request.getSourceCode(), options);
+            } else {
+                response = incrementalGenerator.regenerate(request.getPreviousSourceCode(),
+                        request.getPreviousTestCode(), request.getSourceCode(), options);
+            }
+
+            if (userId != null) {
+                savedTestWriter.submit(new PendingSave(userId, response.getClassName(),
+                        request.getSourceCode(), response.getMainTestFileContent(), response.getClassModel()));
+            }
+            return ResponseEntity.ok(response);
+        } catch (AdmissionRejectedException e) {
+            return rejected(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("An error occurred: " + e.getMessage());
+        }
+    }
+
+    // Streaming mode: output goes straight to the response, one source method per chunk.
+    // Nothing is cached or saved to history here, since the full text is never held in memory.
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTestAsText(@RequestBody GenerateRequest request, @AuthenticationPrincipal Jwt jwt) {
+        TestStream stream;
+        try {
+            stream = prepareStream(request, TokenService.userIdOf(jwt));
+        } catch (AdmissionRejectedException e) {
+            return StreamedReplies.streamed(rejected(e));
+        } catch (IllegalArgumentException e) {
+            return StreamedReplies.streamed(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            stream.writeTo((kind, name, content) -> {
+                writer.append(content);
+                writer.flush();
+            });
+        };
+        return ResponseEntity.ok().contentType(new MediaType("text", "plain", StandardCharsets.UTF_8)).body(body);
+    }
+
+    @PostMapping(value = "/generate/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTestAsNdjson(@RequestBody GenerateRequest request, @AuthenticationPrincipal Jwt jwt) {
+        TestStream stream;
+        try {
+            stream = prepareStream(request, TokenService.userIdOf(jwt));
+        } catch (AdmissionRejectedException e) {
+            return StreamedReplies.streamed(rejected(e));
+        } catch (IllegalArgumentException e) {
+            return StreamedReplies.streamed(ResponseEntity.badRequest().body(e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null); // lines are separated by '\n' alone, not "\n "
+            stream.writeTo((kind, name, content) -> {
+                json.writeStartObject();
+                json.writeStringField("type", kind.name().toLowerCase());
+                json.writeStringField("name", name);
+                json.writeStringField("content", content.toString());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                json.flush();
+            });
+            json.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private TestStream prepareStream(GenerateRequest request, Long userId) {
+        admit(userId, request.getSourceCode());
+        return generatorService.prepareStream(request.getSourceCode(),
+                options(request.getLanguageLevel(), request.getTemplateStyle()));
+    }
+
+    // Throws before any parsing when the user is over its rate or a source is too large
+    private void admit(Long userId, String... sources) {
+        admission.checkRate(userId);
+        for (String source : sources) {
+            admission.checkSource(source);
+        }
+    }
+
+    private static ResponseEntity<String> rejected(AdmissionRejectedException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatus());
+        if (e.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+        return response.body(e.getMessage());
+    }
+
+    private GenerationOptions options(String languageLevel, String templateStyle) {
+        return options(languageLevel, templateStyle, null, null);
+    }
+
+    // A projectId refers to one of the token user's own projects; anonymous requests can't use one
+    private GenerationOptions options(String languageLevel, String templateStyle, Long userId, String projectId) {
+        GenerationOptions options = GenerationOptions.defaults()
+                .withLanguageLevel(generatorService.resolveLanguageLevel(languageLevel))
+                .withTemplateStyle(generatorService.resolveTemplateStyle(templateStyle));
+        return projectId == null || projectId.isBlank() ? options : options.withSymbols(symbolSolverCache.project(userId, projectId));
+    }
+
+    @PostMapping("/generate/batch")
+    public ResponseEntity<?> generateBatch(@RequestBody BatchGenerateRequest request, @AuthenticationPrincipal Jwt jwt) {
+        Long userId = TokenService.userIdOf(jwt);
+        try {
+            admission.checkRate(userId);
+        } catch (AdmissionRejectedException e) {
+            return rejected(e);
+        }
+        return runBatch(request.getFiles(), userId, request.getLanguageLevel(), request.getTemplateStyle(),
+                request.getProjectId(), request.getCompileCheck());
+    }
+
+    @PostMapping(value = "/generate/batch/zip", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> generateBatchFromZip(@RequestParam("file") MultipartFile file,
+                                                  @RequestParam(value = "languageLevel", required = false) String languageLevel,
+                                                  @RequestParam(value = "templateStyle", required = false) String templateStyle,
+                                                  @RequestParam(value = "projectId", required = false) String projectId,
+                                                  @RequestParam(value = "compileCheck", required = false) Boolean compileCheck,
+                                                  @AuthenticationPrincipal Jwt jwt) {
+        Long userId = TokenService.userIdOf(jwt);
+        try {
+            admission.checkRate(userId);
+        } catch (AdmissionRejectedException e) {
+            return rejected(e);
+        }
+        List<SourceFile> files;
+        try {
+            files = batchGenerationService.readZip(file.getInputStream());
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Could not read archive: " + e.getMessage());
+        }
+        return runBatch(files, userId, languageLevel, templateStyle, projectId, compileCheck);
+    }
+
+    private ResponseEntity<?> runBatch(List<SourceFile> files, Long userId, String languageLevel, String templateStyle,
+                                       String projectId, Boolean compileCheck) {
+        try {
+            if (files != null) {
+                for (SourceFile file : files) {
+                    admission.checkSource(file.getSourceCode());
                 }
             }
+            GenerationOptions options = options(languageLevel, templateStyle, userId, projectId).withCompileCheck(compileCheck);
+            BatchGenerateResponse response = batchGenerationService.generate(files, options);
+
+            // One transaction for the whole batch; the token already vouches for the user
+            if (userId != null) {
+                saveBatch(userId, files, response);
+            }
             return ResponseEntity.ok(response);
+        } catch (AdmissionRejectedException e) {
+            return rejected(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("An error occurred: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Results point at their file by index: file names are optional and may repeat
+    private void saveBatch(Long userId, List<SourceFile> files, BatchGenerateResponse response) {
+        List<PendingSave> saves = new ArrayList<>();
+        for (ClassTestResult result : response.getResults()) {
+            if (!result.isSuccess()) continue;
+            saves.add(new PendingSave(userId, result.getClassName(), files.get(result.getFileIndex()).getSourceCode(),
+                    result.getMainTestFileContent(), result.getClassModel()));
+        }
+        savedTestWriter.persistNow(saves);
+    }
+
+    @GetMapping("/generate/cache/stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(generatorService.getCacheStats());
+    }
+
+    @GetMapping("/generate/admission/stats")
+    public ResponseEntity<AdmissionStats> getAdmissionStats() {
+        return ResponseEntity.ok(admission.stats());
+    }
+
+    @GetMapping("/generate/writer/stats")
+    public ResponseEntity<WriterStats> getWriterStats() {
+        return ResponseEntity.ok(savedTestWriter.stats());
+    }
+}
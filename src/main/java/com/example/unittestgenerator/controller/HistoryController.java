@@ -1,49 +1,237 @@
 package com.example.unittestgenerator.controller;
 
+import com.example.unittestgenerator.dto.GenerateResponse;
+import com.example.unittestgenerator.dto.HistoryImportResult;
+import com.example.unittestgenerator.dto.HistoryPage;
+import com.example.unittestgenerator.dto.RegenerateRequest;
 import com.example.unittestgenerator.dto.SavedTestResponse;
+import com.example.unittestgenerator.dto.SavedTestSummary;
 import com.example.unittestgenerator.models.SavedTest;
 import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.example.unittestgenerator.service.BlobStore;
+import com.example.unittestgenerator.service.ClassModel;
+import com.example.unittestgenerator.service.GenerationOptions;
+import com.example.unittestgenerator.service.GeneratorService;
+import com.example.unittestgenerator.service.HistorySearchIndex;
+import com.example.unittestgenerator.service.HistoryTransfer;
+import com.example.unittestgenerator.service.TokenService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
+// Every endpoint needs a bearer token (see SecurityConfig) and only serves the token's own entries
 @RestController
 @RequestMapping("/api/history")
 // STRICT CORS FIX: Explicitly allowing DELETE and OPTIONS preflight requests
 @CrossOrigin(origins = "http://localhost:5173", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class HistoryController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final SavedTestRepository savedTestRepository;
+    private final BlobStore blobStore;
+    private final GeneratorService generatorService;
+    private final HistorySearchIndex searchIndex;
+    private final HistoryTransfer historyTransfer;
 
-    public HistoryController(SavedTestRepository savedTestRepository) {
+    public HistoryController(SavedTestRepository savedTestRepository, BlobStore blobStore,
+                             GeneratorService generatorService, HistorySearchIndex searchIndex,
+                             HistoryTransfer historyTransfer) {
         this.savedTestRepository = savedTestRepository;
+        this.blobStore = blobStore;
+        this.generatorService = generatorService;
+        this.searchIndex = searchIndex;
+        this.historyTransfer = historyTransfer;
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<List<SavedTestResponse>> getUserHistory(@PathVariable Long userId) {
+    public ResponseEntity<?> getUserHistory(@PathVariable Long userId, @AuthenticationPrincipal Jwt jwt) {
+        if (!userId.equals(TokenService.userIdOf(jwt))) {
+            return forbidden();
+        }
         List<SavedTest> savedTests = savedTestRepository.findByUserId(userId);
 
         List<SavedTestResponse> responseList = savedTests.stream()
                 .map(test -> new SavedTestResponse(
                         test.getId(),
-                        test.getSourceCode(),
-                        test.getGeneratedTestCode()
+                        blobStore.sourceOf(test),
+                        blobStore.testOf(test)
                 ))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(responseList);
     }
 
+    // Paginated list view: summaries only, newest first. Pass nextCursor back to get the following page.
+    @GetMapping("/{userId}/page")
+    public ResponseEntity<?> getUserHistoryPage(@PathVariable Long userId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @AuthenticationPrincipal Jwt jwt) {
+        if (!userId.equals(TokenService.userIdOf(jwt))) {
+            return forbidden();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize);
+
+        List<SavedTestSummary> items;
+        try {
+            if (cursor == null || cursor.isBlank()) {
+                items = savedTestRepository.findSummaries(userId, limit);
+            } else {
+                HistoryPage.Cursor after = HistoryPage.Cursor.decode(cursor);
+                items = savedTestRepository.findSummariesAfter(userId, after.createdAt(), after.id(), limit);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            SavedTestSummary last = items.get(items.size() - 1);
+            nextCursor = new HistoryPage.Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ResponseEntity.ok(new HistoryPage(items, nextCursor));
+    }
+
+    // Search by class, method or type name, or any identifier in the source. Every word of q is a
+    // prefix and all of them must match; results are newest first and page like /page.
+    @GetMapping("/{userId}/search")
+    public ResponseEntity<?> searchUserHistory(@PathVariable Long userId,
+                                               @RequestParam(defaultValue = "") String q,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @AuthenticationPrincipal Jwt jwt) {
+        if (!userId.equals(TokenService.userIdOf(jwt))) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.ok(searchIndex.search(userId, q, cursor, Math.max(1, Math.min(size, MAX_PAGE_SIZE))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // The whole history, streamed from the database: NDJSON (one entry per line, oldest first, the
+    // format /import reads) or format=zip with each entry's source and test as files
+    @GetMapping("/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportUserHistory(@PathVariable Long userId,
+                                                                   @RequestParam(defaultValue = "ndjson") String format,
+                                                                   @AuthenticationPrincipal Jwt jwt) {
+        if (!userId.equals(TokenService.userIdOf(jwt))) {
+            return StreamedReplies.streamed(forbidden());
+        }
+        boolean zip = "zip".equalsIgnoreCase(format);
+        if (!zip && !"ndjson".equalsIgnoreCase(format)) {
+            return StreamedReplies.streamed(ResponseEntity.badRequest().body("Unknown export format: " + format));
+        }
+        StreamingResponseBody body = zip
+                ? out -> historyTransfer.exportZip(userId, out)
+                : out -> historyTransfer.exportNdjson(userId, out);
+        String fileName = "history-" + userId + (zip ? ".zip" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    // Adds the entries of an NDJSON export (the raw request body) to this user's history.
+    // 400 when the body stops parsing part way; the result says how much was saved before that.
+    @PostMapping("/{userId}/import")
+    public ResponseEntity<?> importUserHistory(@PathVariable Long userId, InputStream body,
+                                               @AuthenticationPrincipal Jwt jwt) {
+        if (!userId.equals(TokenService.userIdOf(jwt))) {
+            return forbidden();
+        }
+        try {
+            HistoryImportResult result = historyTransfer.importNdjson(userId, body);
+            return result.getError() == null ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Could not read the import: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error importing history: " + e.getMessage());
+        }
+    }
+
+    // Detail view: the full source and generated test for one entry, plus suggestions
+    // computed from the stored class model
+    @GetMapping("/entry/{id}")
+    public ResponseEntity<?> getHistoryEntry(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt) {
+        SavedTest test = ownedEntry(id, jwt);
+        if (test == null) {
+            return ResponseEntity.status(404).body("Test case not found");
+        }
+        String sourceCode = blobStore.sourceOf(test);
+        SavedTestResponse response = new SavedTestResponse(
+                test.getId(),
+                test.getClassName(),
+                test.getCreatedAt(),
+                sourceCode,
+                blobStore.testOf(test));
+        try {
+            ClassModel model = generatorService.modelOf(test.getClassModel(), () -> sourceCode, GenerationOptions.defaults());
+            response.setSuggestions(generatorService.suggest(model));
+        } catch (IllegalArgumentException e) {
+            response.setSuggestions(List.of()); // legacy row whose source no longer parses
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Renders an entry again (e.g. in another template style) from its stored model, without parsing
+    @PostMapping("/entry/{id}/regenerate")
+    public ResponseEntity<?> regenerateHistoryEntry(@PathVariable Long id,
+                                                    @RequestBody(required = false) RegenerateRequest request,
+                                                    @AuthenticationPrincipal Jwt jwt) {
+        SavedTest test = ownedEntry(id, jwt);
+        if (test == null) {
+            return ResponseEntity.status(404).body("Test case not found");
+        }
+        try {
+            GenerationOptions options = GenerationOptions.defaults();
+            if (request != null && request.getTemplateStyle() != null) {
+                options = options.withTemplateStyle(generatorService.resolveTemplateStyle(request.getTemplateStyle()));
+            }
+            ClassModel model = generatorService.modelOf(test.getClassModel(), () -> blobStore.sourceOf(test), options);
+            GenerateResponse response = generatorService.generate(model, options);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // THE DELETE ENDPOINT
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteHistoryItem(@PathVariable Long id) {
+    public ResponseEntity<?> deleteHistoryItem(@PathVariable Long id, @AuthenticationPrincipal Jwt jwt) {
         try {
-            savedTestRepository.deleteById(id);
+            Long userId = TokenService.userIdOf(jwt);
+            if (savedTestRepository.deleteByIdAndUserId(id, userId) == 0) {
+                return ResponseEntity.status(404).body("Test case not found");
+            }
+            searchIndex.removed(userId, id);
             return ResponseEntity.ok().body("Test case deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error deleting test case: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Someone else's entry is reported as missing rather than forbidden, so ids can't be probed
+    private SavedTest ownedEntry(Long id, Jwt jwt) {
+        SavedTest test = savedTestRepository.findWithBodiesById(id).orElse(null);
+        return test != null && test.getUser().getId().equals(TokenService.userIdOf(jwt)) ? test : null;
+    }
+
+    private static ResponseEntity<String> forbidden() {
+        return ResponseEntity.status(403).body("History belongs to another user");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.unittestgenerator.controller;
+
+import com.example.unittestgenerator.dto.BatchGenerateRequest;
+import com.example.unittestgenerator.dto.ClassTestResult;
+import com.example.unittestgenerator.dto.JobSummary;
+import com.example.unittestgenerator.dto.SourceFile;
+import com.example.unittestgenerator.service.AdmissionRejectedException;
+import com.example.unittestgenerator.service.BatchGenerationService;
+import com.example.unittestgenerator.service.GenerationAdmission;
+import com.example.unittestgenerator.service.GenerationJobService;
+import com.example.unittestgenerator.service.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Background batch generation: submit, then poll /api/jobs/{id} or subscribe to /api/jobs/{id}/events.
+// Jobs submitted with a bearer token are only visible with a token for the same user; anonymous
+// jobs need the accessKey returned at submission, passed as ?key= (EventSource can't set headers).
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class JobController {
+
+    private static final long EVENTS_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final GenerationJobService jobService;
+    private final BatchGenerationService batchGenerationService;
+    private final GenerationAdmission admission;
+
+    public JobController(GenerationJobService jobService, BatchGenerationService batchGenerationService,
+                         GenerationAdmission admission) {
+        this.jobService = jobService;
+        this.batchGenerationService = batchGenerationService;
+        this.admission = admission;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody BatchGenerateRequest request, @AuthenticationPrincipal Jwt jwt) {
+        return submit(TokenService.userIdOf(jwt), request.getFiles(), request.getLanguageLevel(), request.getTemplateStyle());
+    }
+
+    @PostMapping(value = "/zip", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitZip(@RequestParam("file") MultipartFile file,
+                                       @RequestParam(value = "languageLevel", required = false) String languageLevel,
+                                       @RequestParam(value = "templateStyle", required = false) String templateStyle,
+                                       @AuthenticationPrincipal Jwt jwt) {
+        List<SourceFile> files;
+        try {
+            files = batchGenerationService.readZip(file.getInputStream());
+        } catch (IOException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Could not read archive: " + e.getMessage());
+        }
+        return submit(TokenService.userIdOf(jwt), files, languageLevel, templateStyle);
+    }
+
+    private ResponseEntity<?> submit(Long userId, List<SourceFile> files, String languageLevel, String templateStyle) {
+        try {
+            admission.checkRate(userId);
+            if (files != null) {
+                for (SourceFile file : files) {
+                    admission.checkSource(file.getSourceCode());
+                }
+            }
+            JobSummary job = jobService.submit(userId, files, languageLevel, templateStyle);
+            String location = "/api/jobs/" + job.getId() + (job.getAccessKey() == null ? "" : "?key=" + job.getAccessKey());
+            return ResponseEntity.accepted().location(URI.create(location)).body(job);
+        } catch (AdmissionRejectedException e) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatus());
+            if (e.getRetryAfterSeconds() > 0) {
+                response.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            }
+            return response.body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable Long jobId, @RequestParam(value = "key", required = false) String key,
+                                    @AuthenticationPrincipal Jwt jwt) {
+        return visibleJob(jobId, key, jwt)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found"));
+    }
+
+    // Everything committed so far, in submission order; complete once the job is finished
+    @GetMapping("/{jobId}/results")
+    public ResponseEntity<?> getResults(@PathVariable Long jobId, @RequestParam(value = "key", required = false) String key,
+                                        @AuthenticationPrincipal Jwt jwt) {
+        if (visibleJob(jobId, key, jwt).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found");
+        }
+        List<ClassTestResult> results = jobService.results(jobId);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserJobs(@PathVariable Long userId, @AuthenticationPrincipal Jwt jwt) {
+        if (!userId.equals(TokenService.userIdOf(jwt))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Jobs belong to another user");
+        }
+        return ResponseEntity.ok(jobService.listForUser(userId));
+    }
+
+    // Anonymous jobs are visible with their access key; a user's jobs only to that user.
+    // Anything else is "not found", so probing ids reveals nothing.
+    private Optional<JobSummary> visibleJob(Long jobId, String key, Jwt jwt) {
+        return jobService.find(jobId).filter(job -> job.getUserId() == null
+                ? job.getAccessKey() != null && key != null && MessageDigest.isEqual(
+                        job.getAccessKey().getBytes(StandardCharsets.UTF_8), key.getBytes(StandardCharsets.UTF_8))
+                : Objects.equals(job.getUserId(), TokenService.userIdOf(jwt)));
+    }
+
+    /**
+     * Server-sent events: "progress" with the job summary, and one "result"
+     * per generated class as each file finishes. Starts with the current
+     * summary and closes once the job is finished.
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> events(@PathVariable Long jobId, @RequestParam(value = "key", required = false) String key,
+                                    @AuthenticationPrincipal Jwt jwt) {
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MILLIS);
+        // Subscribe before reading the current state, so no update falls in between
+        Runnable unsubscribe = jobService.subscribe(jobId, (summary, newResults) -> send(emitter, summary, newResults));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        JobSummary current = visibleJob(jobId, key, jwt).orElse(null);
+        if (current == null) {
+            unsubscribe.run();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found");
+        }
+        try {
+            send(emitter, current, List.of());
+        } catch (IllegalStateException e) {
+            // The job finished between subscribing and reading it: the listener already sent the
+            // final progress and completed the emitter, which still delivers what it buffered
+        }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    private static void send(SseEmitter emitter, JobSummary summary, List<ClassTestResult> newResults) {
+        try {
+            for (ClassTestResult result : newResults) {
+                emitter.send(SseEmitter.event().name("result").data(result, MediaType.APPLICATION_JSON));
+            }
+            emitter.send(SseEmitter.event().name("progress").id(String.valueOf(summary.getCompletedFiles()))
+                    .data(summary, MediaType.APPLICATION_JSON));
+            if (summary.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the listener is dropped by the service
+            throw new IllegalStateException("Event stream closed", e);
+        }
+    }
+}
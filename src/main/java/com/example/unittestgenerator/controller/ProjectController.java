@@ -0,0 +1,99 @@
+package com.example.unittestgenerator.controller;
+
+import com.example.unittestgenerator.dto.SourceFile;
+import com.example.unittestgenerator.dto.SymbolCacheStats;
+import com.example.unittestgenerator.service.BatchGenerationService;
+import com.example.unittestgenerator.service.GenerationOptions;
+import com.example.unittestgenerator.service.GeneratorService;
+import com.example.unittestgenerator.service.SymbolSolverCache;
+import com.example.unittestgenerator.service.TokenService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+// Sources and jars that generation requests with a "projectId" resolve symbols against.
+// Every endpoint needs a bearer token (see SecurityConfig); project ids are scoped to the token's user.
+@RestController
+@RequestMapping("/api/projects")
+@CrossOrigin(origins = "http://localhost:5173", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE, RequestMethod.OPTIONS})
+public class ProjectController {
+
+    private final SymbolSolverCache symbolSolverCache;
+    private final BatchGenerationService batchGenerationService;
+    private final GeneratorService generatorService;
+
+    public ProjectController(SymbolSolverCache symbolSolverCache, BatchGenerationService batchGenerationService,
+                             GeneratorService generatorService) {
+        this.symbolSolverCache = symbolSolverCache;
+        this.batchGenerationService = batchGenerationService;
+        this.generatorService = generatorService;
+    }
+
+    @PostMapping("/{projectId}/sources")
+    public ResponseEntity<?> addSources(@PathVariable String projectId, @RequestBody List<SourceFile> files,
+                                        @RequestParam(value = "languageLevel", required = false) String languageLevel,
+                                        @AuthenticationPrincipal Jwt jwt) {
+        try {
+            GenerationOptions options = GenerationOptions.defaults()
+                    .withLanguageLevel(generatorService.resolveLanguageLevel(languageLevel));
+            int registered = batchGenerationService.registerSources(TokenService.userIdOf(jwt), projectId, files, options);
+            return ResponseEntity.ok(Map.of("projectId", projectId, "registered", registered,
+                    "skipped", files.size() - registered));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/{projectId}/jars", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> addJar(@PathVariable String projectId, @RequestParam("file") MultipartFile file,
+                                    @AuthenticationPrincipal Jwt jwt) {
+        Path jar = null;
+        try {
+            // JarTypeSolver reads from a file; the project deletes it once it is evicted
+            jar = Files.createTempFile("symbols-", ".jar");
+            file.transferTo(jar);
+            symbolSolverCache.addJar(TokenService.userIdOf(jwt), projectId, jar);
+            return ResponseEntity.ok(Map.of("projectId", projectId, "jar", String.valueOf(file.getOriginalFilename())));
+        } catch (IllegalArgumentException e) {
+            deleteQuietly(jar);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            deleteQuietly(jar);
+            return ResponseEntity.badRequest().body("Could not read jar: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{projectId}")
+    public ResponseEntity<?> dropProject(@PathVariable String projectId, @AuthenticationPrincipal Jwt jwt) {
+        if (!symbolSolverCache.drop(TokenService.userIdOf(jwt), projectId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown project: " + projectId);
+        }
+        return ResponseEntity.ok("Project released.");
+    }
+
+    @GetMapping("/symbols/stats")
+    public ResponseEntity<SymbolCacheStats> getSymbolStats() {
+        return ResponseEntity.ok(symbolSolverCache.stats());
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // temp file
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.unittestgenerator.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+// Spring only streams a body declared as StreamingResponseBody, so the error replies of
+// streaming endpoints have to be one too
+final class StreamedReplies {
+
+    private StreamedReplies() {
+    }
+
+    // The status, headers and message of a plain reply, as text/plain
+    static ResponseEntity<StreamingResponseBody> streamed(ResponseEntity<String> response) {
+        byte[] message = response.getBody() == null ? new byte[0] : response.getBody().getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(out -> out.write(message));
+    }
+}
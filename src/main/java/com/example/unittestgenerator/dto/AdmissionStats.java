@@ -0,0 +1,47 @@
+package com.example.unittestgenerator.dto;
+
+public class AdmissionStats {
+    private int active;
+    private int maxConcurrent;
+    private int waiting;
+    private int maxWaiting;
+    private long admitted;
+    private long rejectedTooLarge; // 413
+    private long rejectedBusy;     // 429, no permit in time
+    private long rejectedRate;     // 429, user over its rate
+    private int trackedUsers;
+
+    public AdmissionStats() {}
+
+    public AdmissionStats(int active, int maxConcurrent, int waiting, int maxWaiting, long admitted,
+                          long rejectedTooLarge, long rejectedBusy, long rejectedRate, int trackedUsers) {
+        this.active = active;
+        this.maxConcurrent = maxConcurrent;
+        this.waiting = waiting;
+        this.maxWaiting = maxWaiting;
+        this.admitted = admitted;
+        this.rejectedTooLarge = rejectedTooLarge;
+        this.rejectedBusy = rejectedBusy;
+        this.rejectedRate = rejectedRate;
+        this.trackedUsers = trackedUsers;
+    }
+
+    public int getActive() { return active; }
+    public void setActive(int active) { this.active = active; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+    public int getWaiting() { return waiting; }
+    public void setWaiting(int waiting) { this.waiting = waiting; }
+    public int getMaxWaiting() { return maxWaiting; }
+    public void setMaxWaiting(int maxWaiting) { this.maxWaiting = maxWaiting; }
+    public long getAdmitted() { return admitted; }
+    public void setAdmitted(long admitted) { this.admitted = admitted; }
+    public long getRejectedTooLarge() { return rejectedTooLarge; }
+    public void setRejectedTooLarge(long rejectedTooLarge) { this.rejectedTooLarge = rejectedTooLarge; }
+    public long getRejectedBusy() { return rejectedBusy; }
+    public void setRejectedBusy(long rejectedBusy) { this.rejectedBusy = rejectedBusy; }
+    public long getRejectedRate() { return rejectedRate; }
+    public void setRejectedRate(long rejectedRate) { this.rejectedRate = rejectedRate; }
+    public int getTrackedUsers() { return trackedUsers; }
+    public void setTrackedUsers(int trackedUsers) { this.trackedUsers = trackedUsers; }
+}
@@ -0,0 +1,24 @@
+package com.example.unittestgenerator.dto;
+
+import java.util.List;
+
+public class BatchGenerateRequest {
+    private List<SourceFile> files;
+    private String languageLevel;
+    private String templateStyle;
+    private String projectId;
+    private Boolean compileCheck;
+
+    public BatchGenerateRequest() {}
+
+    public List<SourceFile> getFiles() { return files; }
+    public void setFiles(List<SourceFile> files) { this.files = files; }
+    public String getLanguageLevel() { return languageLevel; }
+    public void setLanguageLevel(String languageLevel) { this.languageLevel = languageLevel; }
+    public String getTemplateStyle() { return templateStyle; }
+    public void setTemplateStyle(String templateStyle) { this.templateStyle = templateStyle; }
+    public String getProjectId() { return projectId; }
+    public void setProjectId(String projectId) { this.projectId = projectId; }
+    public Boolean getCompileCheck() { return compileCheck; }
+    public void setCompileCheck(Boolean compileCheck) { this.compileCheck = compileCheck; }
+}
@@ -0,0 +1,28 @@
+package com.example.unittestgenerator.dto;
+
+import java.util.List;
+
+public class BatchGenerateResponse {
+    private int fileCount;
+    private int classCount;
+    private int failedCount;
+    private List<ClassTestResult> results;
+
+    public BatchGenerateResponse() {}
+
+    public BatchGenerateResponse(int fileCount, List<ClassTestResult> results) {
+        this.fileCount = fileCount;
+        this.results = results;
+        this.classCount = (int) results.stream().filter(ClassTestResult::isSuccess).count();
+        this.failedCount = results.size() - classCount;
+    }
+
+    public int getFileCount() { return fileCount; }
+    public void setFileCount(int fileCount) { this.fileCount = fileCount; }
+    public int getClassCount() { return classCount; }
+    public void setClassCount(int classCount) { this.classCount = classCount; }
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+    public List<ClassTestResult> getResults() { return results; }
+    public void setResults(List<ClassTestResult> results) { this.results = results; }
+}
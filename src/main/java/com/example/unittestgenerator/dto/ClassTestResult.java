@@ -0,0 +1,53 @@
+package com.example.unittestgenerator.dto;
+
+import com.example.unittestgenerator.service.ClassModel;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+public class ClassTestResult {
+    private String fileName;
+    private String className;
+    private String mainTestFileContent;
+    private List<Suggestion> suggestions;
+    private String error;
+    private CompileReport compileCheck; // null when the check didn't run
+    @JsonIgnore
+    private ClassModel classModel;
+    @JsonIgnore
+    private int fileIndex; // position of its file in the batch request; names may be missing or repeated
+
+    public ClassTestResult() {}
+
+    public ClassTestResult(String fileName, String className, String mainTestFileContent,
+                           List<Suggestion> suggestions, String error) {
+        this.fileName = fileName;
+        this.className = className;
+        this.mainTestFileContent = mainTestFileContent;
+        this.suggestions = suggestions;
+        this.error = error;
+    }
+
+    public static ClassTestResult failed(String fileName, String className, String error) {
+        return new ClassTestResult(fileName, className, null, null, error);
+    }
+
+    public boolean isSuccess() { return error == null; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public String getMainTestFileContent() { return mainTestFileContent; }
+    public void setMainTestFileContent(String mainTestFileContent) { this.mainTestFileContent = mainTestFileContent; }
+    public List<Suggestion> getSuggestions() { return suggestions; }
+    public void setSuggestions(List<Suggestion> suggestions) { this.suggestions = suggestions; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public CompileReport getCompileCheck() { return compileCheck; }
+    public void setCompileCheck(CompileReport compileCheck) { this.compileCheck = compileCheck; }
+    public ClassModel getClassModel() { return classModel; }
+    public void setClassModel(ClassModel classModel) { this.classModel = classModel; }
+    public int getFileIndex() { return fileIndex; }
+    public void setFileIndex(int fileIndex) { this.fileIndex = fileIndex; }
+}
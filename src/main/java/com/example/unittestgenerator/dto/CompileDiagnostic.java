@@ -0,0 +1,31 @@
+package com.example.unittestgenerator.dto;
+
+// One compiler error; file is "source", "test" or the name of another file in the batch
+public class CompileDiagnostic {
+    private String file;
+    private long line;
+    private long column;
+    private String code;
+    private String message;
+
+    public CompileDiagnostic() {}
+
+    public CompileDiagnostic(String file, long line, long column, String code, String message) {
+        this.file = file;
+        this.line = line;
+        this.column = column;
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+    public long getColumn() { return column; }
+    public void setColumn(long column) { this.column = column; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,36 @@
+package com.example.unittestgenerator.dto;
+
+import java.util.List;
+
+// Outcome of compiling a generated test together with its source
+public class CompileReport {
+
+    public enum Status { PASSED, FAILED, SKIPPED }
+
+    private Status status;
+    private long elapsedMillis;
+    private List<CompileDiagnostic> diagnostics;
+    private String note; // why the check was skipped, or that diagnostics were truncated
+
+    public CompileReport() {}
+
+    public CompileReport(Status status, long elapsedMillis, List<CompileDiagnostic> diagnostics, String note) {
+        this.status = status;
+        this.elapsedMillis = elapsedMillis;
+        this.diagnostics = diagnostics;
+        this.note = note;
+    }
+
+    public static CompileReport skipped(String note) {
+        return new CompileReport(Status.SKIPPED, 0, List.of(), note);
+    }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    public List<CompileDiagnostic> getDiagnostics() { return diagnostics; }
+    public void setDiagnostics(List<CompileDiagnostic> diagnostics) { this.diagnostics = diagnostics; }
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+}
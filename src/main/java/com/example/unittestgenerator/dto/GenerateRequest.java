@@ -2,7 +2,11 @@ package com.example.unittestgenerator.dto;
 
 public class GenerateRequest {
     private String sourceCode;
-    private Long userId; // Assuming your User ID is a Long. If it's an Integer or String, change it here!
+    private Boolean useCache; // null means "use the server default"
+    private String languageLevel; // e.g. "21" or "JAVA_21"; null means the server default
+    private String templateStyle; // e.g. "junit4", "testng", "assertj"; null means the server default
+    private String projectId; // resolve symbols against this project's uploaded sources and jars; null turns it off
+    private Boolean compileCheck; // false skips compiling the generated test; null means the server default
 
     public GenerateRequest() {}
 
@@ -14,11 +18,43 @@ public class GenerateRequest {
         this.sourceCode = sourceCode;
     }
 
-    public Long getUserId() {
-        return userId;
+    public Boolean getUseCache() {
+        return useCache;
     }
 
-    public void setUserId(Long userId) {
-        this.userId = userId;
+    public void setUseCache(Boolean useCache) {
+        this.useCache = useCache;
     }
-}
\ No newline at end of file
+
+    public String getLanguageLevel() {
+        return languageLevel;
+    }
+
+    public void setLanguageLevel(String languageLevel) {
+        this.languageLevel = languageLevel;
+    }
+
+    public String getTemplateStyle() {
+        return templateStyle;
+    }
+
+    public void setTemplateStyle(String templateStyle) {
+        this.templateStyle = templateStyle;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(String projectId) {
+        this.projectId = projectId;
+    }
+
+    public Boolean getCompileCheck() {
+        return compileCheck;
+    }
+
+    public void setCompileCheck(Boolean compileCheck) {
+        this.compileCheck = compileCheck;
+    }
+}
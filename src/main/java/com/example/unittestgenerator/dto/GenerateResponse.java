@@ -1,10 +1,19 @@
 package com.example.unittestgenerator.dto;
 
+import com.example.unittestgenerator.service.ClassModel;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 public class GenerateResponse {
+    private String className;
     private String mainTestFileContent;
     private List<Suggestion> suggestions;
+    private CompileReport compileCheck; // null when the check didn't run
+
+    // Stored with the history entry so it can be re-rendered without parsing; never sent to the client
+    @JsonIgnore
+    private ClassModel classModel;
 
     // 1. Empty Constructor (Required by Spring Boot)
     public GenerateResponse() {
@@ -17,6 +26,14 @@ public class GenerateResponse {
     }
 
     // Getters and Setters
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
     public String getMainTestFileContent() {
         return mainTestFileContent;
     }
@@ -32,4 +49,20 @@ public class GenerateResponse {
     public void setSuggestions(List<Suggestion> suggestions) {
         this.suggestions = suggestions;
     }
+
+    public CompileReport getCompileCheck() {
+        return compileCheck;
+    }
+
+    public void setCompileCheck(CompileReport compileCheck) {
+        this.compileCheck = compileCheck;
+    }
+
+    public ClassModel getClassModel() {
+        return classModel;
+    }
+
+    public void setClassModel(ClassModel classModel) {
+        this.classModel = classModel;
+    }
 }
\ No newline at end of file
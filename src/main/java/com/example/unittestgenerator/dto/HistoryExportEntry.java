@@ -0,0 +1,39 @@
+package com.example.unittestgenerator.dto;
+
+import java.time.LocalDateTime;
+
+// One line of a history export (NDJSON) and of an import. classModel is ClassModelCodec bytes,
+// base64 in JSON; optional, and dropped on import when this version can't read it.
+public class HistoryExportEntry {
+    private Long id; // id on the exporting instance; imported entries get new ones
+    private String className;
+    private LocalDateTime createdAt;
+    private String sourceCode;
+    private String generatedTestCode;
+    private byte[] classModel;
+
+    public HistoryExportEntry() {}
+
+    public HistoryExportEntry(Long id, String className, LocalDateTime createdAt,
+                              String sourceCode, String generatedTestCode, byte[] classModel) {
+        this.id = id;
+        this.className = className;
+        this.createdAt = createdAt;
+        this.sourceCode = sourceCode;
+        this.generatedTestCode = generatedTestCode;
+        this.classModel = classModel;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public String getSourceCode() { return sourceCode; }
+    public void setSourceCode(String sourceCode) { this.sourceCode = sourceCode; }
+    public String getGeneratedTestCode() { return generatedTestCode; }
+    public void setGeneratedTestCode(String generatedTestCode) { this.generatedTestCode = generatedTestCode; }
+    public byte[] getClassModel() { return classModel; }
+    public void setClassModel(byte[] classModel) { this.classModel = classModel; }
+}
@@ -0,0 +1,22 @@
+package com.example.unittestgenerator.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HistoryImportResult {
+    private long imported;
+    private long skipped;
+    private List<String> problems = new ArrayList<>(); // "line N: reason", the first few skipped lines
+    private String error; // set when the input stopped parsing; entries before it are kept
+
+    public HistoryImportResult() {}
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+    public List<String> getProblems() { return problems; }
+    public void setProblems(List<String> problems) { this.problems = problems; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
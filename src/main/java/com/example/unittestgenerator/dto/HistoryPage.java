@@ -0,0 +1,42 @@
+package com.example.unittestgenerator.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+public class HistoryPage {
+    private List<SavedTestSummary> items;
+    private String nextCursor; // null on the last page
+
+    public HistoryPage() {}
+
+    public HistoryPage(List<SavedTestSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<SavedTestSummary> getItems() { return items; }
+    public void setItems(List<SavedTestSummary> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    // Opaque keyset cursor: the (createdAt, id) of the last row on the previous page
+    public record Cursor(LocalDateTime createdAt, Long id) {
+
+        public String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int split = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, split)), Long.parseLong(raw.substring(split + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.unittestgenerator.dto;
+
+// Either previousTestId (a history entry) or previousSourceCode + previousTestCode
+public class IncrementalGenerateRequest {
+    private String sourceCode;
+    private Long previousTestId;
+    private String previousSourceCode;
+    private String previousTestCode;
+    private String languageLevel;
+    private String templateStyle;
+
+    public IncrementalGenerateRequest() {}
+
+    public String getSourceCode() { return sourceCode; }
+    public void setSourceCode(String sourceCode) { this.sourceCode = sourceCode; }
+    public Long getPreviousTestId() { return previousTestId; }
+    public void setPreviousTestId(Long previousTestId) { this.previousTestId = previousTestId; }
+    public String getPreviousSourceCode() { return previousSourceCode; }
+    public void setPreviousSourceCode(String previousSourceCode) { this.previousSourceCode = previousSourceCode; }
+    public String getPreviousTestCode() { return previousTestCode; }
+    public void setPreviousTestCode(String previousTestCode) { this.previousTestCode = previousTestCode; }
+    public String getLanguageLevel() { return languageLevel; }
+    public void setLanguageLevel(String languageLevel) { this.languageLevel = languageLevel; }
+    public String getTemplateStyle() { return templateStyle; }
+    public void setTemplateStyle(String templateStyle) { this.templateStyle = templateStyle; }
+}
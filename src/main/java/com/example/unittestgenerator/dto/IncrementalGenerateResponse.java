@@ -0,0 +1,46 @@
+package com.example.unittestgenerator.dto;
+
+import com.example.unittestgenerator.service.ClassModel;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class IncrementalGenerateResponse {
+    private String className;
+    private String mainTestFileContent;
+    private int added;
+    private int changed;
+    private int removed;
+    private int unchanged;
+    private boolean fullRegeneration; // true when the previous test could not be spliced into
+    @JsonIgnore
+    private ClassModel classModel;
+
+    public IncrementalGenerateResponse() {}
+
+    public IncrementalGenerateResponse(String className, String mainTestFileContent, int added, int changed,
+                                       int removed, int unchanged, boolean fullRegeneration) {
+        this.className = className;
+        this.mainTestFileContent = mainTestFileContent;
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+        this.unchanged = unchanged;
+        this.fullRegeneration = fullRegeneration;
+    }
+
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public String getMainTestFileContent() { return mainTestFileContent; }
+    public void setMainTestFileContent(String mainTestFileContent) { this.mainTestFileContent = mainTestFileContent; }
+    public int getAdded() { return added; }
+    public void setAdded(int added) { this.added = added; }
+    public int getChanged() { return changed; }
+    public void setChanged(int changed) { this.changed = changed; }
+    public int getRemoved() { return removed; }
+    public void setRemoved(int removed) { this.removed = removed; }
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+    public boolean isFullRegeneration() { return fullRegeneration; }
+    public void setFullRegeneration(boolean fullRegeneration) { this.fullRegeneration = fullRegeneration; }
+    public ClassModel getClassModel() { return classModel; }
+    public void setClassModel(ClassModel classModel) { this.classModel = classModel; }
+}
@@ -0,0 +1,67 @@
+package com.example.unittestgenerator.dto;
+
+import com.example.unittestgenerator.models.JobStatus;
+
+import java.time.LocalDateTime;
+
+public class JobSummary {
+    private Long id;
+    private Long userId;
+    private String accessKey; // anonymous jobs only
+    private JobStatus status;
+    private int totalFiles;
+    private int completedFiles;
+    private int succeededClasses;
+    private int failedClasses;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public JobSummary() {}
+
+    public JobSummary(Long id, Long userId, JobStatus status, int totalFiles, int completedFiles,
+                      int succeededClasses, int failedClasses, String error,
+                      LocalDateTime createdAt, LocalDateTime startedAt, LocalDateTime finishedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.status = status;
+        this.totalFiles = totalFiles;
+        this.completedFiles = completedFiles;
+        this.succeededClasses = succeededClasses;
+        this.failedClasses = failedClasses;
+        this.error = error;
+        this.createdAt = createdAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public boolean isFinished() {
+        return status != null && status.isFinished();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getAccessKey() { return accessKey; }
+    public void setAccessKey(String accessKey) { this.accessKey = accessKey; }
+    public JobStatus getStatus() { return status; }
+    public void setStatus(JobStatus status) { this.status = status; }
+    public int getTotalFiles() { return totalFiles; }
+    public void setTotalFiles(int totalFiles) { this.totalFiles = totalFiles; }
+    public int getCompletedFiles() { return completedFiles; }
+    public void setCompletedFiles(int completedFiles) { this.completedFiles = completedFiles; }
+    public int getSucceededClasses() { return succeededClasses; }
+    public void setSucceededClasses(int succeededClasses) { this.succeededClasses = succeededClasses; }
+    public int getFailedClasses() { return failedClasses; }
+    public void setFailedClasses(int failedClasses) { this.failedClasses = failedClasses; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,8 @@
+package com.example.unittestgenerator.dto;
+
+public class RegenerateRequest {
+    private String templateStyle; // optional, the configured default when absent
+
+    public String getTemplateStyle() { return templateStyle; }
+    public void setTemplateStyle(String templateStyle) { this.templateStyle = templateStyle; }
+}
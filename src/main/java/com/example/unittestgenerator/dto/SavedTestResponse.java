@@ -1,9 +1,15 @@
 package com.example.unittestgenerator.dto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public class SavedTestResponse {
     private Long id;
+    private String className;
+    private LocalDateTime createdAt;
     private String sourceCode;
     private String generatedTestCode;
+    private List<Suggestion> suggestions;
 
     public SavedTestResponse(Long id, String sourceCode, String generatedTestCode) {
         this.id = id;
@@ -11,10 +17,23 @@ public class SavedTestResponse {
         this.generatedTestCode = generatedTestCode;
     }
 
+    public SavedTestResponse(Long id, String className, LocalDateTime createdAt,
+                             String sourceCode, String generatedTestCode) {
+        this(id, sourceCode, generatedTestCode);
+        this.className = className;
+        this.createdAt = createdAt;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public String getSourceCode() { return sourceCode; }
     public void setSourceCode(String sourceCode) { this.sourceCode = sourceCode; }
     public String getGeneratedTestCode() { return generatedTestCode; }
     public void setGeneratedTestCode(String generatedTestCode) { this.generatedTestCode = generatedTestCode; }
+    public List<Suggestion> getSuggestions() { return suggestions; }
+    public void setSuggestions(List<Suggestion> suggestions) { this.suggestions = suggestions; }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.unittestgenerator.dto;
+
+import java.time.LocalDateTime;
+
+// What the history search index loads per row: the summary plus its stored search terms
+public class SavedTestSearchRow {
+    private final SavedTestSummary summary;
+    private final String searchTerms;
+
+    public SavedTestSearchRow(Long id, String className, LocalDateTime createdAt, Integer sourceSize, Integer testSize,
+                              String searchTerms) {
+        this.summary = new SavedTestSummary(id, className, createdAt, sourceSize, testSize);
+        this.searchTerms = searchTerms;
+    }
+
+    public SavedTestSummary getSummary() { return summary; }
+    public String getSearchTerms() { return searchTerms; }
+}
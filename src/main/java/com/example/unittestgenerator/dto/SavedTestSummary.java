@@ -0,0 +1,33 @@
+package com.example.unittestgenerator.dto;
+
+import java.time.LocalDateTime;
+
+// List-view projection of SavedTest: everything except the two TEXT bodies
+public class SavedTestSummary {
+    private Long id;
+    private String className;
+    private LocalDateTime createdAt;
+    private Integer sourceSize;
+    private Integer testSize;
+
+    public SavedTestSummary() {}
+
+    public SavedTestSummary(Long id, String className, LocalDateTime createdAt, Integer sourceSize, Integer testSize) {
+        this.id = id;
+        this.className = className;
+        this.createdAt = createdAt;
+        this.sourceSize = sourceSize;
+        this.testSize = testSize;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Integer getSourceSize() { return sourceSize; }
+    public void setSourceSize(Integer sourceSize) { this.sourceSize = sourceSize; }
+    public Integer getTestSize() { return testSize; }
+    public void setTestSize(Integer testSize) { this.testSize = testSize; }
+}
@@ -0,0 +1,18 @@
+package com.example.unittestgenerator.dto;
+
+public class SourceFile {
+    private String fileName;
+    private String sourceCode;
+
+    public SourceFile() {}
+
+    public SourceFile(String fileName, String sourceCode) {
+        this.fileName = fileName;
+        this.sourceCode = sourceCode;
+    }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getSourceCode() { return sourceCode; }
+    public void setSourceCode(String sourceCode) { this.sourceCode = sourceCode; }
+}
@@ -0,0 +1,77 @@
+package com.example.unittestgenerator.dto;
+
+public class SymbolCacheStats {
+    private boolean enabled;
+    private int projects;
+    private int maxProjects;
+    private long estimatedBytes;
+    private long maxBytes;
+    private long hits;             // project lookups
+    private long misses;
+    private long evictions;
+    private long resolutionHits;   // memoized enum and supertype resolutions
+    private long resolutionMisses;
+    private long typeLookupHits;   // the type solvers' own name lookups
+    private long typeLookupMisses;
+
+    public SymbolCacheStats() {}
+
+    public SymbolCacheStats(boolean enabled, int projects, int maxProjects, long estimatedBytes, long maxBytes,
+                            long hits, long misses, long evictions, long resolutionHits, long resolutionMisses,
+                            long typeLookupHits, long typeLookupMisses) {
+        this.enabled = enabled;
+        this.projects = projects;
+        this.maxProjects = maxProjects;
+        this.estimatedBytes = estimatedBytes;
+        this.maxBytes = maxBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.resolutionHits = resolutionHits;
+        this.resolutionMisses = resolutionMisses;
+        this.typeLookupHits = typeLookupHits;
+        this.typeLookupMisses = typeLookupMisses;
+    }
+
+    public double getHitRate() {
+        return rate(hits, misses);
+    }
+
+    public double getResolutionHitRate() {
+        return rate(resolutionHits, resolutionMisses);
+    }
+
+    public double getTypeLookupHitRate() {
+        return rate(typeLookupHits, typeLookupMisses);
+    }
+
+    private static double rate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getProjects() { return projects; }
+    public void setProjects(int projects) { this.projects = projects; }
+    public int getMaxProjects() { return maxProjects; }
+    public void setMaxProjects(int maxProjects) { this.maxProjects = maxProjects; }
+    public long getEstimatedBytes() { return estimatedBytes; }
+    public void setEstimatedBytes(long estimatedBytes) { this.estimatedBytes = estimatedBytes; }
+    public long getMaxBytes() { return maxBytes; }
+    public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+    public long getResolutionHits() { return resolutionHits; }
+    public void setResolutionHits(long resolutionHits) { this.resolutionHits = resolutionHits; }
+    public long getResolutionMisses() { return resolutionMisses; }
+    public void setResolutionMisses(long resolutionMisses) { this.resolutionMisses = resolutionMisses; }
+    public long getTypeLookupHits() { return typeLookupHits; }
+    public void setTypeLookupHits(long typeLookupHits) { this.typeLookupHits = typeLookupHits; }
+    public long getTypeLookupMisses() { return typeLookupMisses; }
+    public void setTypeLookupMisses(long typeLookupMisses) { this.typeLookupMisses = typeLookupMisses; }
+}
@@ -0,0 +1,34 @@
+package com.example.unittestgenerator.dto;
+
+public class WriterStats {
+    private int queueDepth;
+    private int queueCapacity;
+    private long written;
+    private long dropped;
+    private long failed;
+    private long batches;
+
+    public WriterStats() {}
+
+    public WriterStats(int queueDepth, int queueCapacity, long written, long dropped, long failed, long batches) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.written = written;
+        this.dropped = dropped;
+        this.failed = failed;
+        this.batches = batches;
+    }
+
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public long getWritten() { return written; }
+    public void setWritten(long written) { this.written = written; }
+    public long getDropped() { return dropped; }
+    public void setDropped(long dropped) { this.dropped = dropped; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public long getBatches() { return batches; }
+    public void setBatches(long batches) { this.batches = batches; }
+}
@@ -0,0 +1,62 @@
+package com.example.unittestgenerator.models;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A compressed text body stored once per content hash. SavedTest rows point
+ * at these instead of carrying their own copy of the source and test code.
+ */
+@Entity
+@Table(name = "content_blobs")
+public class ContentBlob implements Persistable<String> {
+
+    // SHA-256 (hex) of the uncompressed UTF-8 text
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 16)
+    private String codec;
+
+    @Column(name = "original_size", nullable = false)
+    private int originalSize;
+
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean isNew;
+
+    protected ContentBlob() {}
+
+    public ContentBlob(String hash, String codec, int originalSize, byte[] data) {
+        this.hash = hash;
+        this.codec = codec;
+        this.originalSize = originalSize;
+        this.data = data;
+        this.createdAt = LocalDateTime.now();
+        this.isNew = true;
+    }
+
+    // Assigned ids would otherwise make save() issue a SELECT before every INSERT
+    @Override
+    public String getId() { return hash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() { this.isNew = false; }
+
+    public String getHash() { return hash; }
+    public String getCodec() { return codec; }
+    public int getOriginalSize() { return originalSize; }
+    public byte[] getData() { return data; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,104 @@
+package com.example.unittestgenerator.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A batch generation running in the background. The submitted files are
+ * stored with the job, and progress is committed after every file, so a
+ * restarted server picks unfinished jobs up where they stopped.
+ */
+@Entity
+@Table(name = "generation_jobs", indexes = {
+        @Index(name = "idx_generation_jobs_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_generation_jobs_status", columnList = "status")
+})
+public class GenerationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Null for anonymous submissions
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // Random key for anonymous jobs, returned at submission and required to read the job
+    @Column(name = "access_key", length = 36)
+    private String accessKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    @Column(name = "language_level", length = 32)
+    private String languageLevel;
+
+    @Column(name = "template_style", length = 64)
+    private String templateStyle;
+
+    // The submitted files as deflated JSON (BlobCodec), read again on every (re)start
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] input;
+
+    @Column(name = "input_size", nullable = false)
+    private int inputSize;
+
+    @Column(name = "total_files", nullable = false)
+    private int totalFiles;
+
+    // Files whose results are committed; a restart resumes from here
+    @Column(name = "completed_files", nullable = false)
+    private int completedFiles;
+
+    @Column(name = "succeeded_classes", nullable = false)
+    private int succeededClasses;
+
+    @Column(name = "failed_classes", nullable = false)
+    private int failedClasses;
+
+    @Column(length = 1000)
+    private String error;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public String getAccessKey() { return accessKey; }
+    public void setAccessKey(String accessKey) { this.accessKey = accessKey; }
+    public JobStatus getStatus() { return status; }
+    public void setStatus(JobStatus status) { this.status = status; }
+    public String getLanguageLevel() { return languageLevel; }
+    public void setLanguageLevel(String languageLevel) { this.languageLevel = languageLevel; }
+    public String getTemplateStyle() { return templateStyle; }
+    public void setTemplateStyle(String templateStyle) { this.templateStyle = templateStyle; }
+    public byte[] getInput() { return input; }
+    public void setInput(byte[] input) { this.input = input; }
+    public int getInputSize() { return inputSize; }
+    public void setInputSize(int inputSize) { this.inputSize = inputSize; }
+    public int getTotalFiles() { return totalFiles; }
+    public void setTotalFiles(int totalFiles) { this.totalFiles = totalFiles; }
+    public int getCompletedFiles() { return completedFiles; }
+    public void setCompletedFiles(int completedFiles) { this.completedFiles = completedFiles; }
+    public int getSucceededClasses() { return succeededClasses; }
+    public void setSucceededClasses(int succeededClasses) { this.succeededClasses = succeededClasses; }
+    public int getFailedClasses() { return failedClasses; }
+    public void setFailedClasses(int failedClasses) { this.failedClasses = failedClasses; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,51 @@
+package com.example.unittestgenerator.models;
+
+import jakarta.persistence.*;
+
+// One generated (or failed) test class of a job, in submission order
+@Entity
+@Table(name = "generation_job_results", indexes = {
+        @Index(name = "idx_generation_job_results_job", columnList = "job_id, file_index")
+})
+public class GenerationJobResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private GenerationJob job;
+
+    // Position of the source file in the submission
+    @Column(name = "file_index", nullable = false)
+    private int fileIndex;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "class_name")
+    private String className;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "test_blob_hash")
+    private ContentBlob testBlob;
+
+    @Column(length = 1000)
+    private String error;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public GenerationJob getJob() { return job; }
+    public void setJob(GenerationJob job) { this.job = job; }
+    public int getFileIndex() { return fileIndex; }
+    public void setFileIndex(int fileIndex) { this.fileIndex = fileIndex; }
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public ContentBlob getTestBlob() { return testBlob; }
+    public void setTestBlob(ContentBlob testBlob) { this.testBlob = testBlob; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
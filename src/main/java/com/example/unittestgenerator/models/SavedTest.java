@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "saved_tests")
+@Table(name = "saved_tests", indexes = {
+        // Supports the keyset-paginated history list (WHERE user_id = ? ORDER BY created_at DESC, id DESC)
+        @Index(name = "idx_saved_tests_user_created", columnList = "user_id, created_at")
+})
 public class SavedTest {
 
     @Id
@@ -16,12 +19,40 @@ public class SavedTest {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Column(name = "class_name")
+    private String className;
+
+    // Character counts, so the history list can show sizes without reading the TEXT columns
+    @Column(name = "source_size")
+    private Integer sourceSize;
+
+    @Column(name = "test_size")
+    private Integer testSize;
+
+    // Bodies live in content_blobs, shared by every row with the same text
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_blob_hash")
+    private ContentBlob sourceBlob;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "test_blob_hash")
+    private ContentBlob testBlob;
+
+    // Inline bodies, only set on rows saved before content_blobs existed
     @Column(columnDefinition = "TEXT")
     private String sourceCode;
 
     @Column(columnDefinition = "TEXT")
     private String generatedTestCode;
 
+    // ClassModelCodec bytes, so reopening or re-rendering an entry doesn't parse the source again
+    @Column(name = "class_model", columnDefinition = "LONGBLOB")
+    private byte[] classModel;
+
+    // Lowercased words the entry is found by (see SearchTerms); null on rows saved before search existed
+    @Column(name = "search_terms", columnDefinition = "TEXT")
+    private String searchTerms;
+
     private LocalDateTime createdAt;
 
     @PrePersist
@@ -34,9 +65,29 @@ public class SavedTest {
     public void setId(Long id) { this.id = id; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+    public String getClassName() { return className; }
+    public void setClassName(String className) { this.className = className; }
+    public Integer getSourceSize() { return sourceSize; }
+    public void setSourceSize(Integer sourceSize) { this.sourceSize = sourceSize; }
+    public Integer getTestSize() { return testSize; }
+    public void setTestSize(Integer testSize) { this.testSize = testSize; }
+    public ContentBlob getSourceBlob() { return sourceBlob; }
+    public void setSourceBlob(ContentBlob sourceBlob) { this.sourceBlob = sourceBlob; }
+    public ContentBlob getTestBlob() { return testBlob; }
+    public void setTestBlob(ContentBlob testBlob) { this.testBlob = testBlob; }
     public String getSourceCode() { return sourceCode; }
-    public void setSourceCode(String sourceCode) { this.sourceCode = sourceCode; }
+    public void setSourceCode(String sourceCode) {
+        this.sourceCode = sourceCode;
+        this.sourceSize = sourceCode == null ? null : sourceCode.length();
+    }
     public String getGeneratedTestCode() { return generatedTestCode; }
-    public void setGeneratedTestCode(String generatedTestCode) { this.generatedTestCode = generatedTestCode; }
+    public void setGeneratedTestCode(String generatedTestCode) {
+        this.generatedTestCode = generatedTestCode;
+        this.testSize = generatedTestCode == null ? null : generatedTestCode.length();
+    }
+    public byte[] getClassModel() { return classModel; }
+    public void setClassModel(byte[] classModel) { this.classModel = classModel; }
+    public String getSearchTerms() { return searchTerms; }
+    public void setSearchTerms(String searchTerms) { this.searchTerms = searchTerms; }
     public LocalDateTime getCreatedAt() { return createdAt; }
 }
\ No newline at end of file
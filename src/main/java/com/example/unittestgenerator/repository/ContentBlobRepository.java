@@ -0,0 +1,18 @@
+package com.example.unittestgenerator.repository;
+
+import com.example.unittestgenerator.models.ContentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    // Only the keys, so checking for duplicates never pulls compressed bodies
+    @Query("SELECT b.hash FROM ContentBlob b WHERE b.hash IN :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+}
@@ -0,0 +1,19 @@
+package com.example.unittestgenerator.repository;
+
+import com.example.unittestgenerator.models.GenerationJob;
+import com.example.unittestgenerator.models.JobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, Long> {
+
+    // Unfinished jobs to resume at startup, oldest first
+    List<GenerationJob> findByStatusInOrderByIdAsc(Collection<JobStatus> statuses);
+
+    List<GenerationJob> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable page);
+}
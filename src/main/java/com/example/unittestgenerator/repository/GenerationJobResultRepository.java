@@ -0,0 +1,16 @@
+package com.example.unittestgenerator.repository;
+
+import com.example.unittestgenerator.models.GenerationJobResult;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GenerationJobResultRepository extends JpaRepository<GenerationJobResult, Long> {
+
+    // Test bodies are fetched in the same query, like the history detail view
+    @EntityGraph(attributePaths = {"testBlob"})
+    List<GenerationJobResult> findByJobIdOrderByFileIndexAscIdAsc(Long jobId);
+}
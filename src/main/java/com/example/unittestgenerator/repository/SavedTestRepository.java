@@ -1,16 +1,73 @@
 package com.example.unittestgenerator.repository;
 
+import com.example.unittestgenerator.dto.SavedTestSearchRow;
+import com.example.unittestgenerator.dto.SavedTestSummary;
 import com.example.unittestgenerator.models.SavedTest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SavedTestRepository extends JpaRepository<SavedTest, Long> {
+
+    int EXPORT_FETCH_SIZE = 500;
     
     // Spring Boot is smart enough to write the SQL query automatically 
     // just by reading the name of this method!
+    // The blob joins avoid one extra SELECT per row when the bodies are decoded.
+    @EntityGraph(attributePaths = {"sourceBlob", "testBlob"})
     List<SavedTest> findByUserId(Long userId);
-    
-}
\ No newline at end of file
+
+    // Detail view: bodies are fetched in the same query, so no open session is needed to decode them
+    @EntityGraph(attributePaths = {"sourceBlob", "testBlob"})
+    Optional<SavedTest> findWithBodiesById(Long id);
+
+    // Keyset pagination over idx_saved_tests_user_created, newest first.
+    // Only the summary columns are selected; the TEXT bodies are never read.
+    @Query("SELECT new com.example.unittestgenerator.dto.SavedTestSummary(t.id, t.className, t.createdAt, t.sourceSize, t.testSize) " +
+           "FROM SavedTest t WHERE t.user.id = :userId " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<SavedTestSummary> findSummaries(@Param("userId") Long userId, Pageable page);
+
+    @Query("SELECT new com.example.unittestgenerator.dto.SavedTestSummary(t.id, t.className, t.createdAt, t.sourceSize, t.testSize) " +
+           "FROM SavedTest t WHERE t.user.id = :userId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<SavedTestSummary> findSummariesAfter(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable page);
+
+    // Loads a user's search index in id order, a page at a time; bodies are never read
+    @Query("SELECT new com.example.unittestgenerator.dto.SavedTestSearchRow(t.id, t.className, t.createdAt, t.sourceSize, t.testSize, t.searchTerms) " +
+           "FROM SavedTest t WHERE t.user.id = :userId AND t.id > :afterId " +
+           "ORDER BY t.id")
+    List<SavedTestSearchRow> findSearchRows(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable page);
+
+    // Export: a user's whole history in id order, read from a cursor EXPORT_FETCH_SIZE rows at a time
+    // (MySQL only honours the fetch size with useCursorFetch=true). Consume inside a read-only
+    // transaction and clear the persistence context as you go, or every row stays attached to it.
+    @EntityGraph(attributePaths = {"sourceBlob", "testBlob"})
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM SavedTest t WHERE t.user.id = :userId ORDER BY t.id")
+    Stream<SavedTest> streamByUserId(@Param("userId") Long userId);
+
+    // Deletes only when the entry belongs to the user; 0 when it doesn't exist or isn't theirs
+    @Transactional
+    long deleteByIdAndUserId(Long id, Long userId);
+}
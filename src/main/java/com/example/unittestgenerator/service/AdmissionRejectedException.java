@@ -0,0 +1,26 @@
+package com.example.unittestgenerator.service;
+
+/**
+ * A generation request turned away before any work was done: 413 for
+ * oversized input, 429 when the server or the user is over its limit.
+ * {@code retryAfterSeconds} is 0 when retrying the same request won't help.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final int status;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(int status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.BatchGenerateResponse;
+import com.example.unittestgenerator.dto.ClassTestResult;
+import com.example.unittestgenerator.dto.CompileReport;
+import com.example.unittestgenerator.dto.SourceFile;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Generates tests for a whole module in one call. Files are spread across the
+ * generator executor; results come back in the order the files were submitted.
+ * With symbol resolution every file is registered with the project before
+ * any is generated, so references between the submitted files resolve.
+ * Compile checks run one per file, with the rest of the batch as source
+ * path, either inside each file's task or one file after another.
+ */
+@Service
+public class BatchGenerationService {
+
+    private final GeneratorService generatorService;
+    private final ExecutorService generatorExecutor;
+    private final SymbolSolverCache symbolSolverCache;
+    private final CompileCheck compileCheck;
+    private final int maxFiles;
+    private final long maxZipBytes;
+
+    public BatchGenerationService(GeneratorService generatorService,
+                                  @Qualifier("generatorExecutor") ExecutorService generatorExecutor,
+                                  SymbolSolverCache symbolSolverCache,
+                                  CompileCheck compileCheck,
+                                  @Value("${generator.batch.max-files:1000}") int maxFiles,
+                                  @Value("${generator.batch.max-zip-bytes:52428800}") long maxZipBytes) {
+        this.generatorService = generatorService;
+        this.generatorExecutor = generatorExecutor;
+        this.symbolSolverCache = symbolSolverCache;
+        this.compileCheck = compileCheck;
+        this.maxFiles = maxFiles;
+        this.maxZipBytes = maxZipBytes;
+    }
+
+    public BatchGenerateResponse generate(List<SourceFile> files) {
+        return generate(files, GenerationOptions.defaults());
+    }
+
+    public BatchGenerateResponse generate(List<SourceFile> files, GenerationOptions options) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No source files submitted.");
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Too many files in one batch (limit " + maxFiles + ").");
+        }
+
+        if (options.getSymbols() != null) {
+            register(files, options);
+        }
+
+        boolean check = compileCheck.appliesTo(options);
+        boolean checkInTasks = check && compileCheck.isBatchParallel();
+        CompileCheck.SourcePath sourcePath = check ? CompileCheck.SourcePath.of(files) : null;
+
+        List<CompletableFuture<List<ClassTestResult>>> futures = new ArrayList<>(files.size());
+        for (SourceFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<ClassTestResult> results = generatorService.generateAllClasses(file.getFileName(), file.getSourceCode(), options);
+                if (checkInTasks) {
+                    compile(file, results, sourcePath);
+                }
+                return results;
+            }, generatorExecutor));
+        }
+
+        List<ClassTestResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            List<ClassTestResult> fileResults = futures.get(i).join();
+            if (check && !checkInTasks) {
+                compile(files.get(i), fileResults, sourcePath);
+            }
+            for (ClassTestResult result : fileResults) {
+                result.setFileIndex(i);
+            }
+            results.addAll(fileResults);
+        }
+        return new BatchGenerateResponse(files.size(), results);
+    }
+
+    // One compiler run per file, covering every class generated from it
+    private void compile(SourceFile file, List<ClassTestResult> results, CompileCheck.SourcePath sourcePath) {
+        List<ClassTestResult> generated = results.stream().filter(ClassTestResult::isSuccess).toList();
+        List<CompileReport> reports = compileCheck.check(file,
+                generated.stream().map(ClassTestResult::getMainTestFileContent).toList(), sourcePath);
+        for (int i = 0; i < generated.size(); i++) {
+            generated.get(i).setCompileCheck(reports.get(i));
+        }
+    }
+
+    // Uploads a project's sources ahead of generation requests; returns how many parsed
+    public int registerSources(Long ownerId, String projectId, List<SourceFile> files, GenerationOptions options) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No source files submitted.");
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Too many files in one batch (limit " + maxFiles + ").");
+        }
+        return register(files, options.withSymbols(symbolSolverCache.project(ownerId, projectId)));
+    }
+
+    // Unparseable files are skipped here; generateAllClasses reports them per file
+    private int register(List<SourceFile> files, GenerationOptions options) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(files.size());
+        for (SourceFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    generatorService.unitOf(file.getSourceCode(), options);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }, generatorExecutor));
+        }
+        int registered = 0;
+        for (CompletableFuture<Boolean> future : futures) {
+            registered += future.join() ? 1 : 0;
+        }
+        symbolSolverCache.enforceBudget();
+        return registered;
+    }
+
+    // Every *.java entry in the archive becomes one SourceFile
+    public List<SourceFile> readZip(InputStream zipStream) throws IOException {
+        List<SourceFile> files = new ArrayList<>();
+        long totalBytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(zipStream, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            byte[] buffer = new byte[8192];
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !entry.getName().endsWith(".java")) {
+                    continue;
+                }
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                int read;
+                while ((read = zip.read(buffer)) > 0) {
+                    totalBytes += read;
+                    if (totalBytes > maxZipBytes) {
+                        throw new IllegalArgumentException("Archive is too large once uncompressed.");
+                    }
+                    content.write(buffer, 0, read);
+                }
+                files.add(new SourceFile(entry.getName(), content.toString(StandardCharsets.UTF_8)));
+            }
+        }
+        return files;
+    }
+}
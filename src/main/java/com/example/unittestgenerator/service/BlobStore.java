@@ -0,0 +1,96 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.models.ContentBlob;
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.repository.ContentBlobRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Content-addressed storage for SavedTest bodies. Identical texts (the same
+ * file regenerated again and again) are compressed and stored once.
+ * Blobs are written insert-if-absent, so concurrent writers of the same text
+ * (the background writer, batch saves, job commits, imports) never collide.
+ */
+@Service
+public class BlobStore {
+
+    // A blob with this hash already exists: same text, nothing to update
+    private static final String INSERT_IF_ABSENT = "INSERT INTO content_blobs (hash, codec, original_size, data, created_at)"
+            + " VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE hash = hash";
+
+    private final ContentBlobRepository contentBlobRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BlobStore(ContentBlobRepository contentBlobRepository, JdbcTemplate jdbcTemplate) {
+        this.contentBlobRepository = contentBlobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String hashOf(String text) {
+        return SourceFingerprint.sha256(text);
+    }
+
+    /**
+     * Ensures every text has a blob and returns them by hash, as unloaded
+     * references. Must run inside a transaction. Costs one key lookup plus one
+     * batched insert of the blobs that were missing; only those get compressed.
+     */
+    public Map<String, ContentBlob> storeAll(Collection<String> texts) {
+        Map<String, String> textsByHash = new TreeMap<>(); // one insert order for everyone, so writers can't deadlock
+        for (String text : texts) {
+            if (text != null) {
+                textsByHash.putIfAbsent(hashOf(text), text);
+            }
+        }
+        if (textsByHash.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<String> existing = new HashSet<>(contentBlobRepository.findExistingHashes(textsByHash.keySet()));
+        List<Map.Entry<String, String>> missing = textsByHash.entrySet().stream()
+                .filter(entry -> !existing.contains(entry.getKey()))
+                .toList();
+        if (!missing.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, missing, missing.size(), (statement, entry) -> {
+                byte[] utf8 = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                statement.setString(1, entry.getKey());
+                statement.setString(2, BlobCodec.DEFLATE);
+                statement.setInt(3, utf8.length);
+                statement.setBytes(4, BlobCodec.compress(entry.getValue()));
+                statement.setTimestamp(5, now);
+            });
+        }
+
+        Map<String, ContentBlob> blobs = new HashMap<>();
+        for (String hash : textsByHash.keySet()) {
+            blobs.put(hash, contentBlobRepository.getReferenceById(hash));
+        }
+        return blobs;
+    }
+
+    public String read(ContentBlob blob) {
+        return blob == null ? null : BlobCodec.decompress(blob.getCodec(), blob.getData(), blob.getOriginalSize());
+    }
+
+    // Rows written before blob storage still carry their bodies inline
+    public String sourceOf(SavedTest test) {
+        return test.getSourceBlob() != null ? read(test.getSourceBlob()) : test.getSourceCode();
+    }
+
+    public String testOf(SavedTest test) {
+        return test.getTestBlob() != null ? read(test.getTestBlob()) : test.getGeneratedTestCode();
+    }
+}
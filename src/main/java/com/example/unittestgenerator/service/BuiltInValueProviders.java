@@ -0,0 +1,195 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The providers every registry ends with: scalars from a fixed table, then
+ * collections, Optional and arrays built from their element types.
+ */
+final class BuiltInValueProviders {
+
+    private BuiltInValueProviders() {}
+
+    static List<ValueProvider> all() {
+        return List.of(new Scalars(), new Containers());
+    }
+
+    // ============================================================
+    // SCALARS: primitives, boxes, String and the java.math types
+    // ============================================================
+
+    static final class Scalars implements ValueProvider {
+
+        private static final Map<String, ValueTable> TABLES = new HashMap<>();
+
+        static {
+            ValueTable ints = ValueTable.literals("5", "-5", "0", "2147483647")
+                    .withCsv("5", "-5", "0", "2147483647");
+            ValueTable longs = ValueTable.literals("5L", "-5L", "0L", "9223372036854775807L")
+                    .withCsv("5", "-5", "0", "9223372036854775807");
+            ValueTable shorts = ValueTable.literals("(short) 5", "(short) -5", "(short) 0", "(short) 32767")
+                    .withCsv("5", "-5", "0", "32767");
+            ValueTable bytes = ValueTable.literals("(byte) 5", "(byte) -5", "(byte) 0", "(byte) 127")
+                    .withCsv("5", "-5", "0", "127");
+            ValueTable doubles = ValueTable.literals("5.5", "-5.5", "0.0", "99999.99")
+                    .withCsv("5.5", "-5.5", "0.0", "99999.99");
+            ValueTable floats = ValueTable.literals("5.5f", "-5.5f", "0.0f", "99999.99f")
+                    .withCsv("5.5", "-5.5", "0.0", "99999.99");
+            ValueTable booleans = ValueTable.literals("true", "true", "false", "true")
+                    .withCsv("true", "true", "false", "true");
+            ValueTable chars = ValueTable.literals("'a'", "'#'", "' '", "'~'")
+                    .withCsv("a", "#", "' '", "~");
+            ValueTable strings = ValueTable.literals("\"valid_string\"", "\"!@#$%^&*()\"", "\"\"",
+                            "\"a_very_long_string_exceeding_standard_limits\"")
+                    .withCsv("valid_string", "!@#$%^&*()", "''", "a_very_long_string_exceeding_standard_limits");
+
+            register(ints, "int", "Integer");
+            register(longs, "long", "Long");
+            register(shorts, "short", "Short");
+            register(bytes, "byte", "Byte");
+            register(doubles, "double", "Double");
+            register(floats, "float", "Float");
+            register(booleans, "boolean", "Boolean");
+            register(chars, "char", "Character");
+            register(strings, "String", "CharSequence");
+
+            register(ValueTable.literals("new java.math.BigDecimal(\"5.5\")", "new java.math.BigDecimal(\"-5.5\")",
+                            "java.math.BigDecimal.ZERO", "new java.math.BigDecimal(\"99999.99\")")
+                    .withCsv("5.5", "-5.5", "0", "99999.99"), "java.math.BigDecimal");
+            register(ValueTable.literals("java.math.BigInteger.valueOf(5)", "java.math.BigInteger.valueOf(-5)",
+                            "java.math.BigInteger.ZERO", "java.math.BigInteger.valueOf(Long.MAX_VALUE)")
+                    .withCsv("5", "-5", "0", "9223372036854775807"), "java.math.BigInteger");
+        }
+
+        // Boxes and java.lang/java.math types are also reachable by their qualified name
+        private static void register(ValueTable table, String... names) {
+            for (String name : names) {
+                TABLES.put(name, table);
+                int dot = name.lastIndexOf('.');
+                if (dot >= 0) {
+                    TABLES.put(name.substring(dot + 1), table);
+                } else if (Character.isUpperCase(name.charAt(0))) {
+                    TABLES.put("java.lang." + name, table);
+                }
+            }
+        }
+
+        @Override
+        public ValueTable tableFor(Type type, ValueResolver resolver) {
+            if (type.isClassOrInterfaceType() && type.asClassOrInterfaceType().getTypeArguments().isPresent()) {
+                return null;
+            }
+            return TABLES.get(type.asString());
+        }
+    }
+
+    // ============================================================
+    // CONTAINERS: collections, maps, Optional and arrays
+    // ============================================================
+
+    static final class Containers implements ValueProvider {
+
+        @Override
+        public ValueTable tableFor(Type type, ValueResolver resolver) {
+            if (type.isArrayType()) {
+                return arrayTable(type.asArrayType(), resolver);
+            }
+            if (!type.isClassOrInterfaceType()) {
+                return null;
+            }
+            ClassOrInterfaceType classType = type.asClassOrInterfaceType();
+            String name = classType.getNameWithScope();
+            if (name.startsWith("java.util.")) {
+                name = name.substring("java.util.".length());
+            }
+            List<Type> args = classType.getTypeArguments().map(List::<Type>copyOf).orElse(List.of());
+            return switch (name) {
+                case "List", "Collection", "Iterable" -> collectionTable("java.util.List", args, resolver);
+                case "Set" -> collectionTable("java.util.Set", args, resolver);
+                case "Map" -> mapTable(args, resolver);
+                case "Optional" -> optionalTable(args, resolver);
+                default -> null;
+            };
+        }
+
+        private static ValueTable collectionTable(String factory, List<Type> args, ValueResolver resolver) {
+            String empty = factory + ".of()";
+            ValueTable element = elementTable(args, 0, resolver);
+            if (element == null) {
+                return ValueTable.literals(empty, empty, empty, empty);
+            }
+            return ValueTable.literals(
+                    factory + ".of(" + element.literal(HeuristicKind.POSITIVE) + ")",
+                    factory + ".of(" + element.literal(HeuristicKind.NEGATIVE) + ")",
+                    empty,
+                    factory + ".of(" + element.literal(HeuristicKind.MAX) + ")");
+        }
+
+        private static ValueTable mapTable(List<Type> args, ValueResolver resolver) {
+            String empty = "java.util.Map.of()";
+            ValueTable key = elementTable(args, 0, resolver);
+            ValueTable value = elementTable(args, 1, resolver);
+            if (key == null || value == null) {
+                return ValueTable.literals(empty, empty, empty, empty);
+            }
+            return ValueTable.literals(
+                    "java.util.Map.of(" + key.literal(HeuristicKind.POSITIVE) + ", " + value.literal(HeuristicKind.POSITIVE) + ")",
+                    "java.util.Map.of(" + key.literal(HeuristicKind.NEGATIVE) + ", " + value.literal(HeuristicKind.NEGATIVE) + ")",
+                    empty,
+                    "java.util.Map.of(" + key.literal(HeuristicKind.MAX) + ", " + value.literal(HeuristicKind.MAX) + ")");
+        }
+
+        private static ValueTable optionalTable(List<Type> args, ValueResolver resolver) {
+            String empty = "java.util.Optional.empty()";
+            ValueTable element = elementTable(args, 0, resolver);
+            if (element == null) {
+                return ValueTable.literals(empty, empty, empty, empty);
+            }
+            return ValueTable.literals(
+                    "java.util.Optional.of(" + element.literal(HeuristicKind.POSITIVE) + ")",
+                    "java.util.Optional.of(" + element.literal(HeuristicKind.NEGATIVE) + ")",
+                    empty,
+                    "java.util.Optional.of(" + element.literal(HeuristicKind.MAX) + ")");
+        }
+
+        private static ValueTable arrayTable(ArrayType type, ValueResolver resolver) {
+            Type component = type.getComponentType();
+            if (component.isClassOrInterfaceType() && component.asClassOrInterfaceType().getTypeArguments().isPresent()) {
+                return null; // generic array creation doesn't compile
+            }
+            String prefix = "new " + type.asString() + " {";
+            String empty = prefix + "}";
+            ValueTable element = resolver.resolve(component);
+            if (element == ValueTable.NULL) {
+                return ValueTable.literals(empty, empty, empty, empty);
+            }
+            return ValueTable.literals(
+                    prefix + element.literal(HeuristicKind.POSITIVE) + "}",
+                    prefix + element.literal(HeuristicKind.NEGATIVE) + "}",
+                    empty,
+                    prefix + element.literal(HeuristicKind.MAX) + "}");
+        }
+
+        // null for raw types, wildcards and elements nobody has values for
+        private static ValueTable elementTable(List<Type> args, int index, ValueResolver resolver) {
+            if (args.size() <= index) {
+                return null;
+            }
+            Type arg = args.get(index);
+            if (arg.isWildcardType()) {
+                arg = arg.asWildcardType().getExtendedType().map(Type.class::cast).orElse(null);
+                if (arg == null) {
+                    return null;
+                }
+            }
+            ValueTable table = resolver.resolve(arg);
+            return table == ValueTable.NULL ? null : table;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.service.ClassModel.BodyHint;
+import com.example.unittestgenerator.service.ClassModel.ConstructorModel;
+import com.example.unittestgenerator.service.ClassModel.EnumModel;
+import com.example.unittestgenerator.service.ClassModel.FieldModel;
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import com.example.unittestgenerator.service.ClassModel.ParamModel;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.ArrayAccessExpr;
+import com.github.javaparser.ast.expr.AssignExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.ThrowStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import com.github.javaparser.ast.type.ReferenceType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds a {@link ClassModel} from a parsed class. This is the only place
+ * that walks method bodies; everything downstream works on the model.
+ */
+final class ClassAnalyzer {
+
+    // Simple names; isAnnotationPresent also matches the qualified form
+    private static final List<String> INJECTION_ANNOTATIONS = List.of("Autowired", "Inject", "Resource");
+
+    private ClassAnalyzer() {}
+
+    static ClassModel analyze(ClassOrInterfaceDeclaration declaration, String typeName) {
+        CompilationUnit unit = declaration.findCompilationUnit().orElse(null);
+        return analyze(declaration, typeName, enumsOf(unit));
+    }
+
+    // Batch mode analyzes several classes of one file, so the file's enums are collected once
+    static ClassModel analyze(ClassOrInterfaceDeclaration declaration, String typeName, List<EnumModel> enums) {
+        String packageName = declaration.findCompilationUnit()
+                .flatMap(CompilationUnit::getPackageDeclaration)
+                .map(pkg -> pkg.getNameAsString())
+                .orElse(null);
+
+        List<FieldModel> fields = new ArrayList<>();
+        for (FieldDeclaration field : declaration.getFields()) {
+            boolean injected = isInjected(field);
+            for (VariableDeclarator variable : field.getVariables()) {
+                fields.add(new FieldModel(variable.getNameAsString(), variable.getTypeAsString(),
+                        field.isStatic(), field.isFinal(), injected));
+            }
+        }
+
+        List<ConstructorModel> constructors = new ArrayList<>();
+        for (ConstructorDeclaration constructor : declaration.getConstructors()) {
+            constructors.add(new ConstructorModel(params(constructor.getParameters()),
+                    thrown(constructor.getThrownExceptions()), constructor.isPublic(), constructor.isPrivate(),
+                    isInjected(constructor)));
+        }
+
+        List<String> imports = new ArrayList<>();
+        declaration.findCompilationUnit().ifPresent(unit -> {
+            for (ImportDeclaration importDeclaration : unit.getImports()) {
+                if (!importDeclaration.isStatic()) {
+                    imports.add(importDeclaration.getNameAsString() + (importDeclaration.isAsterisk() ? ".*" : ""));
+                }
+            }
+        });
+
+        List<MethodModel> methods = new ArrayList<>();
+        for (MethodDeclaration method : declaration.getMethods()) {
+            if (method.isPublic()) {
+                methods.add(method(method));
+            }
+        }
+
+        return new ClassModel(packageName, declaration.getNameAsString(), typeName,
+                List.copyOf(fields), List.copyOf(constructors), List.copyOf(methods), enums, List.copyOf(imports));
+    }
+
+    static List<EnumModel> enumsOf(CompilationUnit unit) {
+        if (unit == null) {
+            return List.of();
+        }
+        List<EnumModel> enums = new ArrayList<>();
+        for (EnumDeclaration declaration : unit.findAll(EnumDeclaration.class)) {
+            List<String> constants = declaration.getEntries().stream()
+                    .map(EnumConstantDeclaration::getNameAsString)
+                    .toList();
+            enums.add(new EnumModel(declaration.getNameAsString(), nestedName(declaration), constants));
+        }
+        return List.copyOf(enums);
+    }
+
+    private static MethodModel method(MethodDeclaration method) {
+        Set<BodyHint> hints = EnumSet.noneOf(BodyHint.class);
+        Set<String> thrownInBody = new LinkedHashSet<>();
+        method.getBody().ifPresent(body -> body.walk(node -> inspect(node, hints, thrownInBody)));
+
+        return new MethodModel(method.getNameAsString(), method.getTypeAsString(),
+                params(method.getParameters()), thrown(method.getThrownExceptions()),
+                List.copyOf(thrownInBody), Set.copyOf(hints), method.isStatic(), bodyHash(method));
+    }
+
+    private static void inspect(Node node, Set<BodyHint> hints, Set<String> thrownInBody) {
+        if (node instanceof BinaryExpr binary) {
+            switch (binary.getOperator()) {
+                case DIVIDE, REMAINDER -> hints.add(BodyHint.DIVIDES);
+                case EQUALS, NOT_EQUALS -> {
+                    if (binary.getLeft().isNullLiteralExpr() || binary.getRight().isNullLiteralExpr()) {
+                        hints.add(BodyHint.CHECKS_NULL);
+                    }
+                }
+                default -> { }
+            }
+        } else if (node instanceof AssignExpr assign) {
+            if (assign.getOperator() == AssignExpr.Operator.DIVIDE || assign.getOperator() == AssignExpr.Operator.REMAINDER) {
+                hints.add(BodyHint.DIVIDES);
+            }
+        } else if (node instanceof ForStmt || node instanceof ForEachStmt || node instanceof WhileStmt || node instanceof DoStmt) {
+            hints.add(BodyHint.LOOPS);
+        } else if (node instanceof ArrayAccessExpr) {
+            hints.add(BodyHint.INDEXES);
+        } else if (node instanceof MethodCallExpr call) {
+            switch (call.getNameAsString()) {
+                case "charAt", "substring", "subList" -> hints.add(BodyHint.INDEXES);
+                case "get" -> {
+                    if (call.getArguments().size() == 1 && call.getArgument(0).isIntegerLiteralExpr()) {
+                        hints.add(BodyHint.INDEXES);
+                    }
+                }
+                case "requireNonNull" -> hints.add(BodyHint.CHECKS_NULL);
+                default -> { }
+            }
+        } else if (node instanceof ThrowStmt thrown && thrown.getExpression() instanceof ObjectCreationExpr created) {
+            thrownInBody.add(created.getType().getNameWithScope());
+        }
+    }
+
+    private static boolean isInjected(NodeWithAnnotations<?> member) {
+        for (String annotation : INJECTION_ANNOTATIONS) {
+            if (member.isAnnotationPresent(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<ParamModel> params(NodeList<Parameter> parameters) {
+        List<ParamModel> params = new ArrayList<>(parameters.size());
+        for (Parameter parameter : parameters) {
+            params.add(new ParamModel(parameter.getNameAsString(), parameter.getTypeAsString(),
+                    parameter.getType().isPrimitiveType()));
+        }
+        return List.copyOf(params);
+    }
+
+    private static List<String> thrown(NodeList<ReferenceType> types) {
+        return types.stream().map(ReferenceType::asString).toList();
+    }
+
+    // First 64 bits of the SHA-256 of the printed method, so formatting and comments don't count
+    static long bodyHash(MethodDeclaration method) {
+        String hex = SourceFingerprint.sha256(method.toString());
+        return Long.parseUnsignedLong(hex.substring(0, 16), 16);
+    }
+
+    private static String nestedName(TypeDeclaration<?> declaration) {
+        StringBuilder name = new StringBuilder(declaration.getNameAsString());
+        Node parent = declaration.getParentNode().orElse(null);
+        while (parent instanceof TypeDeclaration<?> outer) {
+            name.insert(0, outer.getNameAsString() + ".");
+            parent = outer.getParentNode().orElse(null);
+        }
+        return name.toString();
+    }
+}
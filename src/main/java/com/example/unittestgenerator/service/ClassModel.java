@@ -0,0 +1,76 @@
+package com.example.unittestgenerator.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Everything generation and suggestions need to know about one class,
+ * extracted once from the parse tree by {@link ClassAnalyzer}. It holds no
+ * AST nodes, so it can be cached and stored with a history entry
+ * ({@link ClassModelCodec}), then rendered again later without parsing.
+ * Type names are kept as written in the source.
+ */
+public record ClassModel(String packageName,
+                         String className,
+                         String typeName,   // "Outer.Inner" for nested classes
+                         List<FieldModel> fields,
+                         List<ConstructorModel> constructors,
+                         List<MethodModel> methods,  // public, in declaration order
+                         List<EnumModel> enums,      // every enum declared in the same file
+                         List<String> imports) {     // non-static imports of the file, e.g. "com.acme.Repo" or "com.acme.*"
+
+    // "Outer.Inner" -> "Outer_InnerTest", so nested classes that share a simple name get distinct tests
+    public static String testClassNameOf(String typeName) {
+        return typeName.replace('.', '_') + "Test";
+    }
+
+    public String testClassName() {
+        return testClassNameOf(typeName != null ? typeName : className);
+    }
+
+    // injected: annotated for field injection (@Autowired, @Inject, @Resource)
+    public record FieldModel(String name, String type, boolean isStatic, boolean isFinal, boolean injected) {}
+
+    public record ParamModel(String name, String type, boolean primitive) {}
+
+    public record ConstructorModel(List<ParamModel> params, List<String> thrown, boolean isPublic,
+                                   boolean isPrivate, boolean injected) {}
+
+    public record EnumModel(String name, String nestedName, List<String> constants) {}
+
+    public record MethodModel(String name,
+                              String returnType,
+                              List<ParamModel> params,
+                              List<String> thrown,        // declared in the throws clause
+                              List<String> thrownInBody,  // "throw new X(...)" inside the body
+                              Set<BodyHint> hints,
+                              boolean isStatic,
+                              long bodyHash) {            // changes whenever the printed method does
+
+        // "add(int,int)": identifies a method across edits, overloads included
+        public String signature() {
+            return params.stream().map(ParamModel::type)
+                    .collect(Collectors.joining(",", name + "(", ")"));
+        }
+
+        // "int add(int a, int b)", as shown in the suggestions panel
+        public String declaration() {
+            return params.stream().map(p -> p.type() + " " + p.name())
+                    .collect(Collectors.joining(", ", returnType + " " + name + "(", ")"));
+        }
+    }
+
+    // "com.acme.Calc.Inner", or the nested name alone in the default package
+    public String qualifiedName() {
+        return packageName == null ? typeName : packageName + "." + typeName;
+    }
+
+    // Things in a method body the suggestions engine reacts to
+    public enum BodyHint {
+        DIVIDES,
+        LOOPS,
+        INDEXES,
+        CHECKS_NULL
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.service.ClassModel.BodyHint;
+import com.example.unittestgenerator.service.ClassModel.ConstructorModel;
+import com.example.unittestgenerator.service.ClassModel.EnumModel;
+import com.example.unittestgenerator.service.ClassModel.FieldModel;
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import com.example.unittestgenerator.service.ClassModel.ParamModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary form of a {@link ClassModel} for storage next to a history
+ * entry. Every distinct string (type names repeat a lot) is written once to
+ * a table and referenced by index. Counts and indexes are varints, and the
+ * whole thing is deflated. Data written by another version is rejected on
+ * decode, and callers analyze the entry's source again instead.
+ */
+public final class ClassModelCodec {
+
+    private static final int VERSION = 2;
+
+    private ClassModelCodec() {}
+
+    public static byte[] encode(ClassModel model) {
+        try {
+            Writer body = new Writer();
+            body.model(model);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+                out.writeByte(VERSION);
+                writeVarint(out, body.strings.size());
+                for (String s : body.strings) {
+                    out.writeUTF(s);
+                }
+                body.buffer.writeTo(out);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ClassModel decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported class model version: " + version);
+            }
+            String[] strings = new String[readVarint(in)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            return new Reader(in, strings).model();
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt class model", e);
+        }
+    }
+
+    // ============================================================
+    // WRITING
+    // ============================================================
+
+    private static final class Writer {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(buffer);
+        final List<String> strings = new ArrayList<>();
+        final Map<String, Integer> indexes = new HashMap<>();
+
+        void model(ClassModel model) throws IOException {
+            string(model.packageName());
+            string(model.className());
+            string(model.typeName());
+
+            varint(model.fields().size());
+            for (FieldModel field : model.fields()) {
+                string(field.name());
+                string(field.type());
+                out.writeByte((field.isStatic() ? 1 : 0) | (field.isFinal() ? 2 : 0) | (field.injected() ? 4 : 0));
+            }
+            varint(model.constructors().size());
+            for (ConstructorModel constructor : model.constructors()) {
+                params(constructor.params());
+                strings(constructor.thrown());
+                out.writeByte((constructor.isPublic() ? 1 : 0) | (constructor.isPrivate() ? 2 : 0)
+                        | (constructor.injected() ? 4 : 0));
+            }
+            varint(model.methods().size());
+            for (MethodModel method : model.methods()) {
+                string(method.name());
+                string(method.returnType());
+                params(method.params());
+                strings(method.thrown());
+                strings(method.thrownInBody());
+                int hints = 0;
+                for (BodyHint hint : method.hints()) {
+                    hints |= 1 << hint.ordinal();
+                }
+                varint(hints);
+                out.writeByte(method.isStatic() ? 1 : 0);
+                out.writeLong(method.bodyHash());
+            }
+            varint(model.enums().size());
+            for (EnumModel declared : model.enums()) {
+                string(declared.name());
+                string(declared.nestedName());
+                strings(declared.constants());
+            }
+            strings(model.imports());
+        }
+
+        void params(List<ParamModel> params) throws IOException {
+            varint(params.size());
+            for (ParamModel param : params) {
+                string(param.name());
+                string(param.type());
+                out.writeByte(param.primitive() ? 1 : 0);
+            }
+        }
+
+        void strings(List<String> values) throws IOException {
+            varint(values.size());
+            for (String value : values) {
+                string(value);
+            }
+        }
+
+        // 0 is null, otherwise table index + 1
+        void string(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                indexes.put(value, index);
+            }
+            varint(index + 1);
+        }
+
+        void varint(int value) throws IOException {
+            writeVarint(out, value);
+        }
+    }
+
+    // ============================================================
+    // READING
+    // ============================================================
+
+    private record Reader(DataInputStream in, String[] table) {
+
+        ClassModel model() throws IOException {
+            String packageName = string();
+            String className = string();
+            String typeName = string();
+
+            List<FieldModel> fields = new ArrayList<>();
+            for (int i = readVarint(in); i > 0; i--) {
+                String name = string();
+                String type = string();
+                int flags = in.readUnsignedByte();
+                fields.add(new FieldModel(name, type, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0));
+            }
+            List<ConstructorModel> constructors = new ArrayList<>();
+            for (int i = readVarint(in); i > 0; i--) {
+                List<ParamModel> params = params();
+                List<String> thrown = strings();
+                int flags = in.readUnsignedByte();
+                constructors.add(new ConstructorModel(params, thrown, (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0));
+            }
+            List<MethodModel> methods = new ArrayList<>();
+            for (int i = readVarint(in); i > 0; i--) {
+                String name = string();
+                String returnType = string();
+                List<ParamModel> params = params();
+                List<String> thrown = strings();
+                List<String> thrownInBody = strings();
+                int hintBits = readVarint(in);
+                Set<BodyHint> hints = EnumSet.noneOf(BodyHint.class);
+                for (BodyHint hint : BodyHint.values()) {
+                    if ((hintBits & (1 << hint.ordinal())) != 0) hints.add(hint);
+                }
+                boolean isStatic = in.readUnsignedByte() == 1;
+                long bodyHash = in.readLong();
+                methods.add(new MethodModel(name, returnType, params, thrown, thrownInBody,
+                        Set.copyOf(hints), isStatic, bodyHash));
+            }
+            List<EnumModel> enums = new ArrayList<>();
+            for (int i = readVarint(in); i > 0; i--) {
+                enums.add(new EnumModel(string(), string(), strings()));
+            }
+            List<String> imports = strings();
+            return new ClassModel(packageName, className, typeName, List.copyOf(fields),
+                    List.copyOf(constructors), List.copyOf(methods), List.copyOf(enums), imports);
+        }
+
+        List<ParamModel> params() throws IOException {
+            List<ParamModel> params = new ArrayList<>();
+            for (int i = readVarint(in); i > 0; i--) {
+                String name = string();
+                String type = string();
+                params.add(new ParamModel(name, type, in.readUnsignedByte() == 1));
+            }
+            return List.copyOf(params);
+        }
+
+        List<String> strings() throws IOException {
+            List<String> values = new ArrayList<>();
+            for (int i = readVarint(in); i > 0; i--) {
+                values.add(string());
+            }
+            return List.copyOf(values);
+        }
+
+        String string() throws IOException {
+            int index = readVarint(in);
+            return index == 0 ? null : table[index - 1];
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
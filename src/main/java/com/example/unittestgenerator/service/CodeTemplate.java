@@ -0,0 +1,72 @@
+package com.example.unittestgenerator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template compiled into alternating literal and variable segments.
+ * Rendering appends the literals and lets the {@link Bindings} append each
+ * variable straight into the output, so no intermediate strings are built.
+ * "$$" stands for a literal dollar sign.
+ */
+public final class CodeTemplate {
+
+    private final String name;
+    private final String[] literals; // always one more than vars
+    private final TemplateVar[] vars;
+
+    private CodeTemplate(String name, String[] literals, TemplateVar[] vars) {
+        this.name = name;
+        this.literals = literals;
+        this.vars = vars;
+    }
+
+    public static CodeTemplate compile(String name, String text) {
+        List<String> literals = new ArrayList<>();
+        List<TemplateVar> vars = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '$') {
+                literal.append('$');
+                i += 2;
+            } else if (c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '{') {
+                int end = text.indexOf('}', i + 2);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed ${ in template " + name);
+                }
+                String key = text.substring(i + 2, end).trim();
+                TemplateVar var = TemplateVar.byKey(key);
+                if (var == null) {
+                    throw new IllegalArgumentException("Unknown variable ${" + key + "} in template " + name);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                vars.add(var);
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new CodeTemplate(name, literals.toArray(String[]::new), vars.toArray(TemplateVar[]::new));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void render(StringBuilder out, Bindings bindings) {
+        for (int i = 0; i < vars.length; i++) {
+            out.append(literals[i]);
+            bindings.append(out, vars[i]);
+        }
+        out.append(literals[vars.length]);
+    }
+
+    public interface Bindings {
+        void append(StringBuilder out, TemplateVar var);
+    }
+}
@@ -0,0 +1,472 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.CompileDiagnostic;
+import com.example.unittestgenerator.dto.CompileReport;
+import com.example.unittestgenerator.dto.SourceFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles generated tests together with their source using the JDK
+ * compiler API, to report what would fail in the IDE (missing imports,
+ * constructors that don't exist, mistyped literals) with the response.
+ * Sources are served from memory and nothing is written: the compile stops
+ * after flow analysis, so every error is found but no bytecode is produced.
+ * Standard file managers keep their opened classpath archives between
+ * compiles, so they are pooled like the parsers in {@link ParserPool}.
+ * Without a JDK (a plain JRE has no system compiler) the check is off.
+ */
+@Component
+public class CompileCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(CompileCheck.class);
+
+    static final int MAX_DIAGNOSTICS = 50;
+
+    // Stop after flow analysis whether or not there were errors, so errors in one class
+    // don't hide the ones in the next and nothing reaches code generation
+    private static final List<String> COMPILER_OPTIONS = List.of("-proc:none", "-implicit:none", "-g:none", "-nowarn",
+            "-Xlint:none", "-XDshould-stop.ifError=FLOW", "-XDshould-stop.ifNoError=FLOW");
+    // In-memory file names are only a guess at the public type's name
+    private static final Set<String> IGNORED_CODES = Set.of("compiler.err.class.public.should.be.in.file");
+    // Packages of the test frameworks the templates import; if one isn't on the classpath
+    // every test fails on its imports, which says nothing about the generated code
+    private static final List<String> FRAMEWORK_PREFIXES = List.of("org.junit.", "org.testng.", "org.assertj.", "org.mockito.");
+    // A package each built-in style's tests import, by style; checked once at startup
+    private static final Map<String, String> STYLE_PACKAGES = Map.of("junit5", "org.junit.jupiter.api",
+            "junit4", "org.junit", "testng", "org.testng.annotations", "assertj", "org.assertj.core.api");
+
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern IMPORT = Pattern.compile("^\\s*import\\s+(?:static\\s+)?([\\w.]+)", Pattern.MULTILINE);
+    private static final Pattern PUBLIC_TYPE = Pattern.compile(
+            "^public\\s+(?:(?:final|abstract|sealed|non-sealed|strictfp)\\s+)*(?:class|interface|enum|record|@interface)\\s+(\\w+)",
+            Pattern.MULTILINE);
+    private static final Pattern ANY_TYPE = Pattern.compile("\\b(?:class|interface|enum|record)\\s+(\\w+)");
+
+    private final JavaCompiler compiler; // null when disabled or running on a JRE
+    private final boolean batchParallel;
+    private final List<File> classpath;
+    private final BlockingQueue<StandardJavaFileManager> idle;
+    private final Map<String, Boolean> packagesOnClasspath = new ConcurrentHashMap<>();
+    private final GeneratorMetrics metrics;
+
+    public CompileCheck(@Value("${generator.compile.enabled:true}") boolean enabled,
+                        @Value("${generator.compile.classpath:}") String classpath,
+                        @Value("${generator.compile.max-idle:8}") int maxIdle,
+                        @Value("${generator.compile.batch-parallel:true}") boolean batchParallel,
+                        GeneratorMetrics metrics) {
+        JavaCompiler systemCompiler = enabled ? ToolProvider.getSystemJavaCompiler() : null;
+        if (enabled && systemCompiler == null) {
+            log.warn("No system Java compiler (running on a JRE?); generated tests won't be compile-checked");
+        }
+        this.compiler = systemCompiler;
+        this.batchParallel = batchParallel;
+        this.classpath = classpathOf(classpath);
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+        this.metrics = metrics;
+        if (compiler != null) {
+            warnAboutMissingFrameworks(classpath == null || classpath.isBlank());
+        }
+    }
+
+    // Never compiles, e.g. for tests and benchmarks of the other phases
+    public static CompileCheck disabled() {
+        return new CompileCheck(false, "", 1, false, GeneratorMetrics.noop());
+    }
+
+    // Blank means the class path this JVM was started with
+    private static List<File> classpathOf(String configured) {
+        String path = configured == null || configured.isBlank() ? System.getProperty("java.class.path", "") : configured;
+        List<File> entries = new ArrayList<>();
+        for (String entry : path.split("[" + Pattern.quote(File.pathSeparator) + ",]")) {
+            File file = new File(entry.trim());
+            if (!entry.isBlank() && file.exists()) {
+                entries.add(file);
+            }
+        }
+        return entries;
+    }
+
+    // The executable jar keeps its libraries nested in BOOT-INF/lib, where javac can't read them:
+    // started with java -jar and a blank classpath, every check would quietly come back skipped
+    private void warnAboutMissingFrameworks(boolean jvmClasspath) {
+        StandardJavaFileManager fileManager = borrow();
+        List<String> missing = new ArrayList<>();
+        try {
+            for (Map.Entry<String, String> style : new TreeMap<>(STYLE_PACKAGES).entrySet()) {
+                boolean present = packagesOnClasspath.computeIfAbsent(style.getValue(), p -> hasClasses(fileManager, p));
+                if (!present) {
+                    missing.add(style.getKey());
+                }
+            }
+        } finally {
+            giveBack(fileManager);
+        }
+        if (missing.size() == STYLE_PACKAGES.size()) {
+            log.warn("Compile check is inactive: no test framework is on its classpath{}, so every generated test is "
+                    + "reported as skipped. Set generator.compile.classpath to the JUnit/TestNG/AssertJ/Mockito jars "
+                    + "(see README.md).", jvmClasspath ? " (blank generator.compile.classpath: the JVM class path)" : "");
+        } else if (!missing.isEmpty()) {
+            log.info("Compile check skips the {} styles: their framework isn't on generator.compile.classpath", missing);
+        }
+    }
+
+    public boolean isEnabled() {
+        return compiler != null;
+    }
+
+    // Requests may turn the check off; it can't be turned on without a compiler
+    public boolean appliesTo(GenerationOptions options) {
+        return compiler != null && !Boolean.FALSE.equals(options.getCompileCheck());
+    }
+
+    // Whether batch runs check each file on the generator executor, or one file after another
+    public boolean isBatchParallel() {
+        return batchParallel;
+    }
+
+    // ============================================================
+    // CHECKS
+    // ============================================================
+
+    public CompileReport check(String sourceCode, String testCode) {
+        return check(new SourceFile(null, sourceCode), List.of(testCode), SourcePath.EMPTY).get(0);
+    }
+
+    /**
+     * Compiles one source file with all tests generated from it, in a single
+     * compiler run. Other files of the batch are only parsed if the compile
+     * refers to them. Returns one report per test, in order; errors in the
+     * source itself appear in every report.
+     */
+    public List<CompileReport> check(SourceFile source, List<String> testCodes, SourcePath sourcePath) {
+        if (testCodes.isEmpty()) {
+            return List.of();
+        }
+        if (compiler == null) {
+            return repeat(CompileReport.skipped("Compile check is disabled."), testCodes.size());
+        }
+        return metrics.timeCompile(() -> {
+            long start = System.nanoTime();
+            List<CompileReport> reports = compile(source, testCodes, sourcePath, start);
+            for (CompileReport report : reports) {
+                metrics.recordCompile(report.getStatus());
+            }
+            return reports;
+        });
+    }
+
+    private List<CompileReport> compile(SourceFile source, List<String> testCodes, SourcePath sourcePath, long start) {
+        StandardJavaFileManager standard = borrow();
+        try {
+            String missing = missingFrameworkPackage(standard, testCodes);
+            if (missing != null) {
+                return repeat(CompileReport.skipped(missing + " is not on the compile classpath (generator.compile.classpath)."),
+                        testCodes.size());
+            }
+
+            String packageName = packageOf(source.getSourceCode());
+            MemorySource sourceUnit = new MemorySource(packageName, fileNameOf(source), source.getSourceCode(), source);
+            List<MemorySource> units = new ArrayList<>(testCodes.size() + 1);
+            units.add(sourceUnit);
+            Map<JavaFileObject, Integer> testIndex = new IdentityHashMap<>();
+            for (String testCode : testCodes) {
+                MemorySource testUnit = new MemorySource(packageOf(testCode), typeNameOf(testCode) + ".java", testCode, null);
+                testIndex.put(testUnit, units.size() - 1);
+                units.add(testUnit);
+            }
+
+            DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+            JavaFileManager fileManager = new MemoryFileManager(standard, sourcePath, source);
+            compiler.getTask(new StringWriter(), fileManager, collector, COMPILER_OPTIONS, null, units).call();
+
+            // Errors outside the tests (in the source or a file it refers to) belong to every report
+            List<CompileDiagnostic> shared = new ArrayList<>();
+            List<List<CompileDiagnostic>> perTest = new ArrayList<>(testCodes.size());
+            for (int i = 0; i < testCodes.size(); i++) {
+                perTest.add(new ArrayList<>());
+            }
+            for (Diagnostic<? extends JavaFileObject> diagnostic : collector.getDiagnostics()) {
+                if (diagnostic.getKind() != Diagnostic.Kind.ERROR || IGNORED_CODES.contains(diagnostic.getCode())) {
+                    continue;
+                }
+                JavaFileObject file = diagnostic.getSource();
+                Integer test = file == null ? null : testIndex.get(file);
+                String fileLabel = test != null ? "test" : file == sourceUnit || file == null ? "source" : labelOf(file);
+                CompileDiagnostic entry = new CompileDiagnostic(fileLabel, diagnostic.getLineNumber(),
+                        diagnostic.getColumnNumber(), diagnostic.getCode(), diagnostic.getMessage(Locale.ROOT));
+                (test != null ? perTest.get(test) : shared).add(entry);
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            List<CompileReport> reports = new ArrayList<>(testCodes.size());
+            for (List<CompileDiagnostic> own : perTest) {
+                List<CompileDiagnostic> diagnostics = new ArrayList<>(shared);
+                diagnostics.addAll(own);
+                String note = null;
+                if (diagnostics.size() > MAX_DIAGNOSTICS) {
+                    note = "Showing " + MAX_DIAGNOSTICS + " of " + diagnostics.size() + " errors.";
+                    diagnostics = diagnostics.subList(0, MAX_DIAGNOSTICS);
+                }
+                reports.add(new CompileReport(diagnostics.isEmpty() ? CompileReport.Status.PASSED : CompileReport.Status.FAILED,
+                        elapsedMillis, List.copyOf(diagnostics), note));
+            }
+            return reports;
+        } finally {
+            giveBack(standard);
+        }
+    }
+
+    private StandardJavaFileManager borrow() {
+        StandardJavaFileManager fileManager = idle.poll();
+        if (fileManager != null) {
+            return fileManager;
+        }
+        fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+        try {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fileManager;
+    }
+
+    // A file manager that doesn't fit back into a full pool is closed, not left holding its jars open
+    private void giveBack(StandardJavaFileManager fileManager) {
+        if (idle.offer(fileManager)) {
+            return;
+        }
+        try {
+            fileManager.close();
+        } catch (IOException e) {
+            log.debug("Could not close a surplus file manager: {}", e.getMessage());
+        }
+    }
+
+    // The first framework package a test imports that the classpath doesn't have, or null
+    private String missingFrameworkPackage(StandardJavaFileManager fileManager, List<String> testCodes) {
+        for (String testCode : testCodes) {
+            Matcher imports = IMPORT.matcher(testCode);
+            while (imports.find()) {
+                String imported = imports.group(1);
+                if (FRAMEWORK_PREFIXES.stream().noneMatch(imported::startsWith)) {
+                    continue;
+                }
+                String packageName = packageOfImport(imported);
+                boolean present = packagesOnClasspath.computeIfAbsent(packageName, p -> hasClasses(fileManager, p));
+                if (!present) {
+                    return packageName;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasClasses(StandardJavaFileManager fileManager, String packageName) {
+        try {
+            return fileManager.list(StandardLocation.CLASS_PATH, packageName, EnumSet.of(JavaFileObject.Kind.CLASS), false)
+                    .iterator().hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // "org.junit.jupiter.api.Assertions.assertEquals" -> "org.junit.jupiter.api"
+    private static String packageOfImport(String imported) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : imported.split("\\.")) {
+            if (segment.isEmpty() || Character.isUpperCase(segment.charAt(0))) {
+                break;
+            }
+            segments.add(segment);
+        }
+        return String.join(".", segments);
+    }
+
+    private static String labelOf(JavaFileObject file) {
+        if (file instanceof MemorySource source && source.origin != null && source.origin.getFileName() != null) {
+            return source.origin.getFileName();
+        }
+        return file.getName();
+    }
+
+    private static List<CompileReport> repeat(CompileReport report, int count) {
+        return new ArrayList<>(Collections.nCopies(count, report));
+    }
+
+    static String packageOf(String code) {
+        Matcher matcher = PACKAGE.matcher(code);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    static String typeNameOf(String code) {
+        Matcher matcher = PUBLIC_TYPE.matcher(code);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        matcher = ANY_TYPE.matcher(code);
+        return matcher.find() ? matcher.group(1) : "Source";
+    }
+
+    // The batch's own file name when it has one, since javac looks sibling types up by file name
+    private static String fileNameOf(SourceFile file) {
+        String name = file.getFileName();
+        if (name != null && name.endsWith(".java")) {
+            return name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        }
+        return typeNameOf(file.getSourceCode()) + ".java";
+    }
+
+    // ============================================================
+    // IN-MEMORY FILES
+    // ============================================================
+
+    /**
+     * The files of a batch by package, for the compiler to look up types the
+     * checked file refers to. Built once per batch and shared by its checks.
+     */
+    public static final class SourcePath {
+
+        static final SourcePath EMPTY = new SourcePath(Map.of());
+
+        private final Map<String, List<MemorySource>> byPackage;
+
+        private SourcePath(Map<String, List<MemorySource>> byPackage) {
+            this.byPackage = byPackage;
+        }
+
+        public static SourcePath of(List<SourceFile> files) {
+            Map<String, List<MemorySource>> byPackage = new HashMap<>();
+            for (SourceFile file : files) {
+                if (file.getSourceCode() == null) {
+                    continue;
+                }
+                String packageName = packageOf(file.getSourceCode());
+                byPackage.computeIfAbsent(packageName, p -> new ArrayList<>())
+                        .add(new MemorySource(packageName, fileNameOf(file), file.getSourceCode(), file));
+            }
+            return new SourcePath(byPackage);
+        }
+
+        // The checked file is compiled explicitly, so it must not also be found here
+        List<JavaFileObject> list(String packageName, SourceFile exclude) {
+            List<JavaFileObject> files = new ArrayList<>();
+            for (MemorySource file : byPackage.getOrDefault(packageName, List.of())) {
+                if (file.origin != exclude) {
+                    files.add(file);
+                }
+            }
+            return files;
+        }
+    }
+
+    static final class MemorySource extends SimpleJavaFileObject {
+
+        private final String binaryName;
+        private final String code;
+        private final SourceFile origin;
+
+        MemorySource(String packageName, String fileName, String code, SourceFile origin) {
+            super(URI.create("mem:///" + (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/") + fileName),
+                    Kind.SOURCE);
+            String simpleName = fileName.substring(0, fileName.length() - Kind.SOURCE.extension.length());
+            this.binaryName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+            this.code = code;
+            this.origin = origin;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    // Sources come from memory, output goes nowhere, classes from the pooled standard manager
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final SourcePath sourcePath;
+        private final SourceFile checked;
+
+        MemoryFileManager(StandardJavaFileManager standard, SourcePath sourcePath, SourceFile checked) {
+            super(standard);
+            this.sourcePath = sourcePath;
+            this.checked = checked;
+        }
+
+        // Always "set", so the compiler never scans the classpath for .java files
+        @Override
+        public boolean hasLocation(Location location) {
+            return location == StandardLocation.SOURCE_PATH || super.hasLocation(location);
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                             boolean recurse) throws IOException {
+            if (location == StandardLocation.SOURCE_PATH) {
+                return kinds.contains(JavaFileObject.Kind.SOURCE) ? sourcePath.list(packageName, checked) : List.of();
+            }
+            return super.list(location, packageName, kinds, recurse);
+        }
+
+        @Override
+        public String inferBinaryName(Location location, JavaFileObject file) {
+            return file instanceof MemorySource source ? source.binaryName : super.inferBinaryName(location, file);
+        }
+
+        @Override
+        public boolean isSameFile(FileObject a, FileObject b) {
+            if (a instanceof MemorySource || b instanceof MemorySource) {
+                return a == b;
+            }
+            return super.isSameFile(a, b);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///out/" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return OutputStream.nullOutputStream();
+                }
+            };
+        }
+    }
+}
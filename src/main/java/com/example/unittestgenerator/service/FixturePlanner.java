@@ -0,0 +1,177 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.service.ClassModel.ConstructorModel;
+import com.example.unittestgenerator.service.ClassModel.EnumModel;
+import com.example.unittestgenerator.service.ClassModel.FieldModel;
+import com.example.unittestgenerator.service.ClassModel.ParamModel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides how a test's setUp creates the class under test. It picks the
+ * constructor (the injection one, otherwise the non-private one taking the
+ * most arguments). Arguments the value registry knows become literals, and
+ * every other collaborator becomes a Mockito mock. Fields annotated for
+ * injection get mocks set reflectively. Plans are cached per
+ * fully-qualified class and reused while its constructors, fields and
+ * enums stay the same, so a batch over a codebase plans each class once.
+ */
+final class FixturePlanner {
+
+    // Keyed by class name; past this many classes the least recently planned one is dropped
+    private static final int MAX_CLASSES = 4096;
+
+    // What a class without declared constructors gets from the compiler
+    private static final ConstructorModel DEFAULT_CONSTRUCTOR =
+            new ConstructorModel(List.of(), List.of(), true, false, false);
+
+    private final Map<String, Cached> plans;
+
+    FixturePlanner() {
+        this(MAX_CLASSES);
+    }
+
+    FixturePlanner(int maxClasses) {
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) { // access order
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxClasses;
+            }
+        };
+    }
+
+    // Planning runs outside the lock; two threads planning the same class both store the same result
+    Plan planFor(ClassModel model, HeuristicValueRegistry.UnitValues values) {
+        String key = model.qualifiedName();
+        Shape shape = new Shape(model.constructors(), model.fields(), model.enums());
+        Cached cached;
+        synchronized (plans) {
+            cached = plans.get(key);
+        }
+        if (cached != null && cached.shape().equals(shape)) {
+            return cached.plan();
+        }
+        Plan plan = plan(model, values);
+        synchronized (plans) {
+            plans.put(key, new Cached(shape, plan));
+        }
+        return plan;
+    }
+
+    int size() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    private static Plan plan(ClassModel model, HeuristicValueRegistry.UnitValues values) {
+        String instanceName = TestClassRenderer.instanceName(model.className());
+        ConstructorModel constructor = choose(model);
+        if (constructor == null) {
+            return new Plan(List.of(), List.of(), null, List.of(), false);
+        }
+
+        Set<String> usedNames = new HashSet<>();
+        usedNames.add(instanceName);
+        List<Mock> mocks = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for (ParamModel param : constructor.params()) {
+            arguments.add(argumentFor(param.name(), param.type(), values, usedNames, mocks));
+        }
+
+        List<Injection> injections = new ArrayList<>();
+        for (FieldModel field : model.fields()) {
+            if (!field.injected() || field.isStatic()) {
+                continue;
+            }
+            Mock existing = mocks.stream()
+                    .filter(m -> m.name().equals(field.name()) && m.type().equals(field.type()))
+                    .findFirst().orElse(null);
+            String value = existing != null
+                    ? existing.name()
+                    : argumentFor(field.name(), field.type(), values, usedNames, mocks);
+            injections.add(new Injection(field.name(), value));
+        }
+        return new Plan(List.copyOf(mocks), List.copyOf(arguments), model.typeName(), List.copyOf(injections),
+                !constructor.thrown().isEmpty());
+    }
+
+    // A literal when the value registry has one for the type, otherwise a new mock
+    private static String argumentFor(String name, String type, HeuristicValueRegistry.UnitValues values,
+                                      Set<String> usedNames, List<Mock> mocks) {
+        ValueTable table = values.resolve(type);
+        if (table != ValueTable.NULL) {
+            return table.literal(HeuristicKind.POSITIVE);
+        }
+        String mockName = name;
+        for (int i = 2; !usedNames.add(mockName); i++) {
+            mockName = name + "Mock" + (i == 2 ? "" : i);
+        }
+        mocks.add(new Mock(mockName, type));
+        return mockName;
+    }
+
+    // Null when the class can't be instantiated from a test in its package
+    private static ConstructorModel choose(ClassModel model) {
+        if (model.constructors().isEmpty()) {
+            return DEFAULT_CONSTRUCTOR;
+        }
+        ConstructorModel best = null;
+        for (ConstructorModel constructor : model.constructors()) {
+            if (constructor.isPrivate()) {
+                continue;
+            }
+            if (constructor.injected()) {
+                return constructor;
+            }
+            if (best == null || rank(model, constructor) > rank(model, best)) {
+                best = constructor;
+            }
+        }
+        return best;
+    }
+
+    // More arguments is better, but a copy constructor needs an instance to begin with
+    private static int rank(ClassModel model, ConstructorModel constructor) {
+        for (ParamModel param : constructor.params()) {
+            if (param.type().equals(model.className()) || param.type().equals(model.typeName())) {
+                return -1;
+            }
+        }
+        return constructor.params().size();
+    }
+
+    /**
+     * What setUp does: create the mocks, construct the instance (unless
+     * {@code typeName} is null because no constructor is accessible) and set
+     * the injected fields.
+     */
+    record Plan(List<Mock> mocks, List<String> arguments, String typeName, List<Injection> injections,
+                boolean constructorThrows) {
+
+        boolean constructible() {
+            return typeName != null;
+        }
+    }
+
+    record Mock(String name, String type) {
+
+        // mock(...) takes the raw class: "Repository<User, Long>" -> "Repository"
+        String rawType() {
+            int generic = type.indexOf('<');
+            return generic >= 0 ? type.substring(0, generic) : type;
+        }
+    }
+
+    // field: the field's name in the class under test; value: a mock name or a literal
+    record Injection(String field, String value) {}
+
+    private record Shape(List<ConstructorModel> constructors, List<FieldModel> fields, List<EnumModel> enums) {}
+
+    private record Cached(Shape shape, Plan plan) {}
+}
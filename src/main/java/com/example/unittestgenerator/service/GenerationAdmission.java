@@ -0,0 +1,205 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.AdmissionStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether a generation request may run at all, before it costs a
+ * parse. Oversized input is refused with 413. At most max-concurrent
+ * requests generate at once; a few more may wait briefly for a slot, and
+ * everything beyond that gets an immediate 429, so a burst of huge pastes
+ * can't queue up behind the parser while normal requests time out. Each
+ * user additionally has a token bucket of requests per minute.
+ */
+@Component
+public class GenerationAdmission {
+
+    // Users are tracked by token subject, so idle buckets get dropped past this
+    private static final int MAX_TRACKED_USERS = 100_000;
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final long maxRequestBytes;
+    private final long maxBatchRequestBytes;
+    private final int maxSourceChars;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitMillis;
+    private final int userRequestsPerMinute;
+    private final int userBurst;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedTooLarge = new LongAdder();
+    private final LongAdder rejectedBusy = new LongAdder();
+    private final LongAdder rejectedRate = new LongAdder();
+
+    public GenerationAdmission(@Value("${generator.admission.max-request-bytes:2097152}") long maxRequestBytes,
+                               @Value("${generator.admission.max-batch-request-bytes:52428800}") long maxBatchRequestBytes,
+                               @Value("${generator.admission.max-source-chars:500000}") int maxSourceChars,
+                               @Value("${generator.admission.max-concurrent:0}") int maxConcurrent,
+                               @Value("${generator.admission.max-waiting:16}") int maxWaiting,
+                               @Value("${generator.admission.max-wait-ms:250}") long maxWaitMillis,
+                               @Value("${generator.admission.user-requests-per-minute:60}") int userRequestsPerMinute,
+                               @Value("${generator.admission.user-burst:20}") int userBurst,
+                               GeneratorMetrics metrics) {
+        this.maxRequestBytes = maxRequestBytes;
+        this.maxBatchRequestBytes = maxBatchRequestBytes;
+        this.maxSourceChars = maxSourceChars;
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : 2 * Runtime.getRuntime().availableProcessors();
+        this.maxWaiting = Math.max(0, maxWaiting);
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.userRequestsPerMinute = userRequestsPerMinute;
+        this.userBurst = Math.max(1, userBurst);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        metrics.bindAdmission(this);
+    }
+
+    // ============================================================
+    // SIZE LIMITS
+    // ============================================================
+
+    // -1 (unknown, e.g. chunked) passes; the source length check still applies after binding
+    public void checkRequestSize(long contentLength, boolean batch) {
+        long limit = batch ? maxBatchRequestBytes : maxRequestBytes;
+        if (contentLength > limit) {
+            rejectedTooLarge.increment();
+            throw new AdmissionRejectedException(413, 0, "Request body is too large (limit " + limit + " bytes).");
+        }
+    }
+
+    public void checkSource(String sourceCode) {
+        if (sourceCode != null && sourceCode.length() > maxSourceChars) {
+            rejectedTooLarge.increment();
+            throw new AdmissionRejectedException(413, 0,
+                    "Source code is too large (limit " + maxSourceChars + " characters).");
+        }
+    }
+
+    // ============================================================
+    // CONCURRENCY
+    // ============================================================
+
+    /**
+     * A generation slot, waiting at most max-wait-ms and only if fewer than
+     * max-waiting requests are already waiting. Close the permit when done.
+     */
+    public Permit acquire() {
+        if (permits.tryAcquire()) {
+            return admit();
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw busy();
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw busy();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        return admit();
+    }
+
+    // True while interactive requests are using every slot; background work backs off then
+    public boolean isSaturated() {
+        return permits.availablePermits() == 0;
+    }
+
+    private Permit admit() {
+        admitted.increment();
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+    }
+
+    private AdmissionRejectedException busy() {
+        rejectedBusy.increment();
+        return new AdmissionRejectedException(429, 1, "The generator is busy, please retry shortly.");
+    }
+
+    // Idempotent, so it can be closed from both a finally block and an async listener
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // ============================================================
+    // PER-USER RATE
+    // ============================================================
+
+    // Anonymous requests (no bearer token) are only bounded by the concurrency limit
+    public void checkRate(Long userId) {
+        if (userId == null || userRequestsPerMinute <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (buckets.size() >= MAX_TRACKED_USERS) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        long waitNanos = buckets.computeIfAbsent(userId, id -> new TokenBucket(userBurst, now)).take(now);
+        if (waitNanos > 0) {
+            rejectedRate.increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new AdmissionRejectedException(429, retryAfter,
+                    "Rate limit of " + userRequestsPerMinute + " requests per minute exceeded.");
+        }
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        // 0 when a token was taken, otherwise how long until the next one
+        synchronized long take(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * NANOS_PER_MINUTE / userRequestsPerMinute);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= userBurst;
+        }
+
+        // Callers read the clock before taking the lock, so "now" can be slightly behind
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(userBurst, tokens + (double) (now - refilledAt) * userRequestsPerMinute / NANOS_PER_MINUTE);
+                refilledAt = now;
+            }
+        }
+    }
+
+    public AdmissionStats stats() {
+        return new AdmissionStats(maxConcurrent - permits.availablePermits(), maxConcurrent, waiting.get(), maxWaiting,
+                admitted.sum(), rejectedTooLarge.sum(), rejectedBusy.sum(), rejectedRate.sum(), buckets.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.CacheStats;
+import com.example.unittestgenerator.dto.GenerateResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of finished GenerateResponses, keyed by the
+ * {@link SourceFingerprint} of the submitted source. Entries expire after a
+ * fixed TTL so tweaks to the engine reach long-lived clients eventually.
+ */
+@Component
+public class GenerationCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    public GenerationCache(@Value("${generator.cache.enabled:true}") boolean enabled,
+                           @Value("${generator.cache.max-entries:500}") int maxEntries,
+                           @Value("${generator.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.enabled = enabled && maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > GenerationCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized GenerateResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt > ttlNanos) {
+            entries.remove(key);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response;
+    }
+
+    public synchronized void put(String key, GenerateResponse response) {
+        entries.put(key, new Entry(response, System.nanoTime()));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CacheStats(enabled, size, maxEntries, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private record Entry(GenerateResponse response, long createdAt) {}
+}
@@ -0,0 +1,331 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.ClassTestResult;
+import com.example.unittestgenerator.dto.JobSummary;
+import com.example.unittestgenerator.dto.SourceFile;
+import com.example.unittestgenerator.models.ContentBlob;
+import com.example.unittestgenerator.models.GenerationJob;
+import com.example.unittestgenerator.models.GenerationJobResult;
+import com.example.unittestgenerator.models.JobStatus;
+import com.example.unittestgenerator.repository.GenerationJobRepository;
+import com.example.unittestgenerator.repository.GenerationJobResultRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Batch generation as background jobs. A submission is stored (files
+ * included) and answered with its id straight away; a small low-priority
+ * pool works through the files one at a time and commits each file's
+ * results together with the job's progress. Jobs left unfinished by a
+ * restart are picked up again at startup, from the first file without
+ * committed results. While interactive requests hold every admission slot,
+ * jobs pause between files.
+ */
+@Service
+public class GenerationJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerationJobService.class);
+
+    private static final int MAX_LISTED_JOBS = 50;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    // How long a job waits for interactive load to drop before it continues anyway
+    private static final long MAX_BACKOFF_MILLIS = 2_000;
+    private static final long BACKOFF_STEP_MILLIS = 50;
+
+    private final GenerationJobRepository jobRepository;
+    private final GenerationJobResultRepository resultRepository;
+    private final UserRepository userRepository;
+    private final BlobStore blobStore;
+    private final SavedTestWriter savedTestWriter;
+    private final GeneratorService generatorService;
+    private final GenerationAdmission admission;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor jobExecutor;
+    private final int maxFiles;
+
+    private final Map<Long, List<JobListener>> listeners = new ConcurrentHashMap<>();
+
+    public GenerationJobService(GenerationJobRepository jobRepository,
+                                GenerationJobResultRepository resultRepository,
+                                UserRepository userRepository,
+                                BlobStore blobStore,
+                                SavedTestWriter savedTestWriter,
+                                GeneratorService generatorService,
+                                GenerationAdmission admission,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Qualifier("jobExecutor") Executor jobExecutor,
+                                @Value("${generator.batch.max-files:1000}") int maxFiles) {
+        this.jobRepository = jobRepository;
+        this.resultRepository = resultRepository;
+        this.userRepository = userRepository;
+        this.blobStore = blobStore;
+        this.savedTestWriter = savedTestWriter;
+        this.generatorService = generatorService;
+        this.admission = admission;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.jobExecutor = jobExecutor;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Progress of one job: the updated summary plus the class results of the
+     * file that just finished (empty for status-only changes).
+     */
+    public interface JobListener {
+        void onProgress(JobSummary summary, List<ClassTestResult> newResults);
+    }
+
+    // ============================================================
+    // SUBMISSION AND QUERIES
+    // ============================================================
+
+    public JobSummary submit(Long userId, List<SourceFile> files, String languageLevel, String templateStyle) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No source files submitted.");
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("Too many files in one job (limit " + maxFiles + ").");
+        }
+        if (userId != null && !userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("Unknown user: " + userId);
+        }
+        // Unknown levels and styles fail here rather than in the background
+        generatorService.resolveLanguageLevel(languageLevel);
+        generatorService.resolveTemplateStyle(templateStyle);
+
+        String json = encode(files);
+        GenerationJob job = new GenerationJob();
+        job.setUser(userId == null ? null : userRepository.getReferenceById(userId));
+        // Ids are sequential, so an anonymous job is only reachable with a key nobody can guess
+        job.setAccessKey(userId == null ? UUID.randomUUID().toString() : null);
+        job.setStatus(JobStatus.QUEUED);
+        job.setLanguageLevel(languageLevel);
+        job.setTemplateStyle(templateStyle);
+        job.setInput(BlobCodec.compress(json));
+        job.setInputSize(json.getBytes(StandardCharsets.UTF_8).length);
+        job.setTotalFiles(files.size());
+        GenerationJob saved = transactionTemplate.execute(status -> jobRepository.save(job));
+
+        jobExecutor.execute(() -> run(saved.getId()));
+        return summaryOf(saved, userId);
+    }
+
+    public Optional<JobSummary> find(Long jobId) {
+        return jobRepository.findById(jobId).map(this::summaryOf);
+    }
+
+    public List<JobSummary> listForUser(Long userId) {
+        return jobRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, MAX_LISTED_JOBS)).stream()
+                .map(this::summaryOf)
+                .toList();
+    }
+
+    public List<ClassTestResult> results(Long jobId) {
+        List<ClassTestResult> results = new ArrayList<>();
+        for (GenerationJobResult row : resultRepository.findByJobIdOrderByFileIndexAscIdAsc(jobId)) {
+            results.add(row.getError() != null
+                    ? ClassTestResult.failed(row.getFileName(), row.getClassName(), row.getError())
+                    : new ClassTestResult(row.getFileName(), row.getClassName(), blobStore.read(row.getTestBlob()),
+                            List.of(), null));
+        }
+        return results;
+    }
+
+    // Returns the unsubscribe action; listeners run on the job's worker thread
+    public Runnable subscribe(Long jobId, JobListener listener) {
+        listeners.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> listeners.computeIfPresent(jobId, (id, list) -> {
+            list.remove(listener);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    // ============================================================
+    // EXECUTION
+    // ============================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (GenerationJob job : jobRepository.findByStatusInOrderByIdAsc(List.of(JobStatus.QUEUED, JobStatus.RUNNING))) {
+            log.info("Resuming generation job {} at file {} of {}", job.getId(), job.getCompletedFiles(), job.getTotalFiles());
+            Long jobId = job.getId();
+            jobExecutor.execute(() -> run(jobId));
+        }
+    }
+
+    void run(Long jobId) {
+        GenerationJob job = transactionTemplate.execute(status -> {
+            GenerationJob current = jobRepository.findById(jobId).orElse(null);
+            if (current == null || current.getStatus().isFinished()) {
+                return null;
+            }
+            current.setStatus(JobStatus.RUNNING);
+            if (current.getStartedAt() == null) {
+                current.setStartedAt(LocalDateTime.now());
+            }
+            return jobRepository.save(current);
+        });
+        if (job == null) {
+            return;
+        }
+        Long userId = job.getUser() == null ? null : job.getUser().getId();
+        publish(summaryOf(job, userId), List.of());
+
+        try {
+            List<SourceFile> files = decode(job);
+            GenerationOptions options = GenerationOptions.defaults()
+                    .withLanguageLevel(generatorService.resolveLanguageLevel(job.getLanguageLevel()))
+                    .withTemplateStyle(generatorService.resolveTemplateStyle(job.getTemplateStyle()));
+            for (int i = job.getCompletedFiles(); i < files.size(); i++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return; // shutting down: stays RUNNING and resumes at the next start
+                }
+                yieldToInteractiveLoad();
+                SourceFile file = files.get(i);
+                List<ClassTestResult> classResults =
+                        generatorService.generateAllClasses(file.getFileName(), file.getSourceCode(), options);
+                job = commitFile(jobId, userId, i, file, classResults);
+                publish(summaryOf(job, userId), classResults);
+            }
+            job = finish(jobId, JobStatus.SUCCEEDED, null);
+        } catch (RuntimeException e) {
+            log.warn("Generation job {} failed", jobId, e);
+            job = finish(jobId, JobStatus.FAILED, e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+        publish(summaryOf(job, userId), List.of());
+        listeners.remove(jobId);
+    }
+
+    // One transaction per file: its results, the user's history rows and the job's progress
+    private GenerationJob commitFile(Long jobId, Long userId, int fileIndex, SourceFile file,
+                                     List<ClassTestResult> classResults) {
+        return transactionTemplate.execute(status -> {
+            GenerationJob job = jobRepository.findById(jobId).orElseThrow();
+            List<String> bodies = new ArrayList<>(classResults.size());
+            for (ClassTestResult result : classResults) {
+                bodies.add(result.getMainTestFileContent());
+            }
+            Map<String, ContentBlob> blobs = blobStore.storeAll(bodies);
+
+            List<GenerationJobResult> rows = new ArrayList<>(classResults.size());
+            List<PendingSave> history = new ArrayList<>();
+            for (ClassTestResult result : classResults) {
+                GenerationJobResult row = new GenerationJobResult();
+                row.setJob(job);
+                row.setFileIndex(fileIndex);
+                row.setFileName(result.getFileName());
+                row.setClassName(result.getClassName());
+                if (result.isSuccess()) {
+                    row.setTestBlob(blobs.get(BlobStore.hashOf(result.getMainTestFileContent())));
+                    job.setSucceededClasses(job.getSucceededClasses() + 1);
+                    if (userId != null) {
+                        history.add(new PendingSave(userId, result.getClassName(), file.getSourceCode(),
+                                result.getMainTestFileContent(), result.getClassModel()));
+                    }
+                } else {
+                    row.setError(truncate(result.getError()));
+                    job.setFailedClasses(job.getFailedClasses() + 1);
+                }
+                rows.add(row);
+            }
+            resultRepository.saveAll(rows);
+            savedTestWriter.persistNow(history); // joins this transaction; indexed once it commits
+            job.setCompletedFiles(fileIndex + 1);
+            return jobRepository.save(job);
+        });
+    }
+
+    private GenerationJob finish(Long jobId, JobStatus outcome, String error) {
+        return transactionTemplate.execute(status -> {
+            GenerationJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setStatus(outcome);
+            job.setError(truncate(error));
+            job.setFinishedAt(LocalDateTime.now());
+            return jobRepository.save(job);
+        });
+    }
+
+    private void yieldToInteractiveLoad() {
+        try {
+            for (long waited = 0; waited < MAX_BACKOFF_MILLIS && admission.isSaturated(); waited += BACKOFF_STEP_MILLIS) {
+                Thread.sleep(BACKOFF_STEP_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(JobSummary summary, List<ClassTestResult> newResults) {
+        for (JobListener listener : listeners.getOrDefault(summary.getId(), List.of())) {
+            try {
+                listener.onProgress(summary, newResults);
+            } catch (RuntimeException e) {
+                log.debug("Job listener failed, dropping it: {}", e.getMessage());
+                listeners.getOrDefault(summary.getId(), List.of()).remove(listener);
+            }
+        }
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private String encode(List<SourceFile> files) {
+        try {
+            return objectMapper.writeValueAsString(files);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not store the submitted files: " + e.getOriginalMessage());
+        }
+    }
+
+    private List<SourceFile> decode(GenerationJob job) {
+        String json = BlobCodec.decompress(BlobCodec.DEFLATE, job.getInput(), job.getInputSize());
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<SourceFile>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored job input is unreadable: " + e.getOriginalMessage());
+        }
+    }
+
+    private JobSummary summaryOf(GenerationJob job) {
+        // The id of a lazy reference is known without loading the user
+        return summaryOf(job, job.getUser() == null ? null : job.getUser().getId());
+    }
+
+    private static JobSummary summaryOf(GenerationJob job, Long userId) {
+        JobSummary summary = new JobSummary(job.getId(), userId, job.getStatus(), job.getTotalFiles(),
+                job.getCompletedFiles(), job.getSucceededClasses(), job.getFailedClasses(), job.getError(),
+                job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt());
+        summary.setAccessKey(job.getAccessKey());
+        return summary;
+    }
+
+    private static String truncate(String text) {
+        return text == null || text.length() <= MAX_ERROR_LENGTH ? text : text.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+
+/**
+ * Per-request knobs that change what the engine produces. Anything that can
+ * change the output must be part of {@link #cacheKey()}, except the project
+ * symbols: output then depends on the project's other sources, so those
+ * requests skip the result cache.
+ */
+public final class GenerationOptions {
+
+    private final LanguageLevel languageLevel;
+    private final String templateStyle;
+    private final ProjectSymbols symbols;
+    private final Boolean compileCheck;
+
+    private GenerationOptions(LanguageLevel languageLevel, String templateStyle, ProjectSymbols symbols,
+                              Boolean compileCheck) {
+        this.languageLevel = languageLevel;
+        this.templateStyle = templateStyle;
+        this.symbols = symbols;
+        this.compileCheck = compileCheck;
+    }
+
+    // null fields fall back to the server defaults
+    public static GenerationOptions defaults() {
+        return new GenerationOptions(null, null, null, null);
+    }
+
+    public GenerationOptions withLanguageLevel(LanguageLevel languageLevel) {
+        return new GenerationOptions(languageLevel, templateStyle, symbols, compileCheck);
+    }
+
+    // e.g. "junit5", "junit4", "testng", "assertj" or a style from generator.templates.dir
+    public GenerationOptions withTemplateStyle(String templateStyle) {
+        return new GenerationOptions(languageLevel, templateStyle == null || templateStyle.isBlank() ? null : templateStyle,
+                symbols, compileCheck);
+    }
+
+    // Symbol resolution against a project's sources and jars; null turns it off
+    public GenerationOptions withSymbols(ProjectSymbols symbols) {
+        return new GenerationOptions(languageLevel, templateStyle, symbols, compileCheck);
+    }
+
+    // false skips compiling the generated test (see CompileCheck); null means the server default
+    public GenerationOptions withCompileCheck(Boolean compileCheck) {
+        return new GenerationOptions(languageLevel, templateStyle, symbols, compileCheck);
+    }
+
+    public LanguageLevel getLanguageLevel() {
+        return languageLevel;
+    }
+
+    public String getTemplateStyle() {
+        return templateStyle;
+    }
+
+    public ProjectSymbols getSymbols() {
+        return symbols;
+    }
+
+    public Boolean getCompileCheck() {
+        return compileCheck;
+    }
+
+    String cacheKey() {
+        return languageLevel + "|" + templateStyle + "|" + compileCheck;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.CompileReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters for each phase of a generation request. Timers share the name
+ * generator.phase and differ by the "phase" tag, so one dashboard query
+ * shows where the time goes: parse, analyze, resolve, generate, suggestions, compile or persist.
+ */
+@Component
+public class GeneratorMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer parseTimer;
+    private final Timer analyzeTimer;
+    private final Timer resolveTimer;
+    private final Timer generateTimer;
+    private final Timer suggestionsTimer;
+    private final Timer compileTimer;
+    private final Timer persistSyncTimer;
+    private final Timer persistAsyncTimer;
+    private final Timer searchTimer;
+    private final Counter parseFailures;
+    private final Counter methodsProcessed;
+    private final DistributionSummary inputSize;
+    private final DistributionSummary outputSize;
+
+    public GeneratorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.parseTimer = phaseTimer("parse", "sync");
+        this.analyzeTimer = phaseTimer("analyze", "sync");
+        this.resolveTimer = phaseTimer("resolve", "sync");
+        this.generateTimer = phaseTimer("generate", "sync");
+        this.suggestionsTimer = phaseTimer("suggestions", "sync");
+        this.compileTimer = phaseTimer("compile", "sync");
+        this.persistSyncTimer = phaseTimer("persist", "sync");
+        this.persistAsyncTimer = phaseTimer("persist", "async");
+        this.searchTimer = Timer.builder("generator.history.search")
+                .description("Time spent answering one history search, once the user's index is loaded")
+                .register(registry);
+        this.parseFailures = Counter.builder("generator.parse.failures")
+                .description("Sources that could not be parsed")
+                .register(registry);
+        this.methodsProcessed = Counter.builder("generator.methods.processed")
+                .description("Public methods that tests were generated for")
+                .register(registry);
+        this.inputSize = DistributionSummary.builder("generator.input.size")
+                .description("Submitted source length")
+                .baseUnit("chars")
+                .register(registry);
+        this.outputSize = DistributionSummary.builder("generator.output.size")
+                .description("Generated test class length")
+                .baseUnit("chars")
+                .register(registry);
+    }
+
+    // For benchmarks, tests and the CLI where nothing scrapes the meters
+    public static GeneratorMetrics noop() {
+        return new GeneratorMetrics(new SimpleMeterRegistry());
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    public <T> T timeParse(Supplier<T> parse) {
+        try {
+            return parseTimer.record(parse);
+        } catch (RuntimeException e) {
+            parseFailures.increment();
+            throw e;
+        }
+    }
+
+    public <T> T timeAnalyze(Supplier<T> work) {
+        return analyzeTimer.record(work);
+    }
+
+    public <T> T timeResolve(Supplier<T> work) {
+        return resolveTimer.record(work);
+    }
+
+    public <T> T timeGenerate(Supplier<T> work) {
+        return generateTimer.record(work);
+    }
+
+    public <T> T timeSuggestions(Supplier<T> work) {
+        return suggestionsTimer.record(work);
+    }
+
+    public <T> T timeCompile(Supplier<T> work) {
+        return compileTimer.record(work);
+    }
+
+    public void recordCompile(CompileReport.Status status) {
+        Counter.builder("generator.compile.checks")
+                .description("Generated tests compiled against their source, by outcome")
+                .tag("result", status.name().toLowerCase())
+                .register(registry)
+                .increment();
+    }
+
+    public void timePersist(boolean async, Runnable work) {
+        (async ? persistAsyncTimer : persistSyncTimer).record(work);
+    }
+
+    public <T> T timeSearch(Supplier<T> work) {
+        return searchTimer.record(work);
+    }
+
+    public void recordInput(String sourceCode) {
+        if (sourceCode != null) inputSize.record(sourceCode.length());
+    }
+
+    public void recordOutput(CharSequence testCode) {
+        if (testCode != null) outputSize.record(testCode.length());
+    }
+
+    public void recordMethods(int count) {
+        methodsProcessed.increment(count);
+    }
+
+    void bindCache(GenerationCache cache) {
+        FunctionCounter.builder("generator.cache.hits", cache, c -> c.stats().getHits()).register(registry);
+        FunctionCounter.builder("generator.cache.misses", cache, c -> c.stats().getMisses()).register(registry);
+        FunctionCounter.builder("generator.cache.evictions", cache, c -> c.stats().getEvictions()).register(registry);
+        Gauge.builder("generator.cache.size", cache, c -> c.stats().getSize()).register(registry);
+    }
+
+    void bindAdmission(GenerationAdmission admission) {
+        FunctionCounter.builder("generator.admission.admitted", admission, a -> a.stats().getAdmitted()).register(registry);
+        FunctionCounter.builder("generator.admission.rejected", admission, a -> a.stats().getRejectedTooLarge())
+                .tag("reason", "too-large").register(registry);
+        FunctionCounter.builder("generator.admission.rejected", admission, a -> a.stats().getRejectedBusy())
+                .tag("reason", "busy").register(registry);
+        FunctionCounter.builder("generator.admission.rejected", admission, a -> a.stats().getRejectedRate())
+                .tag("reason", "rate").register(registry);
+        Gauge.builder("generator.admission.active", admission, a -> a.stats().getActive()).register(registry);
+        Gauge.builder("generator.admission.waiting", admission, a -> a.stats().getWaiting()).register(registry);
+    }
+
+    void bindSymbolCache(SymbolSolverCache cache) {
+        FunctionCounter.builder("generator.symbols.project.hits", cache, c -> c.stats().getHits()).register(registry);
+        FunctionCounter.builder("generator.symbols.project.misses", cache, c -> c.stats().getMisses()).register(registry);
+        FunctionCounter.builder("generator.symbols.project.evictions", cache, c -> c.stats().getEvictions()).register(registry);
+        FunctionCounter.builder("generator.symbols.resolution.hits", cache, c -> c.stats().getResolutionHits()).register(registry);
+        FunctionCounter.builder("generator.symbols.resolution.misses", cache, c -> c.stats().getResolutionMisses()).register(registry);
+        FunctionCounter.builder("generator.symbols.type.lookup.hits", cache, c -> c.stats().getTypeLookupHits()).register(registry);
+        FunctionCounter.builder("generator.symbols.type.lookup.misses", cache, c -> c.stats().getTypeLookupMisses()).register(registry);
+        Gauge.builder("generator.symbols.projects", cache, c -> c.stats().getProjects()).register(registry);
+        Gauge.builder("generator.symbols.estimated.bytes", cache, c -> c.stats().getEstimatedBytes())
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    void bindSearchIndex(HistorySearchIndex index) {
+        Gauge.builder("generator.search.users", index, HistorySearchIndex::loadedUsers).register(registry);
+        Gauge.builder("generator.search.estimated.bytes", index, HistorySearchIndex::estimatedBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private Timer phaseTimer(String phase, String mode) {
+        return Timer.builder("generator.phase")
+                .description("Time spent in one phase of test generation")
+                .tag("phase", phase)
+                .tag("mode", mode)
+                .register(registry);
+    }
+}
@@ -1,216 +1,335 @@
 package com.example.unittestgenerator.service;
 
 import com.example.unittestgenerator.dto.*;
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 public class GeneratorService {
 
+    // Error of a file that only declares interfaces, enums or records: nothing to test, but not a failure
+    public static final String NO_CLASS_FOUND = "No class found in source code.";
+
+    private final GenerationCache generationCache;
+    private final ParserPool parserPool;
+    private final GeneratorMetrics metrics;
+    private final HeuristicValueRegistry heuristicValues;
+    private final TemplateRegistry templates;
+    private final ParallelRendering parallelRendering;
+    private final CompileCheck compileCheck;
+    private final SuggestionEngine suggestionEngine;
+    private final FixturePlanner fixtures = new FixturePlanner();
+
+    public GeneratorService(GenerationCache generationCache, ParserPool parserPool, GeneratorMetrics metrics,
+                            HeuristicValueRegistry heuristicValues, TemplateRegistry templates,
+                            ParallelRendering parallelRendering, CompileCheck compileCheck) {
+        this.generationCache = generationCache;
+        this.parserPool = parserPool;
+        this.metrics = metrics;
+        this.heuristicValues = heuristicValues;
+        this.templates = templates;
+        this.parallelRendering = parallelRendering;
+        this.compileCheck = compileCheck;
+        this.suggestionEngine = new SuggestionEngine(heuristicValues);
+        metrics.bindCache(generationCache);
+    }
+
+    // For the CLI, tests and benchmarks: a service wired without Spring, see Standalone
+    public static Standalone standalone() {
+        return new Standalone(new GenerationCache(false, 0, 0), null, TemplateRegistry.defaults(),
+                ParallelRendering.sequential(), CompileCheck.disabled());
+    }
+
+    /**
+     * The parts of a service built outside Spring. Defaults: no result cache, a
+     * JAVA_17 parser pool of 4, built-in heuristics and templates, sequential
+     * rendering, no compile check and no metrics.
+     */
+    public static final class Standalone {
+
+        private final GenerationCache cache;
+        private final ParserPool parserPool;
+        private final TemplateRegistry templates;
+        private final ParallelRendering rendering;
+        private final CompileCheck compileCheck;
+
+        private Standalone(GenerationCache cache, ParserPool parserPool, TemplateRegistry templates,
+                           ParallelRendering rendering, CompileCheck compileCheck) {
+            this.cache = cache;
+            this.parserPool = parserPool;
+            this.templates = templates;
+            this.rendering = rendering;
+            this.compileCheck = compileCheck;
+        }
+
+        public Standalone withCache(GenerationCache cache) {
+            return new Standalone(cache, parserPool, templates, rendering, compileCheck);
+        }
+
+        // Share a pool with code that parses outside the service (benchmarks, the CLI)
+        public Standalone withParserPool(ParserPool parserPool) {
+            return new Standalone(cache, parserPool, templates, rendering, compileCheck);
+        }
+
+        public Standalone withTemplates(TemplateRegistry templates) {
+            return new Standalone(cache, parserPool, templates, rendering, compileCheck);
+        }
+
+        public Standalone withRendering(ParallelRendering rendering) {
+            return new Standalone(cache, parserPool, templates, rendering, compileCheck);
+        }
+
+        public Standalone withCompileCheck(CompileCheck compileCheck) {
+            return new Standalone(cache, parserPool, templates, rendering, compileCheck);
+        }
+
+        public GeneratorService create() {
+            return new GeneratorService(cache, parserPool != null ? parserPool : new ParserPool("JAVA_17", 4),
+                    GeneratorMetrics.noop(), HeuristicValueRegistry.defaults(), templates, rendering, compileCheck);
+        }
+    }
+
     public GenerateResponse generate(String sourceCode) {
-        try {
-            CompilationUnit cu = StaticJavaParser.parse(sourceCode);
+        return generate(sourceCode, true, GenerationOptions.defaults());
+    }
 
-            ClassOrInterfaceDeclaration classDeclaration =
-                    cu.findFirst(ClassOrInterfaceDeclaration.class)
-                            .orElseThrow(() -> new IllegalArgumentException("No class found in source code."));
+    public GenerateResponse generate(String sourceCode, boolean useCache) {
+        return generate(sourceCode, useCache, GenerationOptions.defaults());
+    }
 
-            String className = classDeclaration.getNameAsString();
+    // Repeat submissions of the same (reformatted) source skip parsing entirely
+    public GenerateResponse generate(String sourceCode, boolean useCache, GenerationOptions options) {
+        metrics.recordInput(sourceCode);
+        // With symbols the output also depends on the project's other sources
+        if (!useCache || !generationCache.isEnabled() || options.getSymbols() != null) {
+            return generateUncached(sourceCode, options);
+        }
+        String key = SourceFingerprint.of(sourceCode) + "|" + options.cacheKey();
+        GenerateResponse cached = generationCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        GenerateResponse response = generateUncached(sourceCode, options);
+        generationCache.put(key, response);
+        return response;
+    }
 
-            List<MethodDeclaration> methodsToTest = classDeclaration.getMethods().stream()
-                            .filter(m -> m.isPublic() && !m.isConstructorDeclaration())
-                            .collect(Collectors.toList());
+    public LanguageLevel resolveLanguageLevel(String requested) {
+        return parserPool.resolve(requested);
+    }
 
-            // THE NEW HEURISTIC ENGINE
-            String mainTestFileContent = generateSmartTestFile(className, methodsToTest);
-            List<Suggestion> suggestions = generateSuggestions(className, methodsToTest);
+    // Fails fast on unknown styles, before any parsing happens
+    public String resolveTemplateStyle(String requested) {
+        return templates.resolve(requested).getStyle();
+    }
 
-            return new GenerateResponse(mainTestFileContent, suggestions);
+    // Changes whenever a template the style renders with changes, see TemplateSet.getFingerprint()
+    public String templateFingerprint(String style) {
+        return templates.resolve(style).getFingerprint();
+    }
+
+    public CacheStats getCacheStats() {
+        return generationCache.stats();
+    }
+
+    // Regenerating from a stored model (e.g. a history entry with another style) never parses
+    public GenerateResponse generate(ClassModel model, GenerationOptions options) {
+        String mainTestFileContent = metrics.timeGenerate(() -> generateSmartTestFile(model, options));
+        List<Suggestion> suggestions = suggest(model);
+        metrics.recordMethods(model.methods().size());
+        metrics.recordOutput(mainTestFileContent);
+
+        GenerateResponse response = new GenerateResponse(mainTestFileContent, suggestions);
+        response.setClassName(model.typeName());
+        response.setClassModel(model);
+        return response;
+    }
+
+    public List<Suggestion> suggest(ClassModel model) {
+        return metrics.timeSuggestions(() -> suggestionEngine.suggest(model));
+    }
+
+    public ClassModel analyze(String sourceCode, GenerationOptions options) {
+        return analyzeFirstClass(sourceCode, options);
+    }
+
+    // A history entry's stored model; rows saved before models were (or with an older
+    // encoding) are analyzed from their source instead
+    public ClassModel modelOf(byte[] stored, Supplier<String> sourceCode, GenerationOptions options) {
+        if (stored != null) {
+            try {
+                return ClassModelCodec.decode(stored);
+            } catch (IllegalStateException e) {
+                // fall through to the source
+            }
+        }
+        return analyzeFirstClass(sourceCode.get(), options);
+    }
+
+    // Compile diagnostics are cached with the rest of the response
+    private GenerateResponse generateUncached(String sourceCode, GenerationOptions options) {
+        GenerateResponse response = generate(analyzeFirstClass(sourceCode, options), options);
+        if (compileCheck.appliesTo(options)) {
+            response.setCompileCheck(compileCheck.check(sourceCode, response.getMainTestFileContent()));
+        }
+        return response;
+    }
+
+    // The class a single-class request is about: the first one in the file
+    ClassModel analyzeFirstClass(String sourceCode, GenerationOptions options) {
+        ClassOrInterfaceDeclaration classDeclaration;
+        try {
+            CompilationUnit cu = unitOf(sourceCode, options);
+
+            classDeclaration = cu.findFirst(ClassOrInterfaceDeclaration.class)
+                            .orElseThrow(() -> new IllegalArgumentException(NO_CLASS_FOUND));
 
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid Java syntax. Could not parse the source code.");
         }
+        ClassModel model = metrics.timeAnalyze(() -> ClassAnalyzer.analyze(classDeclaration, classDeclaration.getNameAsString()));
+        return resolved(model, classDeclaration, options);
     }
 
-    // ============================================================
-    // THE NEW HEURISTIC ENGINE (SMART GENERATION)
-    // ============================================================
+    // Batch mode: one test class for every top-level and nested class in the file.
+    // Failures are reported per class instead of aborting the whole file.
+    public List<ClassTestResult> generateAllClasses(String fileName, String sourceCode) {
+        return generateAllClasses(fileName, sourceCode, GenerationOptions.defaults());
+    }
+
+    public List<ClassTestResult> generateAllClasses(String fileName, String sourceCode, GenerationOptions options) {
+        metrics.recordInput(sourceCode);
+        CompilationUnit cu;
+        try {
+            cu = unitOf(sourceCode, options);
+        } catch (Exception e) {
+            return List.of(ClassTestResult.failed(fileName, null, "Invalid Java syntax. Could not parse the source code."));
+        }
 
-    private String generateSmartTestFile(String className, List<MethodDeclaration> methods) {
-        StringBuilder testClass = new StringBuilder();
-        String testClassName = className + "Test";
-        String instanceName = className.substring(0, 1).toLowerCase() + className.substring(1);
-
-        // Advanced Professional Imports
-        testClass.append("import org.junit.jupiter.api.BeforeEach;\n");
-        testClass.append("import org.junit.jupiter.api.Test;\n");
-        testClass.append("import org.junit.jupiter.params.ParameterizedTest;\n");
-        testClass.append("import org.junit.jupiter.params.provider.CsvSource;\n");
-        testClass.append("import static org.junit.jupiter.api.Assertions.*;\n\n");
-        
-        testClass.append(String.format("class %s {\n\n", testClassName));
-        
-        // Generate a @BeforeEach setup block
-        testClass.append(String.format("    private %s %s;\n\n", className, instanceName));
-        testClass.append("    @BeforeEach\n    void setUp() {\n");
-        testClass.append(String.format("        %s = new %s();\n    }\n\n", instanceName, className));
-
-        // Loop through methods and apply heuristics
-        for (MethodDeclaration method : methods) {
-            generateHappyPath(testClass, instanceName, method);
-            
-            if (method.getParameters().size() > 0) {
-                if (canUseParameterizedTest(method)) {
-                    generateParameterizedBoundaryTests(testClass, instanceName, method);
-                } else {
-                    generateNullEdgeCaseTests(testClass, instanceName, method);
-                }
+        List<ClassModel.EnumModel> enums = ClassAnalyzer.enumsOf(cu);
+        List<ClassTestResult> results = new ArrayList<>();
+        for (ClassOrInterfaceDeclaration classDeclaration : cu.findAll(ClassOrInterfaceDeclaration.class)) {
+            if (classDeclaration.isInterface() || classDeclaration.isLocalClassDeclaration()) {
+                continue;
+            }
+            String typeName = nestedTypeName(cu, classDeclaration);
+            try {
+                ClassModel model = resolved(metrics.timeAnalyze(() -> ClassAnalyzer.analyze(classDeclaration, typeName, enums)),
+                        classDeclaration, options);
+                GenerateResponse response = generate(model, options);
+                ClassTestResult result = new ClassTestResult(fileName, typeName,
+                        response.getMainTestFileContent(), response.getSuggestions(), null);
+                result.setClassModel(model);
+                results.add(result);
+            } catch (Exception e) {
+                results.add(ClassTestResult.failed(fileName, typeName, e.getMessage()));
             }
         }
 
-        testClass.append("}\n");
-        return testClass.toString();
+        if (results.isEmpty()) {
+            return List.of(ClassTestResult.failed(fileName, null, NO_CLASS_FOUND));
+        }
+        return results;
     }
 
-    // --- Heuristic 1: The Happy Path ---
-    private void generateHappyPath(StringBuilder testClass, String instanceName, MethodDeclaration method) {
-        String methodName = method.getNameAsString();
-        String testMethodName = "test" + capitalize(methodName) + "_HappyPath";
-        
-        testClass.append("    @Test\n");
-        testClass.append(String.format("    void %s() {\n", testMethodName));
-        
-        String args = method.getParameters().stream()
-                .map(p -> getHeuristicValue(p.getTypeAsString(), "POSITIVE"))
-                .collect(Collectors.joining(", "));
-
-        String methodCall = String.format("%s.%s(%s)", instanceName, methodName, args);
-        appendAssertion(testClass, method.getTypeAsString(), methodCall);
-        
-        testClass.append("    }\n\n");
-    }
-
-    // --- Heuristic 2: Parameterized Boundary Testing (For Math/Logic) ---
-    private void generateParameterizedBoundaryTests(StringBuilder testClass, String instanceName, MethodDeclaration method) {
-        String methodName = method.getNameAsString();
-        
-        testClass.append("    @ParameterizedTest(name = \"Testing boundaries with inputs: {arguments}\")\n");
-        testClass.append("    @CsvSource({\n");
-        
-        // Generate 4 heuristic boundary rows (Positive, Negative, Zero, Max)
-        testClass.append(String.format("        \"%s\", // Positive values\n", buildCsvRow(method, "POSITIVE")));
-        testClass.append(String.format("        \"%s\", // Negative values\n", buildCsvRow(method, "NEGATIVE")));
-        testClass.append(String.format("        \"%s\", // Zero/Empty values\n", buildCsvRow(method, "ZERO")));
-        testClass.append(String.format("        \"%s\"  // Extreme boundary values\n", buildCsvRow(method, "MAX")));
-        testClass.append("    })\n");
-        
-        // Build the method signature matching the parameters
-        String paramSignature = method.getParameters().stream()
-                .map(p -> p.getTypeAsString() + " " + p.getNameAsString())
-                .collect(Collectors.joining(", "));
-                
-        testClass.append(String.format("    void test%s_Boundaries(%s) {\n", capitalize(methodName), paramSignature));
-        
-        String args = method.getParameters().stream()
-                .map(p -> p.getNameAsString())
-                .collect(Collectors.joining(", "));
-                
-        String methodCall = String.format("%s.%s(%s)", instanceName, methodName, args);
-        
-        testClass.append("        // TODO: Update expected assertion based on your business logic\n");
-        appendAssertion(testClass, method.getTypeAsString(), methodCall);
-        
-        testClass.append("    }\n\n");
-    }
-
-    // --- Heuristic 3: Object/Null Edge Cases ---
-    private void generateNullEdgeCaseTests(StringBuilder testClass, String instanceName, MethodDeclaration method) {
-        String methodName = method.getNameAsString();
-        
-        testClass.append("    @Test\n");
-        testClass.append(String.format("    void test%s_NullInputs_ShouldThrowException() {\n", capitalize(methodName)));
-        
-        String args = method.getParameters().stream()
-                .map(p -> p.getType().isPrimitiveType() ? getHeuristicValue(p.getTypeAsString(), "ZERO") : "null")
-                .collect(Collectors.joining(", "));
-
-        testClass.append("        assertThrows(IllegalArgumentException.class, () -> {\n");
-        testClass.append(String.format("            %s.%s(%s);\n", instanceName, methodName, args));
-        testClass.append("        }, \"Expected method to throw exception on null inputs\");\n");
-        testClass.append("    }\n\n");
+    CompilationUnit parse(String sourceCode, GenerationOptions options) {
+        LanguageLevel level = levelOf(options);
+        return metrics.timeParse(() -> parserPool.parse(sourceCode, level));
     }
 
-    // ============================================================
-    // THE HEURISTIC DICTIONARY (THE "BRAIN")
-    // ============================================================
+    // In symbol mode the project hands out (and keeps) the unit, so its types resolve for later requests
+    CompilationUnit unitOf(String sourceCode, GenerationOptions options) {
+        ProjectSymbols symbols = options.getSymbols();
+        return symbols == null ? parse(sourceCode, options) : symbols.unitOf(sourceCode, s -> parse(s, options));
+    }
 
-    private String buildCsvRow(MethodDeclaration method, String heuristicType) {
-        return method.getParameters().stream()
-                .map(p -> getHeuristicValue(p.getTypeAsString(), heuristicType).replace("\"", "")) // remove quotes for CSV
-                .collect(Collectors.joining(", "));
-    }
-
-    private String getHeuristicValue(String type, String heuristicType) {
-        return switch (type) {
-            case "int", "long", "short" -> switch (heuristicType) {
-                case "POSITIVE" -> "5";
-                case "NEGATIVE" -> "-5";
-                case "ZERO" -> "0";
-                case "MAX" -> "2147483647";
-                default -> "0";
-            };
-            case "double", "float" -> switch (heuristicType) {
-                case "POSITIVE" -> "5.5";
-                case "NEGATIVE" -> "-5.5";
-                case "ZERO" -> "0.0";
-                case "MAX" -> "99999.99";
-                default -> "0.0";
-            };
-            case "boolean" -> heuristicType.equals("ZERO") ? "false" : "true";
-            case "String" -> switch (heuristicType) {
-                case "POSITIVE" -> "\"valid_string\"";
-                case "NEGATIVE" -> "\"!@#$%^&*()\"";
-                case "ZERO" -> "\"\"";
-                case "MAX" -> "\"a_very_long_string_exceeding_standard_limits\"";
-                default -> "\"\"";
-            };
-            default -> "null";
-        };
+    private ClassModel resolved(ClassModel model, ClassOrInterfaceDeclaration declaration, GenerationOptions options) {
+        ProjectSymbols symbols = options.getSymbols();
+        return symbols == null ? model : metrics.timeResolve(() -> symbols.resolve(model, declaration));
+    }
+
+    // Slower: keeps tokens so nodes carry source ranges (incremental splicing needs them)
+    CompilationUnit parseWithRanges(String sourceCode, GenerationOptions options) {
+        LanguageLevel level = levelOf(options);
+        return metrics.timeParse(() -> parserPool.parseWithRanges(sourceCode, level));
     }
 
-    private boolean canUseParameterizedTest(MethodDeclaration method) {
-        // CsvSource works best with primitives and Strings.
-        return method.getParameters().stream().allMatch(p -> 
-            p.getType().isPrimitiveType() || p.getTypeAsString().equals("String")
-        );
+    private LanguageLevel levelOf(GenerationOptions options) {
+        return options.getLanguageLevel() != null ? options.getLanguageLevel() : parserPool.getDefaultLevel();
     }
 
-    private void appendAssertion(StringBuilder testClass, String returnType, String methodCall) {
-        switch (returnType) {
-            case "void" -> testClass.append(String.format("        %s;\n", methodCall));
-            case "boolean" -> testClass.append(String.format("        assertNotNull(%s);\n", methodCall));
-            default -> testClass.append(String.format("        assertNotNull(%s, \"Result should not be null\");\n", methodCall));
+    // "Outer.Inner" for nested classes, so the fixture can reference them from the same package
+    private String nestedTypeName(CompilationUnit cu, ClassOrInterfaceDeclaration classDeclaration) {
+        String fullName = classDeclaration.getFullyQualifiedName().orElse(classDeclaration.getNameAsString());
+        return cu.getPackageDeclaration()
+                .map(pkg -> fullName.substring(pkg.getNameAsString().length() + 1))
+                .orElse(fullName);
+    }
+
+    // ============================================================
+    // THE NEW HEURISTIC ENGINE (SMART GENERATION)
+    // ============================================================
+
+    // Package-private so the JMH benchmarks can time it in isolation
+    String generateSmartTestFile(ClassModel model, GenerationOptions options) {
+        StringBuilder testClass = new StringBuilder(1024 + model.methods().size() * 512);
+        TestClassRenderer renderer = renderer(model, options);
+
+        renderer.appendHeader(testClass);
+        if (parallelRendering.appliesTo(model.methods().size())) {
+            parallelRendering.appendMethodTests(testClass, model.methods(), () -> renderer(model, options));
+        } else {
+            for (ClassModel.MethodModel method : model.methods()) {
+                renderer.appendMethodTests(testClass, method);
+            }
         }
+        renderer.appendFooter(testClass);
+        return testClass.toString();
     }
 
-    private String capitalize(String str) {
-        if (str == null || str.isEmpty()) return str;
-        return str.substring(0, 1).toUpperCase() + str.substring(1);
+    TestClassRenderer renderer(ClassModel model, GenerationOptions options) {
+        HeuristicValueRegistry.UnitValues values = heuristicValues.forModel(model);
+        return new TestClassRenderer(templates.resolve(options.getTemplateStyle()), values, model,
+                fixtures.planFor(model, values));
     }
 
     // ============================================================
-    // SUGGESTIONS LOGIC (Kept intact to feed your UI Accordion)
+    // STREAMING MODE
     // ============================================================
-    private List<Suggestion> generateSuggestions(String className, List<MethodDeclaration> methods) {
-        List<Suggestion> suggestions = new ArrayList<>();
-        // ... (Keep your exact existing generateSuggestions logic here to feed the frontend UI) ...
-        return suggestions;
+
+    /**
+     * Parses up front (so syntax errors surface before any bytes are sent) and
+     * returns a stream that emits the header, one chunk per source method and
+     * the footer. Only one method's worth of output is buffered at a time.
+     */
+    public TestStream prepareStream(String sourceCode, GenerationOptions options) {
+        metrics.recordInput(sourceCode);
+        ClassModel model = analyzeFirstClass(sourceCode, options);
+        String className = model.className();
+        TestClassRenderer renderer = renderer(model, options);
+
+        return sink -> {
+            StringBuilder chunk = new StringBuilder(1024);
+            renderer.appendHeader(chunk);
+            sink.accept(TestChunk.HEADER, className, chunk);
+
+            for (ClassModel.MethodModel method : model.methods()) {
+                chunk.setLength(0);
+                renderer.appendMethodTests(chunk, method);
+                sink.accept(TestChunk.METHOD, method.name(), chunk);
+            }
+
+            chunk.setLength(0);
+            renderer.appendFooter(chunk);
+            sink.accept(TestChunk.FOOTER, className, chunk);
+            metrics.recordMethods(model.methods().size());
+        };
     }
-}
\ No newline at end of file
+}
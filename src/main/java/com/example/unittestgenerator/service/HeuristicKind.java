@@ -0,0 +1,9 @@
+package com.example.unittestgenerator.service;
+
+// The heuristic rows every type has a value for
+public enum HeuristicKind {
+    POSITIVE,
+    NEGATIVE,
+    ZERO,
+    MAX
+}
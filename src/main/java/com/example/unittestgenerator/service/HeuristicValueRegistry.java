@@ -0,0 +1,148 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.type.Type;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up the {@link ValueTable} for a parameter type. Custom
+ * {@link ValueProvider} beans are asked first, then the built-in ones.
+ * Each type is resolved once: tables that don't depend on the source file
+ * are shared across requests, while anything involving an enum declared in
+ * the file being generated for is cached per file. Types arrive as names
+ * from a {@link ClassModel} and are only parsed on a cache miss.
+ */
+@Component
+public class HeuristicValueRegistry {
+
+    // Type names come from user input, so the shared cache stops growing at some point
+    private static final int MAX_SHARED_TYPES = 4096;
+
+    private final List<ValueProvider> providers;
+    private final Map<String, ValueTable> shared = new ConcurrentHashMap<>();
+
+    public HeuristicValueRegistry(List<ValueProvider> customProviders) {
+        List<ValueProvider> all = new ArrayList<>(customProviders);
+        all.addAll(BuiltInValueProviders.all());
+        this.providers = List.copyOf(all);
+    }
+
+    public static HeuristicValueRegistry defaults() {
+        return new HeuristicValueRegistry(List.of());
+    }
+
+    // Values as seen from the file the model was analyzed from; cheap to create
+    public UnitValues forModel(ClassModel model) {
+        return new UnitValues(model == null ? List.of() : model.enums());
+    }
+
+    private ValueTable fromProviders(Type type, ValueProvider.ValueResolver resolver) {
+        for (ValueProvider provider : providers) {
+            ValueTable table = provider.tableFor(type, resolver);
+            if (table != null) {
+                return table;
+            }
+        }
+        return ValueTable.NULL;
+    }
+
+    public final class UnitValues implements ValueProvider.ValueResolver {
+
+        private final List<ClassModel.EnumModel> declaredEnums;
+        private Map<String, LocalEnum> enums; // by simple and nested name
+        private final Map<String, ValueTable> local = new HashMap<>();
+
+        private UnitValues(List<ClassModel.EnumModel> declaredEnums) {
+            this.declaredEnums = declaredEnums;
+        }
+
+        // Type names as written in the source, e.g. "List<Long>" or "int[]"
+        public ValueTable resolve(String typeName) {
+            ValueTable table = local.get(typeName);
+            if (table == null && !mentionsLocalEnum(typeName)) {
+                table = shared.get(typeName);
+            }
+            if (table != null) {
+                return table;
+            }
+            Type type;
+            try {
+                type = StaticJavaParser.parseType(typeName);
+            } catch (ParseProblemException e) {
+                return ValueTable.NULL;
+            }
+            return resolve(type);
+        }
+
+        @Override
+        public ValueTable resolve(Type type) {
+            String key = type.asString();
+            ValueTable table = local.get(key);
+            if (table != null) {
+                return table;
+            }
+            if (mentionsLocalEnum(key)) {
+                LocalEnum declared = localEnums().get(key);
+                table = declared != null ? declared.table() : fromProviders(type, this);
+            } else {
+                // Not computeIfAbsent: container providers resolve their element types re-entrantly
+                table = shared.get(key);
+                if (table == null) {
+                    table = fromProviders(type, this);
+                    if (shared.size() < MAX_SHARED_TYPES) {
+                        shared.putIfAbsent(key, table);
+                    }
+                }
+            }
+            local.put(key, table); // later lookups from this file skip the enum check
+            return table;
+        }
+
+        private boolean mentionsLocalEnum(String typeName) {
+            Map<String, LocalEnum> enums = localEnums();
+            if (enums.isEmpty()) {
+                return false;
+            }
+            for (String identifier : typeName.split("[^A-Za-z0-9_$]+")) {
+                if (enums.containsKey(identifier)) {
+                    return true;
+                }
+            }
+            return enums.containsKey(typeName);
+        }
+
+        private Map<String, LocalEnum> localEnums() {
+            if (enums == null) {
+                enums = new HashMap<>();
+                for (ClassModel.EnumModel declaredEnum : declaredEnums) {
+                    LocalEnum declared = new LocalEnum(declaredEnum.nestedName(), declaredEnum.constants());
+                    enums.put(declaredEnum.name(), declared);
+                    enums.put(declared.nestedName(), declared);
+                }
+            }
+            return enums;
+        }
+    }
+
+    // Literals use the nested name so they resolve from a test class in the same package
+    private record LocalEnum(String nestedName, List<String> constants) {
+
+        ValueTable table() {
+            if (constants.isEmpty()) {
+                return ValueTable.NULL;
+            }
+            String first = constants.get(0);
+            String last = constants.get(constants.size() - 1);
+            return ValueTable.literals(nestedName + "." + first, nestedName + "." + last,
+                            nestedName + "." + first, nestedName + "." + last)
+                    .withCsv(first, last, first, last);
+        }
+    }
+}
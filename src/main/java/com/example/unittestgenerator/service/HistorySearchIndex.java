@@ -0,0 +1,152 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.HistoryPage;
+import com.example.unittestgenerator.dto.SavedTestSearchRow;
+import com.example.unittestgenerator.dto.SavedTestSummary;
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searches a user's history by class, method and type names and by the
+ * identifiers in the saved source. A user's {@link UserSearchIndex} is built
+ * from the stored search terms on their first search and then kept current
+ * as tests are saved and deleted. Bounded by user count and by an estimate
+ * of the heap the indexes hold; the least recently searched user goes first
+ * and is loaded again when they come back.
+ */
+@Component
+public class HistorySearchIndex {
+
+    private static final int LOAD_BATCH = 5_000;
+
+    private final SavedTestRepository savedTestRepository;
+    private final GeneratorMetrics metrics;
+    private final int maxUsers;
+    private final long maxBytes;
+    private final Map<Long, UserSearchIndex> users = new LinkedHashMap<>(16, 0.75f, true); // access order
+
+    public HistorySearchIndex(SavedTestRepository savedTestRepository, GeneratorMetrics metrics,
+                              @Value("${generator.search.max-users:256}") int maxUsers,
+                              @Value("${generator.search.max-bytes:268435456}") long maxBytes) {
+        this.savedTestRepository = savedTestRepository;
+        this.metrics = metrics;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.maxBytes = maxBytes;
+        metrics.bindSearchIndex(this);
+    }
+
+    // Throws IllegalArgumentException for a malformed cursor
+    public HistoryPage search(Long userId, String query, String cursor, int size) {
+        Long beforeId = cursor == null || cursor.isBlank() ? null : HistoryPage.Cursor.decode(cursor).id();
+        List<String> words = SearchTerms.queryOf(query);
+        UserSearchIndex index = indexOf(userId);
+        return metrics.timeSearch(() -> index.search(words, beforeId, size));
+    }
+
+    // Called once a batch is committed; users whose index isn't loaded pick the rows up when it is
+    void added(List<SavedTest> saved) {
+        for (SavedTest test : saved) {
+            Long userId = test.getUser() == null ? null : test.getUser().getId();
+            UserSearchIndex index = userId == null ? null : loadedOrLoading(userId);
+            if (index != null) {
+                index.add(new SavedTestSummary(test.getId(), test.getClassName(),
+                        test.getCreatedAt(), test.getSourceSize(), test.getTestSize()), test.getSearchTerms());
+            }
+        }
+    }
+
+    public void removed(Long userId, Long id) {
+        UserSearchIndex index = loadedOrLoading(userId);
+        if (index != null) {
+            index.remove(id);
+        }
+    }
+
+    // For rows written without going through added() (bulk import): the index loads again on the next search
+    public void invalidate(Long userId) {
+        synchronized (users) {
+            users.remove(userId);
+        }
+    }
+
+    public int loadedUsers() {
+        synchronized (users) {
+            return users.size();
+        }
+    }
+
+    public long estimatedBytes() {
+        synchronized (users) {
+            long total = 0;
+            for (UserSearchIndex index : users.values()) {
+                total += index.estimatedBytes();
+            }
+            return total;
+        }
+    }
+
+    private UserSearchIndex loadedOrLoading(Long userId) {
+        synchronized (users) {
+            return users.get(userId);
+        }
+    }
+
+    private UserSearchIndex indexOf(Long userId) {
+        UserSearchIndex index;
+        synchronized (users) {
+            index = users.computeIfAbsent(userId, id -> new UserSearchIndex());
+        }
+        boolean grew = false;
+        // Saves for this user wait here until the load is done, so none fall between the pages
+        synchronized (index) {
+            if (!index.isLoaded()) {
+                load(userId, index);
+                index.markLoaded();
+                grew = true;
+            }
+        }
+        if (grew) {
+            evictOverBudget(index);
+        }
+        return index;
+    }
+
+    private void load(Long userId, UserSearchIndex index) {
+        PageRequest batch = PageRequest.of(0, LOAD_BATCH);
+        long afterId = 0;
+        List<SavedTestSearchRow> rows;
+        do {
+            rows = savedTestRepository.findSearchRows(userId, afterId, batch);
+            for (SavedTestSearchRow row : rows) {
+                index.add(row.getSummary(), row.getSearchTerms());
+                afterId = row.getSummary().getId();
+            }
+        } while (rows.size() == LOAD_BATCH);
+    }
+
+    private void evictOverBudget(UserSearchIndex keep) {
+        synchronized (users) {
+            long total = 0;
+            for (UserSearchIndex index : users.values()) {
+                total += index.estimatedBytes();
+            }
+            Iterator<UserSearchIndex> eldestFirst = users.values().iterator();
+            while ((users.size() > maxUsers || total > maxBytes) && eldestFirst.hasNext()) {
+                UserSearchIndex index = eldestFirst.next();
+                if (index == keep) {
+                    continue;
+                }
+                eldestFirst.remove();
+                total -= index.estimatedBytes();
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.HistoryExportEntry;
+import com.example.unittestgenerator.dto.HistoryImportResult;
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Moves a user's whole history in and out as NDJSON, one
+ * {@link HistoryExportEntry} per line, without holding it in memory. Exports
+ * read a database cursor and write each row to the output as it arrives;
+ * imports parse one line at a time and insert every
+ * {@code generator.history.import-batch-size} entries in one transaction with
+ * a single JDBC batch. Memory use depends on the batch size, not on how much
+ * history there is.
+ */
+@Service
+public class HistoryTransfer {
+
+    // saved_tests ids are IDENTITY, which turns off Hibernate's insert batching, so imports go through JDBC
+    private static final String INSERT = "INSERT INTO saved_tests (user_id, class_name, source_size, test_size, "
+            + "source_blob_hash, test_blob_hash, class_model, search_terms, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_PROBLEMS = 20;
+
+    private final SavedTestRepository savedTestRepository;
+    private final BlobStore blobStore;
+    private final HistorySearchIndex searchIndex;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter entryWriter;
+    private final int importBatchSize;
+    private final int maxEntryChars;
+
+    public HistoryTransfer(SavedTestRepository savedTestRepository,
+                           BlobStore blobStore,
+                           HistorySearchIndex searchIndex,
+                           EntityManager entityManager,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${generator.history.import-batch-size:500}") int importBatchSize,
+                           @Value("${generator.admission.max-source-chars:500000}") int maxEntryChars) {
+        this.savedTestRepository = savedTestRepository;
+        this.blobStore = blobStore;
+        this.searchIndex = searchIndex;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // Flushed once per fetch, not once per line
+        this.entryWriter = objectMapper.writerFor(HistoryExportEntry.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.importBatchSize = Math.max(1, importBatchSize);
+        this.maxEntryChars = maxEntryChars;
+    }
+
+    // ============================================================
+    // EXPORT
+    // ============================================================
+
+    // Oldest first, so importing the file gives the entries ids in the same order
+    public void exportNdjson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null); // lines are separated by '\n' alone, not "\n "
+        forEachEntry(userId, new EntrySink() {
+            @Override
+            public void accept(HistoryExportEntry entry) throws IOException {
+                entryWriter.writeValue(json, entry);
+                json.writeRaw('\n');
+            }
+
+            @Override
+            public void flush() throws IOException {
+                json.flush();
+            }
+        });
+        json.close();
+    }
+
+    // For reading rather than importing: <id>-<Class>/<Class>.java and <Class>Test.java per entry
+    public void exportZip(Long userId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        forEachEntry(userId, new EntrySink() {
+            @Override
+            public void accept(HistoryExportEntry entry) throws IOException {
+                String name = simpleNameOf(entry.getClassName());
+                String directory = entry.getId() + "-" + name + "/";
+                putEntry(zip, directory + name + ".java", entry.getSourceCode(), entry.getCreatedAt());
+                putEntry(zip, directory + name + "Test.java", entry.getGeneratedTestCode(), entry.getCreatedAt());
+            }
+
+            @Override
+            public void flush() throws IOException {
+                zip.flush();
+            }
+        });
+        zip.finish();
+    }
+
+    private interface EntrySink {
+        void accept(HistoryExportEntry entry) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    // Keeps one connection and its cursor open until the client has read everything
+    private void forEachEntry(Long userId, EntrySink sink) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<SavedTest> tests = savedTestRepository.streamByUserId(userId)) {
+                    int sinceClear = 0;
+                    Iterator<SavedTest> rows = tests.iterator();
+                    while (rows.hasNext()) {
+                        SavedTest test = rows.next();
+                        sink.accept(new HistoryExportEntry(test.getId(), test.getClassName(), test.getCreatedAt(),
+                                blobStore.sourceOf(test), blobStore.testOf(test), test.getClassModel()));
+                        if (++sinceClear == SavedTestRepository.EXPORT_FETCH_SIZE) {
+                            entityManager.clear(); // rows and blobs already written are dropped from the session
+                            sink.flush();
+                            sinceClear = 0;
+                        }
+                    }
+                    sink.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // usually the client went away
+        }
+    }
+
+    private static void putEntry(ZipOutputStream zip, String path, String content, LocalDateTime createdAt)
+            throws IOException {
+        if (content == null) {
+            return;
+        }
+        ZipEntry entry = new ZipEntry(path);
+        if (createdAt != null) {
+            entry.setTimeLocal(createdAt);
+        }
+        zip.putNextEntry(entry);
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // "com.acme.Foo.Inner" -> "Inner"; anything unusable in a path becomes '_'
+    static String simpleNameOf(String className) {
+        if (className == null || className.isBlank()) {
+            return "Unknown";
+        }
+        return className.substring(className.lastIndexOf('.') + 1).replaceAll("[^A-Za-z0-9_$]", "_");
+    }
+
+    // ============================================================
+    // IMPORT
+    // ============================================================
+
+    private record ImportRow(String className, String sourceCode, String testCode, byte[] classModel,
+                             String searchTerms, LocalDateTime createdAt) {}
+
+    /**
+     * Adds every entry of an NDJSON export to the user's history. Entries
+     * without a source, or with a body over generator.admission.max-source-chars,
+     * are skipped and reported. Input that stops parsing ends the import with
+     * {@link HistoryImportResult#getError()} set; batches before it stay saved.
+     */
+    public HistoryImportResult importNdjson(Long userId, InputStream in) throws IOException {
+        HistoryImportResult result = new HistoryImportResult();
+        List<ImportRow> batch = new ArrayList<>(importBatchSize);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             MappingIterator<HistoryExportEntry> entries = objectMapper.readerFor(HistoryExportEntry.class).readValues(parser)) {
+            while (entries.hasNextValue()) {
+                HistoryExportEntry entry = entries.nextValue();
+                String problem = problemWith(entry);
+                if (problem != null) {
+                    result.setSkipped(result.getSkipped() + 1);
+                    if (result.getProblems().size() < MAX_PROBLEMS) {
+                        result.getProblems().add("line " + parser.currentLocation().getLineNr() + ": " + problem);
+                    }
+                    continue;
+                }
+                batch.add(rowOf(entry));
+                if (batch.size() == importBatchSize) {
+                    insert(userId, batch);
+                    result.setImported(result.getImported() + batch.size());
+                    batch.clear();
+                }
+            }
+            insert(userId, batch);
+            result.setImported(result.getImported() + batch.size());
+        } catch (JsonProcessingException e) {
+            result.setError("line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage());
+        } finally {
+            if (result.getImported() > 0) {
+                searchIndex.invalidate(userId);
+            }
+        }
+        return result;
+    }
+
+    private String problemWith(HistoryExportEntry entry) {
+        if (entry == null || entry.getSourceCode() == null || entry.getSourceCode().isBlank()) {
+            return "sourceCode is missing";
+        }
+        if (entry.getSourceCode().length() > maxEntryChars) {
+            return "sourceCode is longer than " + maxEntryChars + " characters";
+        }
+        if (entry.getGeneratedTestCode() != null && entry.getGeneratedTestCode().length() > maxEntryChars) {
+            return "generatedTestCode is longer than " + maxEntryChars + " characters";
+        }
+        return null;
+    }
+
+    // Search terms come from the exported model when this version can read it, otherwise from the source alone
+    private static ImportRow rowOf(HistoryExportEntry entry) {
+        byte[] classModel = entry.getClassModel();
+        ClassModel model = null;
+        if (classModel != null) {
+            try {
+                model = ClassModelCodec.decode(classModel);
+            } catch (RuntimeException e) {
+                classModel = null; // another codec version; the entry is parsed again when opened
+            }
+        }
+        return new ImportRow(entry.getClassName(), entry.getSourceCode(), entry.getGeneratedTestCode(), classModel,
+                SearchTerms.of(entry.getClassName(), model, entry.getSourceCode()), entry.getCreatedAt());
+    }
+
+    private void insert(Long userId, List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> bodies = new ArrayList<>(rows.size() * 2);
+            for (ImportRow row : rows) {
+                bodies.add(row.sourceCode());
+                bodies.add(row.testCode());
+            }
+            blobStore.storeAll(bodies);
+            jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (statement, row) -> {
+                statement.setLong(1, userId);
+                statement.setString(2, row.className());
+                statement.setInt(3, row.sourceCode().length());
+                setNullable(statement, 4, row.testCode() == null ? null : row.testCode().length());
+                statement.setString(5, BlobStore.hashOf(row.sourceCode()));
+                statement.setString(6, row.testCode() == null ? null : BlobStore.hashOf(row.testCode()));
+                statement.setBytes(7, row.classModel());
+                statement.setString(8, row.searchTerms());
+                statement.setTimestamp(9, Timestamp.valueOf(row.createdAt() != null ? row.createdAt() : now));
+            });
+            entityManager.clear();
+        });
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+}
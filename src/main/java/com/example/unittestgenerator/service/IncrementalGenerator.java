@@ -0,0 +1,306 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.IncrementalGenerateResponse;
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Regenerates a test class against an edited source without starting over.
+ * Source methods are matched by signature and compared by a hash of their
+ * printed body; only added or changed methods get fresh tests, in the place
+ * of the old ones. Tests for unchanged methods and hand-written members are
+ * copied from the previous test file line for line, comments above them
+ * included, and stay where they were. The header follows the fixture: it is
+ * rendered again when the constructor or imports change.
+ */
+@Service
+public class IncrementalGenerator {
+
+    // Helper members a template emits next to a test, e.g. TestNG's "<testName>Data" provider
+    static final String COMPANION_SUFFIX = "Data";
+
+    private final GeneratorService generatorService;
+    private final GeneratorMetrics metrics;
+
+    public IncrementalGenerator(GeneratorService generatorService, GeneratorMetrics metrics) {
+        this.generatorService = generatorService;
+        this.metrics = metrics;
+    }
+
+    public IncrementalGenerateResponse regenerate(String previousSource, String previousTest,
+                                                  String sourceCode, GenerationOptions options) {
+        ClassModel previousModel = null;
+        if (previousSource != null && previousTest != null) {
+            try {
+                previousModel = generatorService.analyze(previousSource, options);
+            } catch (IllegalArgumentException e) {
+                previousModel = null; // regenerated from scratch below
+            }
+        }
+        return regenerate(previousModel, previousTest, sourceCode, options);
+    }
+
+    // With a history entry the previous source's model is stored, so only the new source is parsed
+    public IncrementalGenerateResponse regenerate(ClassModel previousModel, String previousTest,
+                                                  String sourceCode, GenerationOptions options) {
+        metrics.recordInput(sourceCode);
+        ClassModel current = generatorService.analyzeFirstClass(sourceCode, options);
+        String className = current.className();
+
+        Previous previous = parsePrevious(previousModel, previousTest, className, options);
+        if (previous == null) {
+            return fullRegeneration(current, options);
+        }
+
+        // Old source methods by signature, each with the test members generated for it
+        Map<String, OldMethod> oldMethods = new HashMap<>();
+        Map<Node, String> ownerOf = new IdentityHashMap<>();
+        Map<String, Deque<BodyDeclaration<?>>> testsByName = previous.testsByName();
+        TestClassRenderer oldRenderer = generatorService.renderer(previous.sourceModel(), options);
+        for (MethodModel oldMethod : previous.sourceModel().methods()) {
+            List<BodyDeclaration<?>> tests = new ArrayList<>();
+            for (String testName : oldRenderer.testMethodNames(oldMethod)) {
+                for (String memberName : List.of(testName, testName + COMPANION_SUFFIX)) {
+                    Deque<BodyDeclaration<?>> candidates = testsByName.get(memberName);
+                    if (candidates != null && !candidates.isEmpty()) {
+                        BodyDeclaration<?> test = candidates.poll();
+                        tests.add(test);
+                        ownerOf.put(test, oldMethod.signature());
+                    }
+                }
+            }
+            oldMethods.putIfAbsent(oldMethod.signature(), new OldMethod(oldMethod.bodyHash(), tests));
+        }
+
+        // Each current method that still has tests is a slot at the place of those tests. Added
+        // methods go to the slot of the method before them, or of the one after at the top.
+        Map<String, Slot> slots = new HashMap<>();
+        List<MethodModel> unplaced = new ArrayList<>();
+        Slot last = null;
+        Set<String> seen = new HashSet<>();
+        int added = 0;
+        int changed = 0;
+        int unchanged = 0;
+        for (MethodModel method : current.methods()) {
+            String signature = method.signature();
+            OldMethod old = seen.add(signature) ? oldMethods.get(signature) : null;
+            if (old == null || old.tests().isEmpty()) {
+                if (old == null) {
+                    added++;
+                } else {
+                    changed++;
+                }
+                (last != null ? last.after() : unplaced).add(method);
+                continue;
+            }
+            boolean keep = old.bodyHash() == method.bodyHash();
+            if (keep) {
+                unchanged++;
+            } else {
+                changed++;
+            }
+            last = new Slot(method, keep, new ArrayList<>(unplaced), new ArrayList<>());
+            unplaced.clear();
+            slots.put(signature, last);
+        }
+        int removed = (int) oldMethods.keySet().stream().filter(s -> !seen.contains(s)).count();
+
+        String[] lines = previous.testCode().split("\n", -1);
+        ClassOrInterfaceDeclaration testClass = previous.testClass();
+        TestClassRenderer renderer = generatorService.renderer(current, options);
+        StringBuilder out = new StringBuilder(previous.testCode().length() + 1024);
+        int headerEnd = appendHeader(out, lines, previous, oldRenderer, renderer);
+        if (headerEnd < 0) {
+            return fullRegeneration(current, options);
+        }
+
+        // Every member below the header with the comments and blank lines above it; the last
+        // member of each old method is where the methods added after it go
+        List<BodyDeclaration<?>> members = new ArrayList<>();
+        Map<Node, String> leading = new IdentityHashMap<>();
+        Map<String, Node> lastTestOf = new HashMap<>();
+        int previousEnd = headerEnd;
+        for (BodyDeclaration<?> member : testClass.getMembers()) {
+            if (member.getBegin().orElseThrow().line <= headerEnd) {
+                continue;
+            }
+            leading.put(member, linesBetween(lines, previousEnd, member.getBegin().orElseThrow().line, previousEnd != headerEnd));
+            previousEnd = member.getEnd().orElseThrow().line;
+            members.add(member);
+            String owner = ownerOf.get(member);
+            if (owner != null) {
+                lastTestOf.put(owner, member);
+            }
+        }
+
+        Set<String> started = new HashSet<>();
+        for (BodyDeclaration<?> member : members) {
+            String owner = ownerOf.get(member);
+            if (owner == null) {
+                out.append(leading.get(member));
+                appendMember(out, lines, member);
+                continue;
+            }
+            // Without any surviving method, added ones take the place of the first removed test
+            appendTests(out, renderer, unplaced);
+            unplaced.clear();
+            Slot slot = slots.get(owner);
+            if (slot == null) {
+                continue; // a test of a removed method
+            }
+            boolean first = started.add(owner);
+            if (first) {
+                appendTests(out, renderer, slot.before());
+            }
+            if (slot.keep()) {
+                out.append(leading.get(member));
+                appendMember(out, lines, member);
+                if (lastTestOf.get(owner) == member) {
+                    appendTests(out, renderer, slot.after());
+                }
+            } else if (first) {
+                // Comments above the old tests stay above the new ones
+                for (BodyDeclaration<?> test : oldMethods.get(owner).tests()) {
+                    out.append(leading.get(test));
+                }
+                renderer.appendMethodTests(out, slot.method());
+                appendTests(out, renderer, slot.after());
+            }
+        }
+        appendTests(out, renderer, unplaced);
+
+        int closingLine = testClass.getEnd().orElseThrow().line;
+        out.append(linesBetween(lines, previousEnd, closingLine, previousEnd != headerEnd));
+        appendLines(out, lines, closingLine, lines.length);
+
+        metrics.recordMethods(added + changed);
+        String content = out.toString();
+        metrics.recordOutput(content);
+        IncrementalGenerateResponse response =
+                new IncrementalGenerateResponse(className, content, added, changed, removed, unchanged, false);
+        response.setClassModel(current);
+        return response;
+    }
+
+    /**
+     * Writes the header (package, imports, fields, setUp) and returns the last
+     * line of the previous test it replaces. A header that is still exactly
+     * as generated is rendered again, so a changed constructor or new imports
+     * reach the fixture. A hand-edited one is kept up to the class's opening
+     * brace, as long as the fixture stayed the same; otherwise -1, and the
+     * caller regenerates from scratch.
+     */
+    private static int appendHeader(StringBuilder out, String[] lines, Previous previous,
+                                    TestClassRenderer oldRenderer, TestClassRenderer renderer) {
+        StringBuilder oldHeader = new StringBuilder();
+        oldRenderer.appendHeader(oldHeader);
+        StringBuilder newHeader = new StringBuilder();
+        renderer.appendHeader(newHeader);
+        if (previous.testCode().startsWith(oldHeader.toString())) {
+            out.append(newHeader);
+            return (int) oldHeader.chars().filter(c -> c == '\n').count();
+        }
+        if (!oldHeader.toString().contentEquals(newHeader)) {
+            return -1;
+        }
+        int line = previous.testClass().getName().getBegin().orElseThrow().line;
+        while (line < lines.length && !lines[line - 1].contains("{")) {
+            line++;
+        }
+        appendLines(out, lines, 1, line);
+        return line;
+    }
+
+    private static void appendTests(StringBuilder out, TestClassRenderer renderer, List<MethodModel> methods) {
+        for (MethodModel method : methods) {
+            renderer.appendMethodTests(out, method);
+        }
+    }
+
+    private IncrementalGenerateResponse fullRegeneration(ClassModel current, GenerationOptions options) {
+        String content = generatorService.generateSmartTestFile(current, options);
+        int methods = current.methods().size();
+        metrics.recordMethods(methods);
+        metrics.recordOutput(content);
+        IncrementalGenerateResponse response =
+                new IncrementalGenerateResponse(current.className(), content, methods, 0, 0, 0, true);
+        response.setClassModel(current);
+        return response;
+    }
+
+    // Null when there is nothing usable to splice into; the caller then starts from scratch
+    private Previous parsePrevious(ClassModel sourceModel, String previousTest, String className,
+                                   GenerationOptions options) {
+        if (sourceModel == null || previousTest == null || !sourceModel.className().equals(className)) {
+            return null;
+        }
+        try {
+            // The splice works on line ranges, so this parse must keep them
+            CompilationUnit testUnit = generatorService.parseWithRanges(previousTest, options);
+            ClassOrInterfaceDeclaration testClass = testUnit.getClassByName(sourceModel.testClassName()).orElse(null);
+            if (testClass == null || testClass.getEnd().isEmpty()) {
+                return null;
+            }
+            Map<String, Deque<BodyDeclaration<?>>> testsByName = new HashMap<>();
+            for (BodyDeclaration<?> member : testClass.getMembers()) {
+                if (member instanceof MethodDeclaration test) {
+                    testsByName.computeIfAbsent(test.getNameAsString(), k -> new ArrayDeque<>()).add(member);
+                }
+            }
+            return new Previous(sourceModel, testClass, previousTest, testsByName);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // A member's lines as they were, followed by the blank line the generator puts between tests
+    private static void appendMember(StringBuilder out, String[] lines, Node member) {
+        appendLines(out, lines, member.getBegin().orElseThrow().line, member.getEnd().orElseThrow().line);
+        out.append('\n');
+    }
+
+    // The lines strictly between two others: comments and blank lines, since the parse doesn't
+    // attribute comments. After a member its first blank line is left out, appendMember writes it.
+    private static String linesBetween(String[] lines, int after, int before, boolean afterMember) {
+        int from = after + 1;
+        if (afterMember && from < before && lines[from - 1].isBlank()) {
+            from++;
+        }
+        StringBuilder between = new StringBuilder();
+        appendLines(between, lines, from, before - 1);
+        return between.toString();
+    }
+
+    // 1-based, inclusive; every copied line gets its newline back
+    private static void appendLines(StringBuilder out, String[] lines, int from, int to) {
+        for (int i = from; i <= to && i <= lines.length; i++) {
+            if (i == lines.length && lines[i - 1].isEmpty()) {
+                break; // the split's trailing element after the final newline
+            }
+            out.append(lines[i - 1]).append('\n');
+        }
+    }
+
+    private record OldMethod(long bodyHash, List<BodyDeclaration<?>> tests) {}
+
+    // Where a current method's tests go: its own (kept or regenerated), with added methods around them
+    private record Slot(MethodModel method, boolean keep, List<MethodModel> before, List<MethodModel> after) {}
+
+    private record Previous(ClassModel sourceModel, ClassOrInterfaceDeclaration testClass,
+                            String testCode, Map<String, Deque<BodyDeclaration<?>>> testsByName) {}
+}
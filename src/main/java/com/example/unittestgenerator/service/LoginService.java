@@ -0,0 +1,173 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks for /api/auth/login. Attempts are limited per username
+ * and per client address, and each one is counted before any hashing, so a
+ * flood of guesses costs a map lookup instead of a BCrypt round. A correct
+ * password is remembered for a while, keyed by an HMAC of the credentials
+ * and the stored hash, so logging in again skips BCrypt until the password
+ * changes or the entry expires.
+ */
+@Service
+public class LoginService {
+
+    // Idle attempt windows and expired credentials are swept past this
+    private static final int MAX_TRACKED_KEYS = 100_000;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final int maxAttemptsPerMinute;
+    private final long cacheTtlNanos;
+
+    // Per-process key: cached entries are useless outside this JVM
+    private final SecretKeySpec cacheKey;
+    // Unknown usernames are checked against this, so they take as long as wrong passwords
+    private final String dummyHash;
+
+    private final Map<String, AttemptWindow> attempts = new ConcurrentHashMap<>();
+    private final Map<String, VerifiedCredential> verified = new ConcurrentHashMap<>();
+
+    public LoginService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                        @Value("${auth.login.max-attempts-per-minute:10}") int maxAttemptsPerMinute,
+                        @Value("${auth.login.cache-ttl-seconds:600}") long cacheTtlSeconds) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.maxAttemptsPerMinute = maxAttemptsPerMinute;
+        this.cacheTtlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, cacheTtlSeconds));
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+        this.dummyHash = passwordEncoder.encode("not-a-real-password");
+    }
+
+    /**
+     * The user when the password matches, empty otherwise. Throws 429 once
+     * the username or client address is over its attempts for the minute.
+     */
+    public Optional<User> authenticate(String username, String password, String clientAddress) {
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        throttle("user:" + username, now);
+        if (clientAddress != null) {
+            throttle("addr:" + clientAddress, now);
+        }
+
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            passwordEncoder.matches(password, dummyHash);
+            return Optional.empty();
+        }
+
+        String storedHash = user.getPassword();
+        String credential = fingerprint(username, password, storedHash);
+        VerifiedCredential cached = verified.get(credential);
+        if (cached != null && now - cached.verifiedAt() < cacheTtlNanos) {
+            return Optional.of(user);
+        }
+        if (!passwordEncoder.matches(password, storedHash)) {
+            return Optional.empty();
+        }
+
+        // Rehash at the configured strength once it has been raised
+        if (passwordEncoder.upgradeEncoding(storedHash)) {
+            user.setPassword(passwordEncoder.encode(password));
+            userRepository.save(user);
+            credential = fingerprint(username, password, user.getPassword());
+        }
+        if (cacheTtlNanos > 0) {
+            if (verified.size() >= MAX_TRACKED_KEYS) {
+                verified.values().removeIf(entry -> now - entry.verifiedAt() >= cacheTtlNanos);
+                if (verified.size() >= MAX_TRACKED_KEYS) {
+                    verified.clear();
+                }
+            }
+            verified.put(credential, new VerifiedCredential(now));
+        }
+        return Optional.of(user);
+    }
+
+    // ============================================================
+    // ATTEMPT LIMIT
+    // ============================================================
+
+    private void throttle(String key, long now) {
+        if (maxAttemptsPerMinute <= 0) {
+            return;
+        }
+        if (attempts.size() >= MAX_TRACKED_KEYS) {
+            attempts.values().removeIf(window -> window.isIdle(now));
+        }
+        long waitNanos = attempts.computeIfAbsent(key, k -> new AttemptWindow(now)).count(now);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new AdmissionRejectedException(429, retryAfter, "Too many login attempts, please retry later.");
+        }
+    }
+
+    private final class AttemptWindow {
+
+        private long startedAt;
+        private int count;
+
+        AttemptWindow(long now) {
+            this.startedAt = now;
+        }
+
+        // 0 when the attempt is allowed, otherwise how long until the window resets
+        synchronized long count(long now) {
+            if (now - startedAt >= WINDOW_NANOS) {
+                startedAt = now;
+                count = 0;
+            }
+            if (count >= maxAttemptsPerMinute) {
+                return WINDOW_NANOS - (now - startedAt);
+            }
+            count++;
+            return 0;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - startedAt >= WINDOW_NANOS;
+        }
+    }
+
+    // ============================================================
+    // VERIFIED CREDENTIALS
+    // ============================================================
+
+    private record VerifiedCredential(long verifiedAt) {}
+
+    private String fingerprint(String username, String password, String storedHash) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            for (String part : new String[] {username, password, storedHash}) {
+                mac.update(part.getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Renders the method tests of large classes on a dedicated fork-join pool.
+ * The methods are split into contiguous runs, each rendered by a renderer
+ * of its own into a buffer of its own, and the buffers are appended in
+ * source order, so the output is byte-identical to the sequential loop.
+ * Classes below the method threshold stay on the calling thread, where
+ * the hand-off costs more than it saves.
+ */
+@Component
+public class ParallelRendering {
+
+    // Fewer methods than this per task and the fork/join overhead dominates
+    static final int MIN_METHODS_PER_TASK = 8;
+
+    private final int methodThreshold;
+    private final int parallelism;
+    private final ForkJoinPool pool; // null when disabled
+
+    public ParallelRendering(@Value("${generator.parallel.method-threshold:64}") int methodThreshold,
+                             @Value("${generator.parallel.threads:0}") int threads) {
+        this.parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.methodThreshold = Math.max(methodThreshold, 2 * MIN_METHODS_PER_TASK);
+        this.pool = methodThreshold > 0 && parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    // Everything on the calling thread, e.g. for tests and single-core hosts
+    public static ParallelRendering sequential() {
+        return new ParallelRendering(0, 1);
+    }
+
+    boolean appliesTo(int methodCount) {
+        return pool != null && methodCount >= methodThreshold;
+    }
+
+    // How many runs the methods are split into
+    int tasksFor(int methodCount) {
+        return Math.max(1, Math.min(parallelism, methodCount / MIN_METHODS_PER_TASK));
+    }
+
+    /**
+     * Appends the tests of every method in order. Renderers hold per-method
+     * state and their value lookups aren't thread-safe, so each run asks
+     * {@code renderers} for a fresh one.
+     */
+    void appendMethodTests(StringBuilder out, List<MethodModel> methods, Supplier<TestClassRenderer> renderers) {
+        int tasks = appliesTo(methods.size()) ? tasksFor(methods.size()) : 1;
+        if (tasks == 1) {
+            render(out, renderers.get(), methods);
+            return;
+        }
+        List<ForkJoinTask<StringBuilder>> runs = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            List<MethodModel> run = methods.subList(methods.size() * i / tasks, methods.size() * (i + 1) / tasks);
+            runs.add(pool.submit(() -> render(new StringBuilder(run.size() * 512), renderers.get(), run)));
+        }
+        for (ForkJoinTask<StringBuilder> run : runs) {
+            out.append(run.join());
+        }
+    }
+
+    private static StringBuilder render(StringBuilder out, TestClassRenderer renderer, List<MethodModel> methods) {
+        for (MethodModel method : methods) {
+            renderer.appendMethodTests(out, method);
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
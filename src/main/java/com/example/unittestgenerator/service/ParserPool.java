@@ -0,0 +1,103 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+import com.github.javaparser.ast.CompilationUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of reusable JavaParser instances, one idle queue per language level.
+ * A JavaParser keeps its generated parser tables between calls but is not
+ * thread-safe, so each parse borrows an instance and hands it back after.
+ * Unlike StaticJavaParser, nothing here touches global configuration.
+ * Parsers don't keep tokens, so nodes have no source ranges; everything
+ * downstream works on the printed tree. {@link #parseWithRanges} is the
+ * slower variant for callers that cut the original text by line.
+ */
+@Component
+public class ParserPool {
+
+    private final LanguageLevel defaultLevel;
+    private final int maxIdlePerLevel;
+    private final Map<LanguageLevel, BlockingQueue<JavaParser>> idle = new ConcurrentHashMap<>();
+    private final Map<LanguageLevel, BlockingQueue<JavaParser>> idleWithRanges = new ConcurrentHashMap<>();
+
+    public ParserPool(@Value("${generator.parser.language-level:JAVA_17}") String defaultLevel,
+                      @Value("${generator.parser.max-idle:16}") int maxIdlePerLevel) {
+        this.defaultLevel = toLanguageLevel(defaultLevel);
+        this.maxIdlePerLevel = Math.max(1, maxIdlePerLevel);
+    }
+
+    public LanguageLevel getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    public CompilationUnit parse(String sourceCode) {
+        return parse(sourceCode, defaultLevel);
+    }
+
+    public CompilationUnit parse(String sourceCode, LanguageLevel level) {
+        return parse(sourceCode, level, idle, false);
+    }
+
+    public CompilationUnit parseWithRanges(String sourceCode, LanguageLevel level) {
+        return parse(sourceCode, level, idleWithRanges, true);
+    }
+
+    private CompilationUnit parse(String sourceCode, LanguageLevel level,
+                                  Map<LanguageLevel, BlockingQueue<JavaParser>> pool, boolean withRanges) {
+        BlockingQueue<JavaParser> queue = pool.computeIfAbsent(level, l -> new ArrayBlockingQueue<>(maxIdlePerLevel));
+        JavaParser parser = queue.poll();
+        if (parser == null) {
+            parser = new JavaParser(configurationFor(level).setStoreTokens(withRanges));
+        }
+        try {
+            ParseResult<CompilationUnit> result = parser.parse(sourceCode);
+            if (!result.isSuccessful() || result.getResult().isEmpty()) {
+                throw new ParseProblemException(result.getProblems());
+            }
+            return result.getResult().get();
+        } finally {
+            queue.offer(parser); // dropped when the pool is already full
+        }
+    }
+
+    // Accepts "21", "JAVA_21" or "java21"; null or blank means the configured default
+    public LanguageLevel resolve(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return defaultLevel;
+        }
+        return toLanguageLevel(requested);
+    }
+
+    static ParserConfiguration configurationFor(LanguageLevel level) {
+        return new ParserConfiguration()
+                .setLanguageLevel(level)
+                .setAttributeComments(false)
+                .setLexicalPreservationEnabled(false);
+    }
+
+    private static LanguageLevel toLanguageLevel(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace('.', '_');
+        if (!normalized.startsWith("JAVA")) {
+            normalized = "JAVA_" + normalized;
+        } else if (!normalized.startsWith("JAVA_")) {
+            normalized = "JAVA_" + normalized.substring(4);
+        }
+        try {
+            return LanguageLevel.valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported language level: " + value);
+        }
+    }
+}
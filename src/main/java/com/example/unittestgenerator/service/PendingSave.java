@@ -0,0 +1,13 @@
+package com.example.unittestgenerator.service;
+
+/**
+ * A generated test waiting to be written to saved_tests by {@link SavedTestWriter}.
+ * The model is optional; rows without one are re-analyzed from source when opened.
+ */
+public record PendingSave(Long userId, String className, String sourceCode, String generatedTestCode,
+                          ClassModel classModel) {
+
+    public PendingSave(Long userId, String className, String sourceCode, String generatedTestCode) {
+        this(userId, className, sourceCode, generatedTestCode, null);
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.service.ClassModel.EnumModel;
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import com.example.unittestgenerator.service.ClassModel.ParamModel;
+import com.github.javaparser.ast.AccessSpecifier;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.resolution.MethodUsage;
+import com.github.javaparser.resolution.declarations.ResolvedEnumConstantDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.resolution.types.ResolvedReferenceType;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.cache.GuavaCache;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.MemoryTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Symbol resolution for one project: its uploaded sources and jars plus the
+ * JRE. Used to enrich a {@link ClassModel} with what type names alone can't
+ * tell, namely which parameter types are enums (and their constants) and
+ * which public methods a class inherits. Resolution runs under a per-project
+ * lock because JavaParser's resolution caches are not thread-safe; parsing
+ * and rendering around it still run in parallel. Results are memoized, so a
+ * batch pays for each distinct type once.
+ */
+public final class ProjectSymbols {
+
+    // Rough heap cost of a parsed and resolved source per source character
+    private static final int BYTES_PER_SOURCE_CHAR = 24;
+    private static final int TYPE_CACHE_ENTRIES = 10_000;
+
+    private final String projectId;
+    private final MemoryTypeSolver sources = new MemoryTypeSolver();
+    private final CombinedTypeSolver typeSolver;
+    private final Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> typeCache;
+    private final JavaSymbolSolver symbolSolver;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Unit> units = new HashMap<>();      // by primary type name
+    private final Map<String, CompilationUnit> unitsByHash = new HashMap<>();
+    private final Map<String, Optional<List<String>>> enumConstants = new HashMap<>();
+    private final Map<String, List<MethodModel>> inherited = new HashMap<>();
+    private final List<Path> jars = new ArrayList<>();
+
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final LongAdder resolutionHits = new LongAdder();
+    private final LongAdder resolutionMisses = new LongAdder();
+
+    ProjectSymbols(String projectId) {
+        this.projectId = projectId;
+        this.typeCache = CacheBuilder.newBuilder().maximumSize(TYPE_CACHE_ENTRIES).recordStats().build();
+        this.typeSolver = new CombinedTypeSolver(e -> true, List.of(new ReflectionTypeSolver(true), sources),
+                new GuavaCache<>(typeCache));
+        this.symbolSolver = new JavaSymbolSolver(typeSolver);
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    // ============================================================
+    // PROJECT CONTENTS
+    // ============================================================
+
+    /**
+     * The parsed unit for a source of this project, registering its types on
+     * first sight. A changed source replaces the previous version of the same
+     * primary type.
+     */
+    CompilationUnit unitOf(String sourceCode, Function<String, CompilationUnit> parser) {
+        String hash = SourceFingerprint.of(sourceCode);
+        lock.lock();
+        try {
+            CompilationUnit known = unitsByHash.get(hash);
+            if (known != null) {
+                return known;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        CompilationUnit compilationUnit = parser.apply(sourceCode);
+        lock.lock();
+        try {
+            symbolSolver.inject(compilationUnit);
+            String key = null;
+            for (TypeDeclaration<?> type : compilationUnit.findAll(TypeDeclaration.class)) {
+                String name = type.getFullyQualifiedName().orElse(null);
+                if (name == null) {
+                    continue; // local classes
+                }
+                key = key == null ? name : key;
+                sources.addDeclaration(name, type.resolve());
+            }
+            if (key != null) {
+                Unit previous = units.put(key, new Unit(hash, sourceCode.length()));
+                if (previous != null) {
+                    unitsByHash.remove(previous.hash());
+                }
+                unitsByHash.put(hash, compilationUnit);
+                estimatedBytes.addAndGet((long) BYTES_PER_SOURCE_CHAR
+                        * (sourceCode.length() - (previous == null ? 0 : previous.length())));
+                if (previous != null) {
+                    forgetResolutions();
+                } else {
+                    forgetUnresolved();
+                }
+            }
+            return compilationUnit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void addJar(Path jar) throws IOException {
+        JarTypeSolver jarSolver = new JarTypeSolver(jar);
+        lock.lock();
+        try {
+            typeSolver.add(jarSolver, true);
+            jars.add(jar);
+            estimatedBytes.addAndGet(Files.size(jar));
+            forgetUnresolved();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called once the project is evicted or dropped
+    void release() {
+        lock.lock();
+        try {
+            for (Path jar : jars) {
+                try {
+                    Files.deleteIfExists(jar);
+                } catch (IOException ignored) {
+                    // temp file, cleaned up with the JVM's temp dir at worst
+                }
+            }
+            jars.clear();
+            units.clear();
+            unitsByHash.clear();
+            forgetResolutions();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A changed type can invalidate anything resolved through it
+    private void forgetResolutions() {
+        typeCache.invalidateAll();
+        enumConstants.clear();
+        inherited.clear();
+    }
+
+    // New types only turn failed lookups into successful ones
+    private void forgetUnresolved() {
+        typeCache.asMap().values().removeIf(reference -> !reference.isSolved());
+        enumConstants.values().removeIf(Optional::isEmpty);
+        inherited.values().removeIf(List::isEmpty);
+    }
+
+    // ============================================================
+    // RESOLUTION
+    // ============================================================
+
+    /**
+     * The model with resolved enum parameter types added to its enums and
+     * inherited public methods appended to its methods. Anything that can't
+     * be resolved is left as the plain syntactic model had it.
+     */
+    ClassModel resolve(ClassModel model, ClassOrInterfaceDeclaration declaration) {
+        lock.lock();
+        try {
+            List<EnumModel> enums = new ArrayList<>(model.enums());
+            Set<String> known = new HashSet<>();
+            for (EnumModel declared : model.enums()) {
+                known.add(declared.name());
+                known.add(declared.nestedName());
+            }
+            // Names resolve the same way for every class with this package and these imports
+            String scope = model.packageName() + "|" + model.imports().hashCode() + "|";
+            List<CallableDeclaration<?>> callables = new ArrayList<>(declaration.getConstructors());
+            declaration.getMethods().stream().filter(m -> m.isPublic()).forEach(callables::add);
+            for (CallableDeclaration<?> callable : callables) {
+                for (Parameter parameter : callable.getParameters()) {
+                    String written = parameter.getTypeAsString();
+                    if (parameter.getType().isPrimitiveType() || !known.add(written)) {
+                        continue;
+                    }
+                    enumConstants(scope + written, parameter)
+                            .ifPresent(constants -> enums.add(new EnumModel(written, written, constants)));
+                }
+            }
+
+            List<MethodModel> methods = new ArrayList<>(model.methods());
+            Set<String> declared = new HashSet<>();
+            for (MethodModel method : model.methods()) {
+                declared.add(erasedSignature(method));
+            }
+            for (ClassOrInterfaceType supertype : supertypes(declaration)) {
+                for (MethodModel method : inheritedMethods(scope + supertype.asString(), supertype)) {
+                    if (declared.add(erasedSignature(method))) {
+                        methods.add(method);
+                    }
+                }
+            }
+            return new ClassModel(model.packageName(), model.className(), model.typeName(), model.fields(),
+                    model.constructors(), List.copyOf(methods), List.copyOf(enums), model.imports());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<List<String>> enumConstants(String key, Parameter parameter) {
+        Optional<List<String>> cached = enumConstants.get(key);
+        if (cached != null) {
+            resolutionHits.increment();
+            return cached;
+        }
+        resolutionMisses.increment();
+        Optional<List<String>> constants = Optional.empty();
+        try {
+            ResolvedType type = parameter.getType().resolve();
+            if (type.isReferenceType()) {
+                ResolvedReferenceTypeDeclaration declaration = type.asReferenceType().getTypeDeclaration().orElse(null);
+                if (declaration != null && declaration.isEnum()) {
+                    constants = Optional.of(declaration.asEnum().getEnumConstants().stream()
+                            .map(ResolvedEnumConstantDeclaration::getName)
+                            .toList());
+                }
+            }
+        } catch (RuntimeException e) {
+            // unresolvable: treated like any other class name
+        }
+        enumConstants.put(key, constants);
+        return constants;
+    }
+
+    private List<MethodModel> inheritedMethods(String key, ClassOrInterfaceType supertype) {
+        List<MethodModel> cached = inherited.get(key);
+        if (cached != null) {
+            resolutionHits.increment();
+            return cached;
+        }
+        resolutionMisses.increment();
+        List<MethodModel> methods = new ArrayList<>();
+        try {
+            ResolvedReferenceType resolved = supertype.resolve().asReferenceType();
+            List<ResolvedReferenceType> chain = new ArrayList<>();
+            chain.add(resolved);
+            chain.addAll(resolved.getAllAncestors());
+            for (ResolvedReferenceType ancestor : chain) {
+                if (ancestor.isJavaLangObject()) {
+                    continue;
+                }
+                ancestor.getDeclaredMethods().stream()
+                        .filter(usage -> usage.getDeclaration().accessSpecifier() == AccessSpecifier.PUBLIC
+                                && !usage.getDeclaration().isAbstract())
+                        .sorted(Comparator.comparing(MethodUsage::getSignature))
+                        .forEach(usage -> methods.add(toModel(usage)));
+            }
+        } catch (RuntimeException e) {
+            methods.clear(); // partially resolved hierarchies are skipped as a whole
+        }
+        List<MethodModel> result = List.copyOf(methods);
+        inherited.put(key, result);
+        return result;
+    }
+
+    private static MethodModel toModel(MethodUsage usage) {
+        ResolvedMethodDeclaration declaration = usage.getDeclaration();
+        List<ParamModel> params = new ArrayList<>(usage.getNoParams());
+        for (int i = 0; i < usage.getNoParams(); i++) {
+            ResolvedType type = usage.getParamType(i);
+            params.add(new ParamModel(parameterName(declaration, i), type.describe(), type.isPrimitive()));
+        }
+        List<String> thrown = new ArrayList<>();
+        for (int i = 0; i < declaration.getNumberOfSpecifiedExceptions(); i++) {
+            thrown.add(declaration.getSpecifiedException(i).describe());
+        }
+        String qualified = declaration.getQualifiedSignature();
+        return new MethodModel(usage.getName(), usage.returnType().describe(), List.copyOf(params), List.copyOf(thrown),
+                List.of(), Set.of(), declaration.isStatic(),
+                Long.parseUnsignedLong(SourceFingerprint.sha256(qualified).substring(0, 16), 16));
+    }
+
+    // Jar and JRE declarations often carry no parameter names
+    private static String parameterName(ResolvedMethodDeclaration declaration, int index) {
+        try {
+            String name = declaration.getParam(index).getName();
+            return name == null || name.isEmpty() ? "arg" + index : name;
+        } catch (RuntimeException e) {
+            return "arg" + index;
+        }
+    }
+
+    private static List<ClassOrInterfaceType> supertypes(ClassOrInterfaceDeclaration declaration) {
+        List<ClassOrInterfaceType> supertypes = new ArrayList<>(declaration.getExtendedTypes());
+        supertypes.addAll(declaration.getImplementedTypes());
+        return supertypes;
+    }
+
+    // "add(int,List)": written and resolved type names differ in qualification and generics
+    private static String erasedSignature(MethodModel method) {
+        StringBuilder signature = new StringBuilder(method.name()).append('(');
+        for (ParamModel param : method.params()) {
+            String type = param.type();
+            int generic = type.indexOf('<');
+            String raw = generic >= 0 ? type.substring(0, generic) : type;
+            signature.append(raw.substring(raw.lastIndexOf('.') + 1)).append(',');
+        }
+        return signature.append(')').toString();
+    }
+
+    // ============================================================
+    // STATS
+    // ============================================================
+
+    long estimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    long resolutionHits() {
+        return resolutionHits.sum();
+    }
+
+    long resolutionMisses() {
+        return resolutionMisses.sum();
+    }
+
+    long typeLookupHits() {
+        return typeCache.stats().hitCount();
+    }
+
+    long typeLookupMisses() {
+        return typeCache.stats().missCount();
+    }
+
+    private record Unit(String hash, int length) {}
+}
@@ -0,0 +1,230 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.WriterStats;
+import com.example.unittestgenerator.models.ContentBlob;
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes generated tests to the database off the request path. Requests
+ * enqueue a {@link PendingSave}; a single background thread drains the queue
+ * and stores each batch in one transaction. When the queue is full, callers
+ * wait up to the offer timeout and the save is dropped after that.
+ * Anything still queued on shutdown is flushed before the context closes.
+ */
+@Component
+public class SavedTestWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(SavedTestWriter.class);
+
+    private final SavedTestRepository savedTestRepository;
+    private final UserRepository userRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final GeneratorMetrics metrics;
+    private final HistorySearchIndex searchIndex;
+
+    private final BlockingQueue<PendingSave> queue;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean closed;
+    private Thread worker;
+
+    public SavedTestWriter(SavedTestRepository savedTestRepository,
+                           UserRepository userRepository,
+                           BlobStore blobStore,
+                           TransactionTemplate transactionTemplate,
+                           GeneratorMetrics metrics,
+                           HistorySearchIndex searchIndex,
+                           @Value("${generator.persistence.queue-capacity:10000}") int queueCapacity,
+                           @Value("${generator.persistence.batch-size:100}") int batchSize,
+                           @Value("${generator.persistence.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        this.savedTestRepository = savedTestRepository;
+        this.userRepository = userRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = transactionTemplate;
+        this.metrics = metrics;
+        this.searchIndex = searchIndex;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        MeterRegistry registry = metrics.registry();
+        Gauge.builder("generator.persist.queue.depth", queue, BlockingQueue::size).register(registry);
+        FunctionCounter.builder("generator.persist.written", written, LongAdder::sum).register(registry);
+        FunctionCounter.builder("generator.persist.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("generator.persist.failed", failed, LongAdder::sum).register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "saved-test-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        closed = true;
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    // Returns false when the save had to be dropped because the queue stayed full
+    public boolean submit(PendingSave save) {
+        try {
+            if (!closed && queue.offer(save, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Synchronous path for batch requests: the whole list goes in one
+     * transaction, or joins the caller's (a job's per-file commit). No retry:
+     * blobs are written insert-if-absent, and a failure inside a joined
+     * transaction has already marked it rollback-only.
+     */
+    public void persistNow(List<PendingSave> saves) {
+        if (saves.isEmpty()) {
+            return;
+        }
+        metrics.timePersist(false, () -> persistBatch(saves));
+    }
+
+    public WriterStats stats() {
+        return new WriterStats(queue.size(), queueCapacity, written.sum(), dropped.sum(), failed.sum(), batches.sum());
+    }
+
+    private void drainLoop() {
+        List<PendingSave> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSave first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                metrics.timePersist(true, () -> writeWithFallback(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Saved test writer loop failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // A bad row (e.g. unknown user id) must not take the rest of its batch down with it
+    private void writeWithFallback(List<PendingSave> batch) {
+        try {
+            persistBatch(batch);
+            return;
+        } catch (Exception e) {
+            log.warn("Batch of {} saved tests failed, retrying one by one: {}", batch.size(), e.getMessage());
+        }
+        for (PendingSave save : batch) {
+            try {
+                persistBatch(List.of(save));
+            } catch (Exception e) {
+                failed.increment();
+            }
+        }
+    }
+
+    private void persistBatch(List<PendingSave> saves) {
+        List<SavedTest> saved = transactionTemplate.execute(status -> {
+            List<String> bodies = new ArrayList<>(saves.size() * 2);
+            for (PendingSave save : saves) {
+                bodies.add(save.sourceCode());
+                bodies.add(save.generatedTestCode());
+            }
+            Map<String, ContentBlob> blobs = blobStore.storeAll(bodies);
+
+            List<SavedTest> entities = new ArrayList<>(saves.size());
+            for (PendingSave save : saves) {
+                SavedTest savedTest = new SavedTest();
+                savedTest.setUser(userRepository.getReferenceById(save.userId())); // no SELECT on users
+                savedTest.setClassName(save.className());
+                savedTest.setSourceBlob(blobFor(blobs, save.sourceCode()));
+                savedTest.setSourceSize(lengthOf(save.sourceCode()));
+                savedTest.setTestBlob(blobFor(blobs, save.generatedTestCode()));
+                savedTest.setTestSize(lengthOf(save.generatedTestCode()));
+                if (save.classModel() != null) {
+                    savedTest.setClassModel(ClassModelCodec.encode(save.classModel()));
+                }
+                savedTest.setSearchTerms(SearchTerms.of(save.className(), save.classModel(), save.sourceCode()));
+                entities.add(savedTest);
+            }
+            savedTestRepository.saveAll(entities);
+            return entities;
+        });
+        afterCommit(() -> {
+            searchIndex.added(saved);
+            written.add(saves.size());
+            batches.increment();
+        });
+    }
+
+    // Inside a caller's transaction the rows only exist once it commits; a rollback must not reach the index
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ContentBlob blobFor(Map<String, ContentBlob> blobs, String text) {
+        return text == null ? null : blobs.get(BlobStore.hashOf(text));
+    }
+
+    private static Integer lengthOf(String text) {
+        return text == null ? null : text.length();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.unittestgenerator.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the words a saved test can be found by: the class name, method
+ * names and signature types from its model, then the identifiers of the
+ * source. Each identifier is indexed whole and by its camel-case parts,
+ * lowercased, so "calc" finds "PaymentCalculator". Terms are stored with the
+ * row as one space-separated string and read back by {@link HistorySearchIndex}.
+ */
+final class SearchTerms {
+
+    // Model terms come first, so the cap only ever cuts source identifiers
+    static final int MAX_TERMS = 256;
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 64;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+    // "HTTPResponse" -> HTTP, Response; "parseInt2" -> parse, Int2
+    private static final Pattern CAMEL_PART = Pattern.compile("[A-Z]+(?![a-z])|[A-Z]?[a-z]+|[0-9]+");
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+            "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float",
+            "for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long", "native",
+            "new", "package", "private", "protected", "public", "return", "short", "static", "strictfp",
+            "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void",
+            "volatile", "while", "var", "record", "yield", "sealed", "permits", "true", "false", "null");
+
+    private SearchTerms() {}
+
+    // The stored form: distinct terms separated by single spaces
+    static String of(String className, ClassModel model, String sourceCode) {
+        Set<String> terms = new LinkedHashSet<>();
+        addIdentifiers(terms, className);
+        if (model != null) {
+            addIdentifiers(terms, model.typeName());
+            addIdentifiers(terms, model.packageName());
+            for (ClassModel.MethodModel method : model.methods()) {
+                addIdentifiers(terms, method.name());
+                addIdentifiers(terms, method.returnType());
+                for (ClassModel.ParamModel param : method.params()) {
+                    addIdentifiers(terms, param.type());
+                }
+            }
+        }
+        addIdentifiers(terms, sourceCode);
+        return String.join(" ", terms);
+    }
+
+    // Query words, lowercased; each one is matched as a prefix
+    static List<String> queryOf(String query) {
+        List<String> words = new ArrayList<>();
+        if (query == null) {
+            return words;
+        }
+        Matcher matcher = IDENTIFIER.matcher(query);
+        while (matcher.find()) {
+            String word = matcher.group().toLowerCase(Locale.ROOT);
+            if (!words.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static void addIdentifiers(Set<String> terms, String text) {
+        if (text == null) {
+            return;
+        }
+        Matcher matcher = IDENTIFIER.matcher(text);
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            String identifier = matcher.group();
+            if (KEYWORDS.contains(identifier)) {
+                continue;
+            }
+            add(terms, identifier);
+            Matcher parts = CAMEL_PART.matcher(identifier);
+            int count = 0;
+            while (parts.find()) {
+                count++;
+            }
+            if (count > 1) {
+                parts.reset();
+                while (parts.find()) {
+                    add(terms, parts.group());
+                }
+            }
+        }
+    }
+
+    private static void add(Set<String> terms, String word) {
+        if (word.length() >= MIN_LENGTH && word.length() <= MAX_LENGTH && terms.size() < MAX_TERMS) {
+            terms.add(word.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.unittestgenerator.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content hash of a Java source file that ignores formatting.
+ * Comments are dropped and whitespace is collapsed, but string, char and
+ * text-block literals are kept verbatim, so two sources share a fingerprint
+ * only when they would produce the same generated tests.
+ */
+public final class SourceFingerprint {
+
+    private SourceFingerprint() {}
+
+    public static String of(String sourceCode) {
+        return sha256(normalize(sourceCode));
+    }
+
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String normalize(String src) {
+        StringBuilder out = new StringBuilder(src.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        int n = src.length();
+
+        while (i < n) {
+            char c = src.charAt(i);
+
+            // Comments behave like whitespace
+            if (c == '/' && i + 1 < n && src.charAt(i + 1) == '/') {
+                while (i < n && src.charAt(i) != '\n') i++;
+                pendingSpace = true;
+                continue;
+            }
+            if (c == '/' && i + 1 < n && src.charAt(i + 1) == '*') {
+                int end = src.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                pendingSpace = true;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            if (pendingSpace && out.length() > 0 && needsSeparator(out.charAt(out.length() - 1), c)) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+
+            // Literals are copied exactly, including any whitespace inside them
+            if (c == '"' && src.startsWith("\"\"\"", i)) {
+                int end = src.indexOf("\"\"\"", i + 3);
+                while (end > 0 && src.charAt(end - 1) == '\\') end = src.indexOf("\"\"\"", end + 1);
+                int stop = end < 0 ? n : end + 3;
+                out.append(src, i, stop);
+                i = stop;
+            } else if (c == '"' || c == '\'') {
+                int j = i + 1;
+                while (j < n && src.charAt(j) != c && src.charAt(j) != '\n') {
+                    if (src.charAt(j) == '\\') j++;
+                    j++;
+                }
+                int stop = Math.min(j + 1, n);
+                out.append(src, i, stop);
+                i = stop;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    // "int x" must not collapse to "intx", nor "a - -b" to "a--b"
+    private static boolean needsSeparator(char prev, char next) {
+        boolean prevWord = Character.isJavaIdentifierPart(prev);
+        boolean nextWord = Character.isJavaIdentifierPart(next);
+        if (prevWord && nextWord) return true;
+        return !prevWord && !nextWord && isOperator(prev) && isOperator(next);
+    }
+
+    private static boolean isOperator(char c) {
+        return "+-*/%&|^!~<>=?:".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.EdgeCase;
+import com.example.unittestgenerator.dto.Suggestion;
+import com.example.unittestgenerator.service.ClassModel.BodyHint;
+import com.example.unittestgenerator.service.ClassModel.EnumModel;
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import com.example.unittestgenerator.service.ClassModel.ParamModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Edge cases worth a hand-written test, per public method. The generated
+ * file covers the happy path and the value boundaries; these are the cases
+ * it can't assert on without knowing the intended behaviour. Everything
+ * comes from the {@link ClassModel}, so this never touches the parse tree.
+ */
+final class SuggestionEngine {
+
+    private static final Set<String> NUMERIC = Set.of(
+            "int", "long", "short", "byte", "double", "float",
+            "Integer", "Long", "Short", "Byte", "Double", "Float", "BigDecimal", "BigInteger");
+
+    private static final Set<String> COLLECTIONS = Set.of(
+            "List", "Collection", "Iterable", "Set", "Map", "Queue", "Deque");
+
+    private final HeuristicValueRegistry heuristicValues;
+
+    SuggestionEngine(HeuristicValueRegistry heuristicValues) {
+        this.heuristicValues = heuristicValues;
+    }
+
+    List<Suggestion> suggest(ClassModel model) {
+        HeuristicValueRegistry.UnitValues values = heuristicValues.forModel(model);
+        String instance = model.className().substring(0, 1).toLowerCase() + model.className().substring(1);
+        boolean hasMutableFields = model.fields().stream().anyMatch(f -> !f.isStatic() && !f.isFinal());
+
+        List<Suggestion> suggestions = new ArrayList<>(model.methods().size());
+        for (MethodModel method : model.methods()) {
+            List<EdgeCase> edgeCases = new ArrayList<>();
+            String target = (method.isStatic() ? model.typeName() : instance) + "." + method.name();
+
+            for (int i = 0; i < method.params().size(); i++) {
+                addParameterCases(edgeCases, model, values, target, method, i);
+            }
+            addBodyCases(edgeCases, values, target, method);
+            addResultCases(edgeCases, call(values, target, method, -1, null), method, hasMutableFields);
+
+            if (!edgeCases.isEmpty()) {
+                suggestions.add(new Suggestion(method.declaration(), edgeCases));
+            }
+        }
+        return suggestions;
+    }
+
+    // ============================================================
+    // PARAMETERS
+    // ============================================================
+
+    private void addParameterCases(List<EdgeCase> edgeCases, ClassModel model, HeuristicValueRegistry.UnitValues values,
+                                   String target, MethodModel method, int index) {
+        ParamModel param = method.params().get(index);
+        String type = param.type();
+        String raw = rawType(type);
+
+        if (!param.primitive()) {
+            edgeCases.add(new EdgeCase("Null " + param.name(),
+                    "assertThrows(NullPointerException.class, () -> " + call(values, target, method, index, "null") + ");"));
+        }
+
+        if (NUMERIC.contains(raw)) {
+            ValueTable table = values.resolve(type);
+            edgeCases.add(new EdgeCase("Zero " + param.name(),
+                    call(values, target, method, index, table.literal(HeuristicKind.ZERO)) + ";"));
+            edgeCases.add(new EdgeCase("Negative " + param.name(),
+                    call(values, target, method, index, table.literal(HeuristicKind.NEGATIVE)) + ";"));
+            edgeCases.add(new EdgeCase("Overflow at the maximum " + param.name(),
+                    call(values, target, method, index, table.literal(HeuristicKind.MAX)) + ";"));
+        } else if (raw.equals("String") || raw.equals("CharSequence")) {
+            edgeCases.add(new EdgeCase("Empty " + param.name(), call(values, target, method, index, "\"\"") + ";"));
+            edgeCases.add(new EdgeCase("Blank " + param.name(), call(values, target, method, index, "\"   \"") + ";"));
+        } else if (type.endsWith("[]")) {
+            edgeCases.add(new EdgeCase("Empty array " + param.name(),
+                    call(values, target, method, index, "new " + type.substring(0, type.indexOf('[')) + "[0]") + ";"));
+        } else if (COLLECTIONS.contains(raw)) {
+            String empty = raw.equals("Map") ? "java.util.Map.of()"
+                    : raw.equals("Set") ? "java.util.Set.of()" : "java.util.List.of()";
+            edgeCases.add(new EdgeCase("Empty " + param.name(), call(values, target, method, index, empty) + ";"));
+        } else if (raw.equals("Optional")) {
+            edgeCases.add(new EdgeCase("Absent " + param.name(),
+                    call(values, target, method, index, "java.util.Optional.empty()") + ";"));
+        } else {
+            EnumModel declared = findEnum(model, raw);
+            if (declared != null) {
+                edgeCases.add(new EdgeCase("Every " + declared.name() + " constant for " + param.name(),
+                        "@ParameterizedTest\n@EnumSource(" + declared.nestedName() + ".class)"));
+            }
+        }
+    }
+
+    // ============================================================
+    // BODY AND THROWS CLAUSE
+    // ============================================================
+
+    private void addBodyCases(List<EdgeCase> edgeCases, HeuristicValueRegistry.UnitValues values,
+                              String target, MethodModel method) {
+        Set<String> exceptions = new LinkedHashSet<>(method.thrown());
+        exceptions.addAll(method.thrownInBody());
+        for (String exception : exceptions) {
+            edgeCases.add(new EdgeCase("Throws " + exception,
+                    "assertThrows(" + exception + ".class, () -> " + call(values, target, method, -1, null) + ");"));
+        }
+
+        if (method.hints().contains(BodyHint.DIVIDES)) {
+            int divisor = lastNumericParam(method);
+            if (divisor >= 0) {
+                String zero = values.resolve(method.params().get(divisor).type()).literal(HeuristicKind.ZERO);
+                edgeCases.add(new EdgeCase("Division by zero",
+                        "assertThrows(ArithmeticException.class, () -> " + call(values, target, method, divisor, zero) + ");"));
+            }
+        }
+        if (method.hints().contains(BodyHint.INDEXES)) {
+            edgeCases.add(new EdgeCase("Index out of bounds",
+                    "assertThrows(IndexOutOfBoundsException.class, () -> " + call(values, target, method, -1, null) + ");"));
+        }
+        if (method.hints().contains(BodyHint.LOOPS) && !method.params().isEmpty()) {
+            edgeCases.add(new EdgeCase("Large input",
+                    "assertTimeoutPreemptively(java.time.Duration.ofSeconds(1), () -> " + call(values, target, method, -1, null) + ");"));
+        }
+    }
+
+    // ============================================================
+    // RESULTS AND STATE
+    // ============================================================
+
+    private void addResultCases(List<EdgeCase> edgeCases, String call, MethodModel method, boolean hasMutableFields) {
+        String raw = rawType(method.returnType());
+        if (raw.equals("boolean") || raw.equals("Boolean")) {
+            edgeCases.add(new EdgeCase("Input that returns false", "assertFalse(" + call + ");"));
+        } else if (raw.equals("Optional")) {
+            edgeCases.add(new EdgeCase("Empty result", "assertTrue(" + call + ".isEmpty());"));
+        } else if (COLLECTIONS.contains(raw)) {
+            edgeCases.add(new EdgeCase("Empty result", "assertTrue(" + call + ".isEmpty());"));
+        } else if (raw.equals("void") && hasMutableFields) {
+            edgeCases.add(new EdgeCase("State after the call",
+                    call + ";\n// assert on the fields this method changes"));
+        }
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    // The call with positive values, except one argument replaced (index -1 replaces none)
+    private static String call(HeuristicValueRegistry.UnitValues values, String target, MethodModel method,
+                               int replaced, String replacement) {
+        StringBuilder call = new StringBuilder(target).append('(');
+        List<ParamModel> params = method.params();
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) call.append(", ");
+            call.append(i == replaced ? replacement : values.resolve(params.get(i).type()).literal(HeuristicKind.POSITIVE));
+        }
+        return call.append(')').toString();
+    }
+
+    private static int lastNumericParam(MethodModel method) {
+        for (int i = method.params().size() - 1; i >= 0; i--) {
+            if (NUMERIC.contains(rawType(method.params().get(i).type()))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static EnumModel findEnum(ClassModel model, String name) {
+        for (EnumModel declared : model.enums()) {
+            if (declared.name().equals(name) || declared.nestedName().equals(name)) {
+                return declared;
+            }
+        }
+        return null;
+    }
+
+    // "java.util.List<String>" -> "List"
+    private static String rawType(String type) {
+        int generic = type.indexOf('<');
+        String raw = generic >= 0 ? type.substring(0, generic) : type;
+        return raw.substring(raw.lastIndexOf('.') + 1).trim();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.SymbolCacheStats;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link ProjectSymbols} of recently used projects, so consecutive
+ * requests for one project share its parsed sources, jar indexes and
+ * resolution results. Bounded by project count and by an estimate of the
+ * heap they hold; the least recently used project goes first.
+ */
+@Component
+public class SymbolSolverCache {
+
+    private final boolean enabled;
+    private final int maxProjects;
+    private final long maxBytes;
+    private final Map<String, ProjectSymbols> projects = new LinkedHashMap<>(16, 0.75f, true); // access order
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Resolution counters of evicted projects, so the totals don't go backwards
+    private long releasedResolutionHits;
+    private long releasedResolutionMisses;
+    private long releasedTypeLookupHits;
+    private long releasedTypeLookupMisses;
+
+    public SymbolSolverCache(@Value("${generator.symbols.enabled:true}") boolean enabled,
+                             @Value("${generator.symbols.max-projects:16}") int maxProjects,
+                             @Value("${generator.symbols.max-bytes:268435456}") long maxBytes,
+                             GeneratorMetrics metrics) {
+        this.enabled = enabled;
+        this.maxProjects = Math.max(1, maxProjects);
+        this.maxBytes = maxBytes;
+        metrics.bindSymbolCache(this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Creates the project on first use; throws when symbol resolution is switched off.
+    // Projects belong to the user who names them, so one user can never read or change another's.
+    public ProjectSymbols project(Long ownerId, String projectId) {
+        if (!enabled) {
+            throw new IllegalArgumentException("Symbol resolution is disabled on this server.");
+        }
+        String key = keyOf(ownerId, projectId);
+        List<ProjectSymbols> evicted;
+        ProjectSymbols project;
+        synchronized (projects) {
+            project = projects.get(key);
+            if (project != null) {
+                hits.increment();
+                return project;
+            }
+            misses.increment();
+            project = new ProjectSymbols(projectId);
+            projects.put(key, project);
+            evicted = evictOverBudget(project);
+        }
+        release(evicted);
+        return project;
+    }
+
+    public void addJar(Long ownerId, String projectId, Path jar) throws IOException {
+        project(ownerId, projectId).addJar(jar);
+        enforceBudget();
+    }
+
+    public boolean drop(Long ownerId, String projectId) {
+        String key = keyOf(ownerId, projectId);
+        ProjectSymbols removed;
+        synchronized (projects) {
+            removed = projects.remove(key);
+        }
+        if (removed != null) {
+            release(List.of(removed));
+        }
+        return removed != null;
+    }
+
+    private static String keyOf(Long ownerId, String projectId) {
+        if (ownerId == null) {
+            throw new IllegalArgumentException("Projects belong to a user; sign in and send the bearer token.");
+        }
+        if (projectId == null || projectId.isBlank()) {
+            throw new IllegalArgumentException("A projectId is required for symbol resolution.");
+        }
+        return ownerId + "/" + projectId;
+    }
+
+    // Sources only grow a project after it was looked up, so callers check again once they are registered
+    public void enforceBudget() {
+        List<ProjectSymbols> evicted;
+        synchronized (projects) {
+            evicted = evictOverBudget(null);
+        }
+        release(evicted);
+    }
+
+    private List<ProjectSymbols> evictOverBudget(ProjectSymbols keep) {
+        List<ProjectSymbols> evicted = new ArrayList<>();
+        long total = estimatedBytesLocked();
+        Iterator<ProjectSymbols> eldestFirst = projects.values().iterator();
+        while ((projects.size() > maxProjects || total > maxBytes) && eldestFirst.hasNext()) {
+            ProjectSymbols project = eldestFirst.next();
+            if (project == keep) {
+                continue;
+            }
+            eldestFirst.remove();
+            total -= project.estimatedBytes();
+            releasedResolutionHits += project.resolutionHits();
+            releasedResolutionMisses += project.resolutionMisses();
+            releasedTypeLookupHits += project.typeLookupHits();
+            releasedTypeLookupMisses += project.typeLookupMisses();
+            evicted.add(project);
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    private static void release(List<ProjectSymbols> evicted) {
+        if (evicted.isEmpty()) {
+            return;
+        }
+        for (ProjectSymbols project : evicted) {
+            project.release();
+        }
+        // JavaParser keeps one facade per type solver in a static map whose values
+        // reference their keys, so dropped projects are only collectable after this
+        JavaParserFacade.clearInstances();
+    }
+
+    private long estimatedBytesLocked() {
+        long total = 0;
+        for (ProjectSymbols project : projects.values()) {
+            total += project.estimatedBytes();
+        }
+        return total;
+    }
+
+    public SymbolCacheStats stats() {
+        synchronized (projects) {
+            long resolutionHits = releasedResolutionHits;
+            long resolutionMisses = releasedResolutionMisses;
+            long typeLookupHits = releasedTypeLookupHits;
+            long typeLookupMisses = releasedTypeLookupMisses;
+            for (ProjectSymbols project : projects.values()) {
+                resolutionHits += project.resolutionHits();
+                resolutionMisses += project.resolutionMisses();
+                typeLookupHits += project.typeLookupHits();
+                typeLookupMisses += project.typeLookupMisses();
+            }
+            return new SymbolCacheStats(enabled, projects.size(), maxProjects, estimatedBytesLocked(), maxBytes,
+                    hits.sum(), misses.sum(), evictions.sum(), resolutionHits, resolutionMisses,
+                    typeLookupHits, typeLookupMisses);
+        }
+    }
+}
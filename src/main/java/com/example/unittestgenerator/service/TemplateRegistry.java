@@ -0,0 +1,147 @@
+package com.example.unittestgenerator.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Output styles, compiled once at startup. Built-in styles (junit5, junit4,
+ * testng, assertj) live on the classpath under generator-templates/&lt;style&gt;/.
+ * A directory configured with generator.templates.dir is read last, laid
+ * out the same way. Its files replace single templates of an existing
+ * style, or define new styles.
+ */
+@Component
+public class TemplateRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateRegistry.class);
+
+    static final String CLASSPATH_ROOT = "generator-templates";
+    static final String BASE_STYLE = "junit5";
+
+    private final Map<String, TemplateSet> styles;
+    private final TemplateSet defaultSet;
+
+    public TemplateRegistry(@Value("${generator.templates.default-style:junit5}") String defaultStyle,
+                            @Value("${generator.templates.dir:}") String directory) {
+        Map<String, Map<TemplateSet.Kind, String>> sources = new TreeMap<>();
+        loadClasspath(sources);
+        if (directory != null && !directory.isBlank()) {
+            loadDirectory(Path.of(directory), sources);
+        }
+        this.styles = compile(sources);
+        this.defaultSet = resolve(defaultStyle);
+        log.info("Loaded test template styles {}, default {}", styles.keySet(), defaultSet.getStyle());
+    }
+
+    public static TemplateRegistry defaults() {
+        return new TemplateRegistry(BASE_STYLE, null);
+    }
+
+    public TemplateSet getDefault() {
+        return defaultSet;
+    }
+
+    // null or blank means the configured default
+    public TemplateSet resolve(String style) {
+        if (style == null || style.isBlank()) {
+            return defaultSet;
+        }
+        TemplateSet set = styles.get(style.trim().toLowerCase(Locale.ROOT));
+        if (set == null) {
+            throw new IllegalArgumentException("Unknown template style: " + style + " (available: " + styles.keySet() + ")");
+        }
+        return set;
+    }
+
+    private static void loadClasspath(Map<String, Map<TemplateSet.Kind, String>> sources) {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver(TemplateRegistry.class.getClassLoader())
+                    .getResources("classpath*:" + CLASSPATH_ROOT + "/*/*.tmpl");
+            for (Resource resource : resources) {
+                String path = resource.getURL().getPath();
+                String[] parts = path.substring(path.lastIndexOf(CLASSPATH_ROOT + "/") + CLASSPATH_ROOT.length() + 1).split("/");
+                if (parts.length != 2) {
+                    continue;
+                }
+                try (InputStream in = resource.getInputStream()) {
+                    put(sources, parts[0], parts[1], new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read built-in test templates", e);
+        }
+    }
+
+    private static void loadDirectory(Path root, Map<String, Map<TemplateSet.Kind, String>> sources) {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalArgumentException("Template directory does not exist: " + root);
+        }
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (file.getNameCount() - root.getNameCount() == 2) {
+                    put(sources, file.getParent().getFileName().toString(), file.getFileName().toString(),
+                            Files.readString(file, StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read test templates from " + root, e);
+        }
+    }
+
+    private static void put(Map<String, Map<TemplateSet.Kind, String>> sources, String style, String fileName, String text) {
+        TemplateSet.Kind kind = TemplateSet.Kind.byFileName(fileName);
+        if (kind == null) {
+            log.warn("Ignoring unknown template file {}/{}", style, fileName);
+            return;
+        }
+        sources.computeIfAbsent(style.toLowerCase(Locale.ROOT), s -> new EnumMap<>(TemplateSet.Kind.class)).put(kind, text);
+    }
+
+    // Every style is compiled up front, so a broken template fails startup rather than a request
+    private static Map<String, TemplateSet> compile(Map<String, Map<TemplateSet.Kind, String>> sources) {
+        Map<TemplateSet.Kind, String> base = sources.get(BASE_STYLE);
+        if (base == null || base.size() != TemplateSet.Kind.values().length) {
+            throw new IllegalStateException("The " + BASE_STYLE + " template style must define every template");
+        }
+        CodeTemplate[] baseTemplates = new CodeTemplate[TemplateSet.Kind.values().length];
+        for (TemplateSet.Kind kind : TemplateSet.Kind.values()) {
+            baseTemplates[kind.ordinal()] = kind.compile(BASE_STYLE, base.get(kind));
+        }
+
+        Map<String, TemplateSet> styles = new HashMap<>();
+        for (Map.Entry<String, Map<TemplateSet.Kind, String>> style : sources.entrySet()) {
+            CodeTemplate[] templates = baseTemplates.clone();
+            for (Map.Entry<TemplateSet.Kind, String> template : style.getValue().entrySet()) {
+                templates[template.getKey().ordinal()] = template.getKey().compile(style.getKey(), template.getValue());
+            }
+            styles.put(style.getKey(), new TemplateSet(style.getKey(), templates, fingerprintOf(base, style.getValue())));
+        }
+        return Map.copyOf(styles);
+    }
+
+    // The effective text of every kind, so editing an inherited junit5 template changes the other styles' hashes too
+    private static String fingerprintOf(Map<TemplateSet.Kind, String> base, Map<TemplateSet.Kind, String> own) {
+        StringBuilder texts = new StringBuilder();
+        for (TemplateSet.Kind kind : TemplateSet.Kind.values()) {
+            texts.append(kind.fileName()).append('\0').append(own.getOrDefault(kind, base.get(kind))).append('\0');
+        }
+        return SourceFingerprint.sha256(texts.toString()).substring(0, 16);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.unittestgenerator.service;
+
+import java.util.Locale;
+
+/**
+ * One output style: a compiled template for every {@link Kind}. Styles that
+ * only override some kinds take the rest from the default style.
+ */
+public final class TemplateSet {
+
+    public enum Kind {
+        HEADER("header", false),
+        HAPPY_PATH("happy-path", false),
+        BOUNDARIES("boundaries", false),
+        NULL_INPUTS("null-inputs", false),
+        FOOTER("footer", false),
+        // Inline templates sit inside a line, so their file's trailing newline is dropped
+        ASSERT_VALUE("assert-value", true),
+        ASSERT_BOOLEAN("assert-boolean", true),
+        ASSERT_VOID("assert-void", true);
+
+        private final String fileName;
+        private final boolean inline;
+
+        Kind(String fileName, boolean inline) {
+            this.fileName = fileName;
+            this.inline = inline;
+        }
+
+        public String fileName() {
+            return fileName + ".tmpl";
+        }
+
+        static Kind byFileName(String fileName) {
+            for (Kind kind : values()) {
+                if (kind.fileName().equals(fileName.toLowerCase(Locale.ROOT))) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+
+        CodeTemplate compile(String style, String text) {
+            if (inline && text.endsWith("\n")) {
+                text = text.substring(0, text.length() - (text.endsWith("\r\n") ? 2 : 1));
+            }
+            return CodeTemplate.compile(style + "/" + fileName(), text);
+        }
+    }
+
+    private final String style;
+    private final CodeTemplate[] templates;
+    private final String fingerprint;
+
+    TemplateSet(String style, CodeTemplate[] templates, String fingerprint) {
+        this.style = style;
+        this.templates = templates;
+        this.fingerprint = fingerprint;
+    }
+
+    public String getStyle() {
+        return style;
+    }
+
+    // Hash of the template texts this style renders with, inherited ones included
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public CodeTemplate get(Kind kind) {
+        return templates[kind.ordinal()];
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.unittestgenerator.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ${...} variables a code template may use. Resolved to this enum when
+ * the template is compiled, so rendering never looks at names again.
+ */
+public enum TemplateVar {
+    // Test class
+    CLASS_NAME("className"),
+    TEST_CLASS("testClass"),
+    TYPE("type"),
+    INSTANCE("instance"),
+    PACKAGE("package"),          // "package com.acme;" and a blank line, or nothing
+    IMPORTS("imports"),          // the source file's imports plus what the fixture needs, one per line
+    FIELDS("fields"),            // mock fields and the instance field, indented for a class body
+    SET_UP("setUp"),             // creates the mocks and the instance, indented for a method body
+    SET_UP_THROWS("setUpThrows"), // " throws Exception" when the chosen constructor declares exceptions
+
+    // Current source method
+    METHOD("method"),
+    TEST_NAME("testName"),
+    RETURN_TYPE("returnType"),
+    PARAMS("params"),            // "int a, String b"
+    PARAM_NAMES("paramNames"),   // "a, b"
+    ARGS("args"),                // happy-path literals
+    NULL_ARGS("nullArgs"),       // null for objects, zero for primitives
+    ARGS_POSITIVE("argsPositive"),
+    ARGS_NEGATIVE("argsNegative"),
+    ARGS_ZERO("argsZero"),
+    ARGS_MAX("argsMax"),
+    CSV_POSITIVE("csvPositive"),
+    CSV_NEGATIVE("csvNegative"),
+    CSV_ZERO("csvZero"),
+    CSV_MAX("csvMax"),
+
+    // The call under test with this template's arguments, and the assertion around it
+    CALL("call"),
+    ASSERTION("assertion"),
+    ASSERT_POSITIVE("assertPositive"),
+    ASSERT_NEGATIVE("assertNegative"),
+    ASSERT_ZERO("assertZero"),
+    ASSERT_MAX("assertMax");
+
+    private static final Map<String, TemplateVar> BY_KEY = new HashMap<>();
+
+    static {
+        for (TemplateVar var : values()) {
+            BY_KEY.put(var.key, var);
+        }
+    }
+
+    private final String key;
+
+    TemplateVar(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    static TemplateVar byKey(String key) {
+        return BY_KEY.get(key);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.unittestgenerator.service;
+
+import java.io.IOException;
+
+/**
+ * The pieces a streamed test file is emitted in. Concatenating every chunk in
+ * order gives exactly the mainTestFileContent of a non-streamed generation.
+ */
+public enum TestChunk {
+    HEADER,
+    METHOD,
+    FOOTER;
+
+    @FunctionalInterface
+    public interface Sink {
+        // content is only valid for the duration of the call
+        void accept(TestChunk kind, String name, CharSequence content) throws IOException;
+    }
+}
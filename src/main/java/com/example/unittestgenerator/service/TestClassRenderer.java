@@ -0,0 +1,266 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.service.ClassModel.MethodModel;
+import com.example.unittestgenerator.service.ClassModel.ParamModel;
+
+import java.util.List;
+
+/**
+ * Renders one test class from its {@link ClassModel} through a
+ * {@link TemplateSet}. It is also the binding for every template variable:
+ * values are appended straight into the output as the template reaches
+ * them. It holds per-method state, so use one instance per class and one
+ * thread at a time.
+ */
+final class TestClassRenderer implements CodeTemplate.Bindings {
+
+    // Which argument list ${call} renders with
+    private enum CallArgs { POSITIVE, NEGATIVE, ZERO, MAX, NAMES, NULLS }
+
+    private static final HeuristicKind[] KINDS_BY_CALL = {
+            HeuristicKind.POSITIVE, HeuristicKind.NEGATIVE, HeuristicKind.ZERO, HeuristicKind.MAX};
+
+    // Multi-line fixture values assume the built-in templates' 4-space indentation
+    private static final String CLASS_BODY_INDENT = "\n    ";
+    private static final String METHOD_BODY_INDENT = "\n        ";
+
+    private final TemplateSet templates;
+    private final HeuristicValueRegistry.UnitValues values;
+    private final ClassModel model;
+    private final FixturePlanner.Plan fixture;
+    private final String className;
+    private final String typeName;
+    private final String instanceName;
+
+    private MethodModel method;
+    private String testName;
+    private CallArgs callArgs;
+
+    TestClassRenderer(TemplateSet templates, HeuristicValueRegistry.UnitValues values, ClassModel model,
+                      FixturePlanner.Plan fixture) {
+        this.templates = templates;
+        this.values = values;
+        this.model = model;
+        this.fixture = fixture;
+        this.className = model.className();
+        this.typeName = model.typeName();
+        this.instanceName = instanceName(className);
+    }
+
+    static String instanceName(String className) {
+        return className.substring(0, 1).toLowerCase() + className.substring(1);
+    }
+
+    void appendHeader(StringBuilder out) {
+        templates.get(TemplateSet.Kind.HEADER).render(out, this);
+    }
+
+    // All test methods for one source method; each call is an independent block
+    void appendMethodTests(StringBuilder out, MethodModel method) {
+        this.method = method;
+        String base = testNameBase(method);
+
+        // --- Heuristic 1: The Happy Path ---
+        render(out, TemplateSet.Kind.HAPPY_PATH, base + "_HappyPath", CallArgs.POSITIVE);
+
+        if (!method.params().isEmpty()) {
+            if (canUseParameterizedTest(method)) {
+                // --- Heuristic 2: Parameterized Boundary Testing (For Math/Logic) ---
+                render(out, TemplateSet.Kind.BOUNDARIES, base + "_Boundaries", CallArgs.NAMES);
+            } else {
+                // --- Heuristic 3: Object/Null Edge Cases ---
+                render(out, TemplateSet.Kind.NULL_INPUTS, base + "_NullInputs_ShouldThrowException", CallArgs.NULLS);
+            }
+        }
+        this.method = null;
+    }
+
+    void appendFooter(StringBuilder out) {
+        templates.get(TemplateSet.Kind.FOOTER).render(out, this);
+    }
+
+    // Names of the test methods appendMethodTests emits for this method, in order
+    List<String> testMethodNames(MethodModel method) {
+        String base = testNameBase(method);
+        if (method.params().isEmpty()) {
+            return List.of(base + "_HappyPath");
+        }
+        return List.of(base + "_HappyPath", canUseParameterizedTest(method)
+                ? base + "_Boundaries"
+                : base + "_NullInputs_ShouldThrowException");
+    }
+
+    String instanceName() {
+        return instanceName;
+    }
+
+    private void render(StringBuilder out, TemplateSet.Kind kind, String testName, CallArgs callArgs) {
+        this.testName = testName;
+        this.callArgs = callArgs;
+        templates.get(kind).render(out, this);
+    }
+
+    private boolean canUseParameterizedTest(MethodModel method) {
+        // CsvSource only works for types JUnit can convert from a string
+        return method.params().stream().allMatch(p -> values.resolve(p.type()).isCsvCompatible());
+    }
+
+    // ============================================================
+    // TEMPLATE VARIABLES
+    // ============================================================
+
+    @Override
+    public void append(StringBuilder out, TemplateVar var) {
+        switch (var) {
+            case CLASS_NAME -> out.append(className);
+            case TEST_CLASS -> out.append(model.testClassName());
+            case TYPE -> out.append(typeName);
+            case INSTANCE -> out.append(instanceName);
+            case PACKAGE -> appendPackage(out);
+            case IMPORTS -> appendImports(out);
+            case FIELDS -> appendFields(out);
+            case SET_UP -> appendSetUp(out);
+            case SET_UP_THROWS -> out.append(fixture.constructorThrows() ? " throws Exception" : "");
+            case METHOD -> out.append(method.name());
+            case TEST_NAME -> out.append(testName);
+            case RETURN_TYPE -> out.append(method.returnType());
+            case PARAMS -> appendParams(out, true);
+            case PARAM_NAMES -> appendParams(out, false);
+            case ARGS, ARGS_POSITIVE -> appendLiterals(out, HeuristicKind.POSITIVE);
+            case ARGS_NEGATIVE -> appendLiterals(out, HeuristicKind.NEGATIVE);
+            case ARGS_ZERO -> appendLiterals(out, HeuristicKind.ZERO);
+            case ARGS_MAX -> appendLiterals(out, HeuristicKind.MAX);
+            case NULL_ARGS -> appendNullArgs(out);
+            case CSV_POSITIVE -> appendCsv(out, HeuristicKind.POSITIVE);
+            case CSV_NEGATIVE -> appendCsv(out, HeuristicKind.NEGATIVE);
+            case CSV_ZERO -> appendCsv(out, HeuristicKind.ZERO);
+            case CSV_MAX -> appendCsv(out, HeuristicKind.MAX);
+            case CALL -> appendCall(out);
+            case ASSERTION -> appendAssertion(out);
+            case ASSERT_POSITIVE -> appendAssertion(out, CallArgs.POSITIVE);
+            case ASSERT_NEGATIVE -> appendAssertion(out, CallArgs.NEGATIVE);
+            case ASSERT_ZERO -> appendAssertion(out, CallArgs.ZERO);
+            case ASSERT_MAX -> appendAssertion(out, CallArgs.MAX);
+        }
+    }
+
+    // ============================================================
+    // FIXTURE
+    // ============================================================
+
+    // Same package as the class under test, so package-private members and nested types resolve
+    private void appendPackage(StringBuilder out) {
+        if (model.packageName() != null) {
+            out.append("package ").append(model.packageName()).append(";\n\n");
+        }
+    }
+
+    private void appendImports(StringBuilder out) {
+        for (String imported : model.imports()) {
+            out.append("import ").append(imported).append(";\n");
+        }
+        if (!fixture.injections().isEmpty()) {
+            out.append("import org.springframework.test.util.ReflectionTestUtils;\n");
+        }
+        if (!fixture.mocks().isEmpty()) {
+            out.append("import static org.mockito.Mockito.mock;\n");
+        }
+    }
+
+    private void appendFields(StringBuilder out) {
+        for (FixturePlanner.Mock mock : fixture.mocks()) {
+            out.append("private ").append(mock.type()).append(' ').append(mock.name()).append(';').append(CLASS_BODY_INDENT);
+        }
+        out.append("private ").append(typeName).append(' ').append(instanceName).append(';');
+    }
+
+    private void appendSetUp(StringBuilder out) {
+        if (!fixture.constructible()) {
+            out.append("// ").append(typeName).append(" has no accessible constructor; only static methods can be called");
+            return;
+        }
+        for (FixturePlanner.Mock mock : fixture.mocks()) {
+            out.append(mock.name()).append(" = mock(").append(mock.rawType()).append(".class);").append(METHOD_BODY_INDENT);
+        }
+        out.append(instanceName).append(" = new ").append(typeName).append('(')
+                .append(String.join(", ", fixture.arguments())).append(");");
+        for (FixturePlanner.Injection injection : fixture.injections()) {
+            out.append(METHOD_BODY_INDENT).append("ReflectionTestUtils.setField(").append(instanceName)
+                    .append(", \"").append(injection.field()).append("\", ").append(injection.value()).append(");");
+        }
+    }
+
+    // ============================================================
+    // CALLS AND ASSERTIONS
+    // ============================================================
+
+    private void appendCall(StringBuilder out) {
+        out.append(method.isStatic() ? typeName : instanceName).append('.').append(method.name()).append('(');
+        switch (callArgs) {
+            case NAMES -> appendParams(out, false);
+            case NULLS -> appendNullArgs(out);
+            default -> appendLiterals(out, KINDS_BY_CALL[callArgs.ordinal()]);
+        }
+        out.append(')');
+    }
+
+    private void appendAssertion(StringBuilder out) {
+        TemplateSet.Kind kind = switch (method.returnType()) {
+            case "void" -> TemplateSet.Kind.ASSERT_VOID;
+            case "boolean" -> TemplateSet.Kind.ASSERT_BOOLEAN;
+            default -> TemplateSet.Kind.ASSERT_VALUE;
+        };
+        templates.get(kind).render(out, this);
+    }
+
+    private void appendAssertion(StringBuilder out, CallArgs rowArgs) {
+        CallArgs saved = callArgs;
+        callArgs = rowArgs;
+        appendAssertion(out);
+        callArgs = saved;
+    }
+
+    private void appendParams(StringBuilder out, boolean withTypes) {
+        List<ParamModel> parameters = method.params();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) out.append(", ");
+            ParamModel parameter = parameters.get(i);
+            if (withTypes) {
+                out.append(parameter.type()).append(' ');
+            }
+            out.append(parameter.name());
+        }
+    }
+
+    private void appendLiterals(StringBuilder out, HeuristicKind kind) {
+        List<ParamModel> parameters = method.params();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) out.append(", ");
+            out.append(values.resolve(parameters.get(i).type()).literal(kind));
+        }
+    }
+
+    private void appendNullArgs(StringBuilder out) {
+        List<ParamModel> parameters = method.params();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) out.append(", ");
+            ParamModel parameter = parameters.get(i);
+            out.append(parameter.primitive()
+                    ? values.resolve(parameter.type()).literal(HeuristicKind.ZERO)
+                    : "null");
+        }
+    }
+
+    private void appendCsv(StringBuilder out, HeuristicKind kind) {
+        List<ParamModel> parameters = method.params();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) out.append(", ");
+            out.append(values.resolve(parameters.get(i).type()).csv(kind));
+        }
+    }
+
+    private static String testNameBase(MethodModel method) {
+        String name = method.name();
+        return "test" + name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.unittestgenerator.service;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface TestStream {
+    void writeTo(TestChunk.Sink sink) throws IOException;
+}
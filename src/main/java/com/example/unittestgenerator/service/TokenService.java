@@ -0,0 +1,94 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.models.User;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies the session tokens handed out at login: HS256-signed
+ * JWTs whose subject is the user id. Verifying one is a signature and
+ * expiry check, so authenticated requests never load the user.
+ */
+@Component
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    static final String ISSUER = "unit-test-generator";
+    private static final int MIN_SECRET_BYTES = 32; // HS256 needs a key at least as long as the hash
+
+    private final JwtEncoder encoder;
+    private final JwtDecoder decoder;
+    private final Duration ttl;
+
+    public TokenService(@Value("${auth.jwt.secret:}") String secret,
+                        @Value("${auth.jwt.ttl-minutes:60}") long ttlMinutes) {
+        SecretKey key = new SecretKeySpec(keyBytes(secret), "HmacSHA256");
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(MacAlgorithm.HS256).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER)); // expiry, with 60s clock skew
+        this.decoder = decoder;
+        this.ttl = Duration.ofMinutes(Math.max(1, ttlMinutes));
+    }
+
+    // Without a configured secret every restart signs with a new key, which logs everybody out
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("auth.jwt.secret is not set; using a random key, so tokens won't survive a restart");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] bytes = Base64.getDecoder().decode(secret.trim());
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalArgumentException("auth.jwt.secret must be at least " + MIN_SECRET_BYTES + " bytes (base64)");
+        }
+        return bytes;
+    }
+
+    public record IssuedToken(String value, Instant expiresAt) {}
+
+    public IssuedToken issue(User user) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(String.valueOf(user.getId()))
+                .claim("username", user.getUsername())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        Jwt jwt = encoder.encode(JwtEncoderParameters.from(header, claims));
+        return new IssuedToken(jwt.getTokenValue(), jwt.getExpiresAt());
+    }
+
+    // Used by the resource server filter chain
+    public JwtDecoder decoder() {
+        return decoder;
+    }
+
+    // The caller's user id, or null for anonymous requests
+    public static Long userIdOf(Jwt jwt) {
+        return jwt == null ? null : Long.valueOf(jwt.getSubject());
+    }
+}
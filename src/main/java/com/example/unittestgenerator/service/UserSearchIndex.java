@@ -0,0 +1,238 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.HistoryPage;
+import com.example.unittestgenerator.dto.SavedTestSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One user's saved tests as an inverted index. Entries get an ordinal in id
+ * order; every term maps to the sorted ordinals of the entries containing it.
+ * A query word is a prefix, so it reads the postings of the contiguous term
+ * range starting at it in the sorted term map; several words must all match.
+ * Deleted entries are masked out and dropped on the next compaction, which
+ * also restores id order after an entry arrives out of sequence.
+ */
+final class UserSearchIndex {
+
+    private long[] ids = new long[64];
+    private SavedTestSummary[] entries = new SavedTestSummary[64];
+    private int size;       // ordinals handed out, deleted ones included
+    private int liveCount;
+    private BitSet live = new BitSet();
+    private Map<Long, Integer> ordinals = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private long postingCount;
+    private boolean unsorted; // an id arrived below the highest one
+    private boolean loaded;
+    // Read without the lock by the budget check, which mustn't wait for a load in progress
+    private volatile long estimatedBytes;
+
+    boolean isLoaded() { return loaded; }
+    void markLoaded() { loaded = true; }
+
+    // Adding an id that is already indexed does nothing, so loads and saves can overlap
+    synchronized void add(SavedTestSummary entry, String terms) {
+        long id = entry.getId();
+        if (ordinals.containsKey(id)) {
+            return;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        if (size > 0 && id < ids[size - 1]) {
+            unsorted = true;
+        }
+        int ordinal = size++;
+        ids[ordinal] = id;
+        entries[ordinal] = entry;
+        ordinals.put(id, ordinal);
+        live.set(ordinal);
+        liveCount++;
+
+        // Rows saved before search existed only have their class name
+        String text = terms != null ? terms : SearchTerms.of(entry.getClassName(), null, null);
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf(' ', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            if (end > start) {
+                Postings list = postings.computeIfAbsent(text.substring(start, end), t -> new Postings());
+                if (list.add(ordinal)) {
+                    postingCount++;
+                }
+            }
+            start = end + 1;
+        }
+        updateEstimate();
+    }
+
+    synchronized boolean remove(long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return false;
+        }
+        live.clear(ordinal);
+        entries[ordinal] = null;
+        liveCount--;
+        return true;
+    }
+
+    /**
+     * Entries matching every query word, newest (highest id) first, starting
+     * below beforeId when it is set. An empty query lists everything.
+     */
+    synchronized HistoryPage search(List<String> words, Long beforeId, int limit) {
+        if (unsorted || size - liveCount > Math.max(1024, liveCount / 4)) {
+            compact();
+        }
+        BitSet matches = null;
+        for (String word : words) {
+            BitSet any = new BitSet(size);
+            for (Postings list : postings.subMap(word, word + Character.MAX_VALUE).values()) {
+                list.markAll(any);
+            }
+            if (matches == null) {
+                matches = any;
+            } else {
+                matches.and(any);
+            }
+            if (matches.isEmpty()) {
+                return new HistoryPage(List.of(), null);
+            }
+        }
+        if (matches == null) {
+            matches = live;
+        } else {
+            matches.and(live);
+        }
+
+        int from = beforeId == null ? size - 1 : ordinalBelow(beforeId);
+        List<SavedTestSummary> items = new ArrayList<>(Math.min(limit, liveCount));
+        int ordinal = from < 0 ? -1 : matches.previousSetBit(from);
+        while (ordinal >= 0 && items.size() < limit) {
+            items.add(entries[ordinal]);
+            ordinal = ordinal == 0 ? -1 : matches.previousSetBit(ordinal - 1);
+        }
+        String nextCursor = null;
+        if (ordinal >= 0) {
+            SavedTestSummary last = items.get(items.size() - 1);
+            nextCursor = new HistoryPage.Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new HistoryPage(items, nextCursor);
+    }
+
+    synchronized int size() {
+        return liveCount;
+    }
+
+    long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    // Arrays, boxed id map, summaries and term keys, roughly
+    private void updateEstimate() {
+        estimatedBytes = (long) ids.length * 12 + (long) size * 160 + postingCount * 4 + (long) postings.size() * 96;
+    }
+
+    // Highest ordinal whose id is below the given one, -1 when there is none
+    private int ordinalBelow(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return index >= 0 ? index - 1 : -index - 2;
+    }
+
+    // Renumbers the live entries in id order and rewrites the postings to match
+    private void compact() {
+        Integer[] order = new Integer[liveCount];
+        int n = 0;
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            order[n++] = ordinal;
+        }
+        if (unsorted) {
+            long[] oldIds = ids;
+            Arrays.sort(order, (a, b) -> Long.compare(oldIds[a], oldIds[b]));
+        }
+        int[] renumbered = new int[size];
+        Arrays.fill(renumbered, -1);
+        long[] newIds = new long[Math.max(64, liveCount * 2)];
+        SavedTestSummary[] newEntries = new SavedTestSummary[newIds.length];
+        Map<Long, Integer> newOrdinals = new HashMap<>(liveCount * 2);
+        for (int i = 0; i < liveCount; i++) {
+            renumbered[order[i]] = i;
+            newIds[i] = ids[order[i]];
+            newEntries[i] = entries[order[i]];
+            newOrdinals.put(newIds[i], i);
+        }
+
+        postingCount = 0;
+        Iterator<Postings> lists = postings.values().iterator();
+        while (lists.hasNext()) {
+            Postings list = lists.next();
+            list.renumber(renumbered, unsorted);
+            if (list.size == 0) {
+                lists.remove();
+            }
+            postingCount += list.size;
+        }
+
+        ids = newIds;
+        entries = newEntries;
+        ordinals = newOrdinals;
+        size = liveCount;
+        live = new BitSet(size);
+        live.set(0, size);
+        unsorted = false;
+        updateEstimate();
+    }
+
+    // Ascending ordinals of the entries holding one term
+    private static final class Postings {
+
+        private int[] values = new int[2];
+        private int size;
+
+        boolean add(int ordinal) {
+            if (size > 0 && values[size - 1] == ordinal) {
+                return false;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+            return true;
+        }
+
+        void markAll(BitSet into) {
+            for (int i = 0; i < size; i++) {
+                into.set(values[i]);
+            }
+        }
+
+        void renumber(int[] renumbered, boolean sort) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = renumbered[values[i]];
+                if (ordinal >= 0) {
+                    values[kept++] = ordinal;
+                }
+            }
+            size = kept;
+            if (sort) {
+                Arrays.sort(values, 0, size);
+            }
+            if (values.length > Math.max(2, size * 2)) {
+                values = Arrays.copyOf(values, Math.max(2, size));
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ast.type.Type;
+
+/**
+ * Supplies heuristic values for the parameter types it knows. Any bean of
+ * this type is consulted before the built-in providers, in bean order.
+ * Tables are cached by the registry, so a provider is asked about a given
+ * type at most once.
+ */
+public interface ValueProvider {
+
+    // null when this provider doesn't handle the type
+    ValueTable tableFor(Type type, ValueResolver resolver);
+
+    // Lets container providers look up their element types
+    interface ValueResolver {
+        ValueTable resolve(Type type);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.unittestgenerator.service;
+
+/**
+ * Heuristic values for one parameter type, one per {@link HeuristicKind}.
+ * Literals are Java source ("5L", "(short) 5"); CSV values are what a
+ * {@code @CsvSource} row needs for JUnit's implicit conversion ("5").
+ * Types without CSV values are only ever passed as literals.
+ */
+public final class ValueTable {
+
+    // Unknown types: the happy path passes null, and no CSV rows are possible
+    public static final ValueTable NULL = literals("null", "null", "null", "null");
+
+    private final String[] literals;
+    private final String[] csvValues;
+
+    private ValueTable(String[] literals, String[] csvValues) {
+        this.literals = literals;
+        this.csvValues = csvValues;
+    }
+
+    public static ValueTable literals(String positive, String negative, String zero, String max) {
+        return new ValueTable(new String[] {positive, negative, zero, max}, null);
+    }
+
+    public ValueTable withCsv(String positive, String negative, String zero, String max) {
+        return new ValueTable(literals, new String[] {positive, negative, zero, max});
+    }
+
+    public String literal(HeuristicKind kind) {
+        return literals[kind.ordinal()];
+    }
+
+    public String csv(HeuristicKind kind) {
+        if (csvValues == null) {
+            throw new IllegalStateException("No CSV values for this type");
+        }
+        return csvValues[kind.ordinal()];
+    }
+
+    public boolean isCsvCompatible() {
+        return csvValues != null;
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.demo;
 
+import com.example.unittestgenerator.UnitTestGeneratorApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(classes = UnitTestGeneratorApplication.class)
+@ActiveProfiles("test")
 class UnitTestGeneratorApplicationTests {
 
 	@Test
@@ -0,0 +1,189 @@
+package com.example.unittestgenerator.cli;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceTreeGeneratorTest {
+
+    @TempDir
+    Path root;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    void rerunsOnlyGenerateChangedFilesAndRemoveTestsOfDeletedOnes() throws Exception {
+        Path src = root.resolve("src");
+        Path tests = root.resolve("tests");
+        write(src.resolve("com/acme/Pricing.java"), """
+                package com.acme;
+                public class Pricing {
+                    public int total(int net, int qty) { return net * qty; }
+                }
+                """);
+        write(src.resolve("com/acme/orders/Orders.java"), """
+                package com.acme.orders;
+                public class Orders {
+                    public boolean isOpen(String id) { return id != null; }
+                }
+                class OrderLine {
+                    public int quantity(int n) { return n; }
+                }
+                """);
+        write(src.resolve("com/acme/Shape.java"), "package com.acme; public interface Shape { double area(); }");
+        write(src.resolve("com/acme/Broken.java"), "package com.acme; public class Broken {");
+
+        assertEquals(1, run(src, tests));
+        assertTrue(out.toString().startsWith("4 source files"), out.toString());
+        assertTrue(out.toString().contains("3 generated (3 tests written), 0 unchanged, 1 failed"), out.toString());
+        assertTrue(err.toString().contains("com/acme/Broken.java"), err.toString());
+        assertTrue(Files.readString(tests.resolve("com/acme/PricingTest.java")).contains("class PricingTest"));
+        assertTrue(Files.exists(tests.resolve("com/acme/orders/OrdersTest.java")));
+        assertTrue(Files.exists(tests.resolve("com/acme/orders/OrderLineTest.java")));
+
+        // Nothing changed: the broken file is retried and fails again, the rest is skipped
+        assertEquals(1, run(src, tests));
+        assertTrue(out.toString().contains("0 generated (0 tests written), 3 unchanged, 1 failed"), out.toString());
+        assertTrue(err.toString().contains("com/acme/Broken.java"), err.toString());
+
+        Files.delete(src.resolve("com/acme/Broken.java"));
+        assertEquals(0, run(src, tests));
+        assertTrue(out.toString().contains("0 generated (0 tests written), 3 unchanged, 0 failed"), out.toString());
+
+        // Touched and reformatted: read again but not regenerated. Edited: regenerated.
+        Path pricing = src.resolve("com/acme/Pricing.java");
+        write(pricing, Files.readString(pricing).replace("    ", "\t"));
+        Files.setLastModifiedTime(pricing, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        write(src.resolve("com/acme/orders/Orders.java"), """
+                package com.acme.orders;
+                public class Orders {
+                    public boolean isOpen(String id) { return id != null; }
+                    public int count(int n) { return n; }
+                }
+                """);
+        assertEquals(0, run(src, tests));
+        assertTrue(out.toString().contains("1 generated (1 tests written), 2 unchanged, 0 failed, 1 stale tests removed"), out.toString());
+        assertTrue(Files.readString(tests.resolve("com/acme/orders/OrdersTest.java")).contains("count"));
+        assertFalse(Files.exists(tests.resolve("com/acme/orders/OrderLineTest.java")));
+
+        Files.delete(pricing);
+        assertEquals(0, run(src, tests));
+        assertFalse(Files.exists(tests.resolve("com/acme/PricingTest.java")));
+        assertTrue(out.toString().contains("1 stale tests removed"), out.toString());
+
+        assertEquals(0, run(src, tests, "--force"));
+        assertTrue(out.toString().contains("2 generated (1 tests written), 0 unchanged"), out.toString());
+    }
+
+    @Test
+    void largeFilesAreMappedAndDecodedTheSameWay() throws Exception {
+        StringBuilder source = new StringBuilder("package big; // π\npublic class Big {\n");
+        while (source.length() < SourceTreeGenerator.MAP_THRESHOLD + 10) {
+            source.append("    public int f").append(source.length()).append("(int x) { return x; }\n");
+        }
+        source.append("}\n");
+        Path file = root.resolve("Big.java");
+        write(file, source.toString());
+
+        assertEquals(source.toString(), SourceTreeGenerator.read(file, Files.size(file)));
+        Path small = root.resolve("Small.java");
+        write(small, "class Small { String s = \"π\"; }");
+        assertEquals("class Small { String s = \"π\"; }", SourceTreeGenerator.read(small, Files.size(small)));
+        assertEquals("com/acme/Outer_InnerTest.java", SourceTreeGenerator.testPathFor("com/acme/Outer.java", "Outer.Inner"));
+        assertEquals("FooTest.java", SourceTreeGenerator.testPathFor("Foo.java", "Foo"));
+    }
+
+    @Test
+    void nestedClassesWithTheSameNameGetTheirOwnTests() throws Exception {
+        Path src = root.resolve("src");
+        Path tests = root.resolve("tests");
+        write(src.resolve("com/acme/Order.java"), """
+                package com.acme;
+                public class Order {
+                    public static class Builder {
+                        public Order build(int lines) { return new Order(); }
+                    }
+                }
+                """);
+        write(src.resolve("com/acme/Invoice.java"), """
+                package com.acme;
+                public class Invoice {
+                    public static class Builder {
+                        public Invoice build(String number) { return new Invoice(); }
+                    }
+                }
+                """);
+        write(src.resolve("com/acme/Trees.java"), """
+                package com.acme;
+                public class Trees {
+                    public static class Binary {
+                        public static class Node { public int depth(int d) { return d; } }
+                    }
+                    public static class Nary {
+                        public static class Node { public int width(int w) { return w; } }
+                    }
+                }
+                """);
+
+        assertEquals(0, run(src, tests));
+        assertTrue(Files.readString(tests.resolve("com/acme/Order_BuilderTest.java")).contains("class Order_BuilderTest"));
+        assertTrue(Files.readString(tests.resolve("com/acme/Order_BuilderTest.java")).contains("build(5)"));
+        assertTrue(Files.readString(tests.resolve("com/acme/Invoice_BuilderTest.java")).contains("class Invoice_BuilderTest"));
+        assertTrue(Files.readString(tests.resolve("com/acme/Trees_Binary_NodeTest.java")).contains("depth"));
+        assertTrue(Files.readString(tests.resolve("com/acme/Trees_Nary_NodeTest.java")).contains("width"));
+        assertFalse(Files.exists(tests.resolve("com/acme/BuilderTest.java")));
+
+        // Removing one of them leaves the other's test alone
+        Files.delete(src.resolve("com/acme/Invoice.java"));
+        assertEquals(0, run(src, tests));
+        assertFalse(Files.exists(tests.resolve("com/acme/Invoice_BuilderTest.java")));
+        assertTrue(Files.exists(tests.resolve("com/acme/Order_BuilderTest.java")));
+    }
+
+    @Test
+    void editedTemplatesRegenerateEverything() throws Exception {
+        Path src = root.resolve("src");
+        Path tests = root.resolve("tests");
+        Path templates = root.resolve("templates");
+        write(src.resolve("com/acme/Pricing.java"), """
+                package com.acme;
+                public class Pricing {
+                    public int total(int net, int qty) { return net * qty; }
+                }
+                """);
+        write(templates.resolve("junit5/footer.tmpl"), "} // end of ${testClass}\n");
+
+        assertEquals(0, run(src, tests, "--templates=" + templates));
+        assertEquals(0, run(src, tests, "--templates=" + templates));
+        assertTrue(out.toString().contains("0 generated (0 tests written), 1 unchanged"), out.toString());
+
+        write(templates.resolve("junit5/footer.tmpl"), "} // generated\n");
+        assertEquals(0, run(src, tests, "--templates=" + templates));
+        assertTrue(out.toString().contains("1 generated (1 tests written), 0 unchanged"), out.toString());
+        assertTrue(Files.readString(tests.resolve("com/acme/PricingTest.java")).endsWith("} // generated\n"));
+    }
+
+    private int run(Path src, Path tests, String... extra) throws Exception {
+        out.reset();
+        err.reset();
+        String[] args = new String[2 + extra.length];
+        args[0] = "--source=" + src;
+        args[1] = "--out=" + tests;
+        System.arraycopy(extra, 0, args, 2, extra.length);
+        return GeneratorCli.run(args, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
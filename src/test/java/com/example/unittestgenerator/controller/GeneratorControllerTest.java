@@ -0,0 +1,121 @@
+package com.example.unittestgenerator.controller;
+
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import com.example.unittestgenerator.service.BlobStore;
+import com.example.unittestgenerator.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Through the real handler chain: which return value handler runs depends on the declared return type
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GeneratorControllerTest {
+
+    private static final String SOURCE = "{\"sourceCode\":\"public class Calculator {"
+            + " public int add(int a, int b) { return a + b; }"
+            + " public int negate(int a) { return -a; } }\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SavedTestRepository savedTestRepository;
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void streamsPlainText() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/generate/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content(SOURCE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(header().doesNotExist("Content-Length"))
+                .andExpect(content().string(containsString("class CalculatorTest")))
+                .andExpect(content().string(containsString("add")));
+    }
+
+    @Test
+    void streamsOneNdjsonChunkPerPart() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/generate/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(SOURCE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertTrue(lines.length >= 3, body); // header, one per method, footer
+        assertTrue(lines[0].startsWith("{\"type\":\"header\""), lines[0]);
+        assertTrue(lines[lines.length - 1].startsWith("{\"type\":\"footer\""), lines[lines.length - 1]);
+    }
+
+    @Test
+    void reportsUnparseableSourceAsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/generate/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_PLAIN)
+                        .content("{\"sourceCode\":\"public class {\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Files without names (or with the same name) must each keep their own source in the history
+    @Test
+    void batchHistoryLinksEachClassToItsOwnFile() throws Exception {
+        User user = new User("batch-history", "secret");
+        user.setEmail("batch-history@example.com");
+        user = userRepository.save(user);
+        String files = "{\"files\":[{\"sourceCode\":\"public class Alpha { public int a(int x) { return x; } }\"},"
+                + "{\"sourceCode\":\"public class Beta { public int b(int x) { return x; } }\"},"
+                + "{\"fileName\":\"Same.java\",\"sourceCode\":\"public class Gamma { public int g(int x) { return x; } }\"},"
+                + "{\"fileName\":\"Same.java\",\"sourceCode\":\"public class Delta { public int d(int x) { return x; } }\"}]}";
+
+        mockMvc.perform(post("/api/generate/batch")
+                        .header("Authorization", "Bearer " + tokenService.issue(user).value())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(files))
+                .andExpect(status().isOk());
+
+        Long userId = user.getId();
+        List<String> mismatched = transactionTemplate.execute(status -> savedTestRepository.findByUserId(userId).stream()
+                .filter(saved -> !blobStore.sourceOf(saved).contains("class " + saved.getClassName() + " "))
+                .map(SavedTest::getClassName)
+                .toList());
+        assertEquals(4, savedTestRepository.findByUserId(userId).size());
+        assertEquals(List.of(), mismatched);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.unittestgenerator.controller;
+
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import com.example.unittestgenerator.service.PendingSave;
+import com.example.unittestgenerator.service.SavedTestWriter;
+import com.example.unittestgenerator.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Keyset paging of /api/history/{userId}/page against the H2 test database
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HistoryControllerTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SavedTestRepository savedTestRepository;
+    @Autowired
+    private SavedTestWriter savedTestWriter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesNewestFirstAndBreakCreatedAtTiesById() throws Exception {
+        User user = user("history-pages");
+        List<Long> ids = save(user, 5);
+        // Ids run the other way from the timestamps at both ends, and three rows share one timestamp
+        createdAt(ids.get(0), NOON.plusMinutes(1));
+        createdAt(ids.get(1), NOON);
+        createdAt(ids.get(2), NOON);
+        createdAt(ids.get(3), NOON);
+        createdAt(ids.get(4), NOON.minusMinutes(1));
+
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page(user, cursor);
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            pageSizes.add(page.get("items").size());
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null && pageSizes.size() < ids.size());
+
+        // The tie spans the first page boundary: the cursor must still skip exactly the rows already seen
+        assertEquals(List.of(ids.get(0), ids.get(3), ids.get(2), ids.get(1), ids.get(4)), seen);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+    }
+
+    @Test
+    void fullLastPageEndsWithAnEmptyOne() throws Exception {
+        User user = user("history-full-page");
+        save(user, 2);
+
+        JsonNode first = page(user, null);
+        JsonNode second = page(user, first.get("nextCursor").asText());
+
+        assertEquals(2, first.get("items").size());
+        assertEquals(0, second.get("items").size());
+        assertTrue(second.get("nextCursor").isNull());
+    }
+
+    @Test
+    void rejectsACursorItDidNotIssue() throws Exception {
+        User user = user("history-bad-cursor");
+
+        mockMvc.perform(authorized(user, get("/api/history/" + user.getId() + "/page").param("cursor", "not-a-cursor")))
+                .andExpect(status().isBadRequest());
+        // Valid base64, but not "createdAt|id"
+        mockMvc.perform(authorized(user, get("/api/history/" + user.getId() + "/page").param("cursor", "MTIz")))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private JsonNode page(User user, String cursor) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/history/" + user.getId() + "/page").param("size", "2");
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(authorized(user, request))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder authorized(User user, MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + tokenService.issue(user).value());
+    }
+
+    private User user(String name) {
+        User user = new User(name, "secret");
+        user.setEmail(name + "@example.com");
+        return userRepository.save(user);
+    }
+
+    // Ids of the new rows, ascending
+    private List<Long> save(User user, int count) {
+        List<PendingSave> saves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            saves.add(new PendingSave(user.getId(), "Paged" + i, "public class Paged" + i + " {}",
+                    "class Paged" + i + "Test {}"));
+        }
+        savedTestWriter.persistNow(saves);
+        return savedTestRepository.findByUserId(user.getId()).stream()
+                .map(SavedTest::getId)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+
+    private void createdAt(Long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("UPDATE saved_tests SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), id);
+    }
+}
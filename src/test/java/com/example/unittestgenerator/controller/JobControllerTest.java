@@ -0,0 +1,84 @@
+package com.example.unittestgenerator.controller;
+
+import com.example.unittestgenerator.dto.BatchGenerateRequest;
+import com.example.unittestgenerator.dto.JobSummary;
+import com.example.unittestgenerator.dto.SourceFile;
+import com.example.unittestgenerator.models.JobStatus;
+import com.example.unittestgenerator.service.BatchGenerationService;
+import com.example.unittestgenerator.service.GenerationAdmission;
+import com.example.unittestgenerator.service.GenerationJobService;
+import com.example.unittestgenerator.service.GenerationJobService.JobListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobControllerTest {
+
+    private final GenerationJobService jobService = mock(GenerationJobService.class);
+    private final JobController controller = new JobController(jobService, mock(BatchGenerationService.class),
+            mock(GenerationAdmission.class));
+
+    @Test
+    void jobFinishingWhileSubscribingStillOpensTheStream() {
+        JobSummary finished = new JobSummary();
+        finished.setId(7L);
+        finished.setStatus(JobStatus.SUCCEEDED);
+        finished.setAccessKey("key-7");
+        // The listener fires (and completes the emitter) before the controller reads the job
+        when(jobService.subscribe(eq(7L), any())).thenAnswer(invocation -> {
+            invocation.<JobListener>getArgument(1).onProgress(finished, List.of());
+            return (Runnable) () -> { };
+        });
+        when(jobService.find(7L)).thenReturn(Optional.of(finished));
+
+        ResponseEntity<?> response = controller.events(7L, "key-7", null);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertInstanceOf(SseEmitter.class, response.getBody());
+    }
+
+    @Test
+    void anonymousJobsNeedTheirAccessKey() {
+        JobSummary anonymous = new JobSummary();
+        anonymous.setId(8L);
+        anonymous.setStatus(JobStatus.RUNNING);
+        anonymous.setAccessKey("0f8c2a1e-5b7d-4c3a-9e6f-2d1b0a987654");
+        when(jobService.find(8L)).thenReturn(Optional.of(anonymous));
+        when(jobService.results(8L)).thenReturn(List.of());
+        when(jobService.subscribe(eq(8L), any())).thenReturn(() -> { });
+
+        assertEquals(404, controller.getJob(8L, null, null).getStatusCode().value());
+        assertEquals(404, controller.getJob(8L, "0f8c2a1e-5b7d-4c3a-9e6f-2d1b0a987655", null).getStatusCode().value());
+        assertEquals(404, controller.getResults(8L, null, null).getStatusCode().value());
+        assertEquals(404, controller.events(8L, null, null).getStatusCode().value());
+
+        assertEquals(200, controller.getJob(8L, anonymous.getAccessKey(), null).getStatusCode().value());
+        assertEquals(200, controller.getResults(8L, anonymous.getAccessKey(), null).getStatusCode().value());
+    }
+
+    @Test
+    void anonymousSubmissionHandsOutTheKey() {
+        JobSummary queued = new JobSummary();
+        queued.setId(9L);
+        queued.setStatus(JobStatus.QUEUED);
+        queued.setAccessKey("0f8c2a1e-5b7d-4c3a-9e6f-2d1b0a987654");
+        when(jobService.submit(eq(null), any(), any(), any())).thenReturn(queued);
+        BatchGenerateRequest request = new BatchGenerateRequest();
+        request.setFiles(List.of(new SourceFile("A.java", "public class A {}")));
+
+        ResponseEntity<?> response = controller.submit(request, null);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("/api/jobs/9?key=" + queued.getAccessKey(), response.getHeaders().getLocation().toString());
+        assertSame(queued, response.getBody());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.unittestgenerator.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProjectControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void projectsNeedABearerToken() throws Exception {
+        mockMvc.perform(post("/api/projects/shop/sources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"fileName\":\"A.java\",\"sourceCode\":\"class A {}\"}]"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(multipart("/api/projects/shop/jars")
+                        .file(new MockMultipartFile("file", "lib.jar", "application/java-archive", new byte[16])))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/projects/shop"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void anonymousGenerationCannotUseAProject() throws Exception {
+        mockMvc.perform(post("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceCode\":\"public class A { public int f(int x) { return x; } }\",\"projectId\":\"shop\"}"))
+                .andExpect(status().isBadRequest());
+    }
+}
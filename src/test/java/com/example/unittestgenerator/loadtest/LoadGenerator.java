@@ -0,0 +1,367 @@
+package com.example.unittestgenerator.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Closed-loop load generator for the main user flow: log in, generate tests
+ * (saved to history) and list or search the history. Each worker thread acts
+ * as one of --users accounts and sends its next request as soon as the
+ * previous one returns, picking the operation by the --mix weights, so
+ * throughput and latency reflect how the server copes with a fixed number of
+ * clients. Accounts are registered on first use; sources come from a
+ * {@link SourceCorpus}. Workers draw from their own seeded random, so the
+ * same arguments send the same request sequence against every build.
+ *
+ * <pre>
+ * ./mvnw spring-boot:run -Dspring-boot.run.profiles=test \
+ *     -Dspring-boot.run.useTestClasspath=true -Dspring-boot.run.additional-classpath-elements=target/test-classes
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.unittestgenerator.loadtest.LoadGenerator \
+ *     -Dexec.args="--url=http://localhost:8080 --concurrency=50 --duration=30 --report=target/load.json"
+ * </pre>
+ *
+ * The report has throughput, p50/p99/p999 latency and error and rejection
+ * (429/503) rates in total and per operation. --baseline=&lt;report.json&gt;
+ * prints the change against an earlier report. scripts/load-test.sh runs
+ * the server on the embedded database and writes one report per commit;
+ * scripts/compare-thread-modes.sh compares the platform-thread and
+ * virtual-thread modes.
+ */
+public class LoadGenerator {
+
+    enum Operation { LOGIN, GENERATE, HISTORY, SEARCH }
+
+    private static final String PASSWORD = "load-test-password";
+    private static final String[] SEARCH_WORDS = {"service", "get", "calc", "order", "string", "list", "test", "id"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        int users = Integer.parseInt(options.getOrDefault("users", String.valueOf(Math.min(concurrency, 50))));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        boolean useCache = Boolean.parseBoolean(options.getOrDefault("use-cache", "false")); // measure the engine by default
+        String mixSpec = options.getOrDefault("mix", "login:1,generate:6,history:3");
+        String label = options.getOrDefault("label", "run");
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        SourceCorpus corpus = SourceCorpus.load(options.get("corpus"));
+        Scenario scenario = new Scenario(URI.create(baseUrl), mapper, corpus, parseMix(mixSpec), useCache,
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build());
+
+        System.out.printf("Signing in %d users, corpus of %d sources from %s...%n", users, corpus.size(), corpus.origin());
+        Account[] accounts = new Account[users];
+        for (int i = 0; i < users; i++) {
+            accounts[i] = scenario.signIn("loadtest-user-" + i);
+        }
+
+        System.out.printf("Warming up for %ds...%n", warmupSeconds);
+        run(scenario, accounts, concurrency, warmupSeconds, seed - 1);
+        System.out.printf("Measuring %d clients for %ds...%n", concurrency, durationSeconds);
+        Map<Operation, Result> results = run(scenario, accounts, concurrency, durationSeconds, seed);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", label);
+        report.put("startedAt", Instant.now().minusSeconds(durationSeconds).toString());
+        report.put("url", baseUrl);
+        report.put("concurrency", concurrency);
+        report.put("users", users);
+        report.put("durationSeconds", durationSeconds);
+        report.put("mix", mixSpec);
+        report.put("seed", seed);
+        report.put("useCache", useCache);
+        report.put("corpus", Map.of("origin", corpus.origin(), "sources", corpus.size()));
+        Result total = new Result();
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Result> e : results.entrySet()) {
+            total.merge(e.getValue());
+            perOperation.put(e.getKey().name().toLowerCase(), e.getValue().toReport(durationSeconds));
+        }
+        report.put("total", total.toReport(durationSeconds));
+        report.put("operations", perOperation);
+
+        System.out.println(mapper.writeValueAsString(report));
+        if (options.containsKey("report")) {
+            Path reportFile = Path.of(options.get("report"));
+            if (reportFile.getParent() != null) {
+                reportFile.getParent().toFile().mkdirs();
+            }
+            mapper.writeValue(reportFile.toFile(), report);
+        }
+        if (options.containsKey("baseline")) {
+            printComparison(mapper.readTree(Path.of(options.get("baseline")).toFile()), mapper.valueToTree(report));
+        }
+    }
+
+    static Map<Operation, Result> run(Scenario scenario, Account[] accounts, int concurrency, int seconds, long seed)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        @SuppressWarnings("unchecked")
+        Map<Operation, Result>[] perWorker = new Map[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            int index = w;
+            workers.execute(() -> {
+                Map<Operation, Result> local = new LinkedHashMap<>();
+                Random random = new Random(seed * 31 + index);
+                Account account = accounts[index % accounts.length];
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = scenario.pick(random);
+                        long start = System.nanoTime();
+                        int status = scenario.send(operation, account, random);
+                        local.computeIfAbsent(operation, o -> new Result()).record(System.nanoTime() - start, status);
+                    }
+                } finally {
+                    perWorker[index] = local;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+
+        Map<Operation, Result> total = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            for (Map<Operation, Result> worker : perWorker) {
+                Result r = worker.get(operation);
+                if (r != null) total.computeIfAbsent(operation, o -> new Result()).merge(r);
+            }
+        }
+        return total;
+    }
+
+    // "login:1,generate:6,history:3" -> cumulative weights in Operation order
+    static int[] parseMix(String spec) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights[Operation.valueOf(kv[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(kv[1].trim());
+        }
+        for (int i = 1; i < weights.length; i++) weights[i] += weights[i - 1];
+        if (weights[weights.length - 1] <= 0) throw new IllegalArgumentException("Empty mix: " + spec);
+        return weights;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+
+    // Relative change of the headline numbers, per operation and in total
+    private static void printComparison(JsonNode baseline, JsonNode current) {
+        System.out.printf("%nAgainst %s:%n", baseline.path("label").asText("baseline"));
+        System.out.printf("%-10s %12s %10s %10s %10s %12s%n", "", "throughput", "p50", "p99", "p999", "error rate");
+        compareRow("total", baseline.path("total"), current.path("total"));
+        current.path("operations").fieldNames().forEachRemaining(name ->
+                compareRow(name, baseline.path("operations").path(name), current.path("operations").path(name)));
+    }
+
+    private static void compareRow(String name, JsonNode before, JsonNode after) {
+        if (before.isMissingNode()) {
+            System.out.printf("%-10s (not in baseline)%n", name);
+            return;
+        }
+        System.out.printf("%-10s %12s %10s %10s %10s %12s%n", name,
+                change(before, after, "throughputPerSec"), change(before, after, "p50Ms"),
+                change(before, after, "p99Ms"), change(before, after, "p999Ms"),
+                String.format("%.4f->%.4f", before.path("errorRate").asDouble(), after.path("errorRate").asDouble()));
+    }
+
+    private static String change(JsonNode before, JsonNode after, String field) {
+        double b = before.path(field).asDouble();
+        double a = after.path(field).asDouble();
+        return b == 0 ? "n/a" : String.format("%+.1f%%", (a - b) / b * 100);
+    }
+
+    // ============================================================
+    // SCENARIO
+    // ============================================================
+
+    static final class Account {
+        final String username;
+        volatile String token;
+        volatile long userId;
+
+        Account(String username) {
+            this.username = username;
+        }
+    }
+
+    static final class Scenario {
+        private final URI base;
+        private final ObjectMapper mapper;
+        private final SourceCorpus corpus;
+        private final int[] cumulativeWeights;
+        private final boolean useCache;
+        private final HttpClient client;
+
+        Scenario(URI base, ObjectMapper mapper, SourceCorpus corpus, int[] cumulativeWeights, boolean useCache,
+                 HttpClient client) {
+            this.base = base;
+            this.mapper = mapper;
+            this.corpus = corpus;
+            this.cumulativeWeights = cumulativeWeights;
+            this.useCache = useCache;
+            this.client = client;
+        }
+
+        Operation pick(Random random) {
+            int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) return Operation.values()[i];
+            }
+            throw new IllegalStateException();
+        }
+
+        // Registers the account unless it exists from an earlier run, then logs in
+        Account signIn(String username) throws Exception {
+            Account account = new Account(username);
+            HttpResponse<String> registered = exchange(json("/api/auth/register",
+                    Map.of("username", username, "password", PASSWORD, "email", username + "@example.com")));
+            if (registered.statusCode() >= 400 && !registered.body().contains("already taken")) {
+                throw new IllegalStateException("Registering " + username + " failed: " + registered.statusCode() + " " + registered.body());
+            }
+            int status = login(account);
+            if (status != 200) {
+                throw new IllegalStateException("Logging in " + username + " failed: " + status);
+            }
+            return account;
+        }
+
+        // HTTP status, or 0 when the request didn't complete
+        int send(Operation operation, Account account, Random random) {
+            try {
+                return switch (operation) {
+                    case LOGIN -> login(account);
+                    case GENERATE -> discard(authorized(json("/api/generate", Map.of(
+                            "sourceCode", corpus.get(random.nextInt(corpus.size())),
+                            "useCache", useCache)), account));
+                    case HISTORY -> discard(authorized(HttpRequest.newBuilder(
+                            base.resolve("/api/history/" + account.userId + "/page?size=20")).GET(), account));
+                    case SEARCH -> discard(authorized(HttpRequest.newBuilder(base.resolve("/api/history/" + account.userId
+                            + "/search?size=20&q=" + URLEncoder.encode(SEARCH_WORDS[random.nextInt(SEARCH_WORDS.length)],
+                            StandardCharsets.UTF_8))).GET(), account));
+                };
+            } catch (Exception e) {
+                return 0;
+            }
+        }
+
+        private int login(Account account) throws Exception {
+            HttpResponse<String> response = exchange(json("/api/auth/login",
+                    Map.of("username", account.username, "password", PASSWORD)));
+            if (response.statusCode() == 200) {
+                JsonNode body = mapper.readTree(response.body());
+                account.token = body.path("token").asText();
+                account.userId = body.path("id").asLong();
+            }
+            return response.statusCode();
+        }
+
+        private HttpRequest.Builder json(String path, Map<String, Object> body) throws Exception {
+            return HttpRequest.newBuilder(base.resolve(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+        }
+
+        private HttpRequest.Builder authorized(HttpRequest.Builder request, Account account) {
+            return request.header("Authorization", "Bearer " + account.token);
+        }
+
+        private int discard(HttpRequest.Builder request) throws Exception {
+            return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private HttpResponse<String> exchange(HttpRequest.Builder request) throws Exception {
+            return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    // ============================================================
+    // RESULTS
+    // ============================================================
+
+    // Latencies in nanoseconds, appended without locking (one Result per worker and operation)
+    static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;   // 0 (no response) or an error status other than the two below
+        private long rejected; // 429 and 503: admission control turned the request away
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+            statuses.merge(status, 1L, Long::sum);
+            if (status == 429 || status == 503) rejected++;
+            else if (status == 0 || status >= 400) errors++;
+        }
+
+        void merge(Result other) {
+            if (count + other.count > latencies.length) latencies = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            rejected += other.rejected;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+        }
+
+        Map<String, Object> toReport(int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("requests", count);
+            report.put("throughputPerSec", (double) count / seconds);
+            report.put("errors", errors);
+            report.put("errorRate", count == 0 ? 0.0 : (double) errors / count);
+            report.put("rejected", rejected);
+            report.put("rejectedRate", count == 0 ? 0.0 : (double) rejected / count);
+            report.put("p50Ms", percentileMillis(sorted, 0.50));
+            report.put("p99Ms", percentileMillis(sorted, 0.99));
+            report.put("p999Ms", percentileMillis(sorted, 0.999));
+            report.put("maxMs", count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+            report.put("statuses", statuses); // 0: no response
+            return report;
+        }
+
+        static double percentileMillis(long[] sorted, double p) {
+            if (sorted.length == 0) return 0.0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.unittestgenerator.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Java sources the load generator submits to /api/generate. Read from a
+ * directory (by default this project's own src/main/java, so request sizes
+ * and shapes follow real code), or a handful of built-in classes when the
+ * directory doesn't exist. Files are sorted by path, so a given seed sends
+ * the same sequence on every run.
+ */
+final class SourceCorpus {
+
+    // Well under generator.admission.max-source-chars, so the corpus measures generation, not rejections
+    private static final int MAX_CHARS = 200_000;
+    // Files with only interfaces, enums or records have nothing to generate and would count as errors
+    private static final Pattern CLASS_DECLARATION = Pattern.compile("(?m)^(public |abstract |final )*class \\w+");
+
+    private final List<String> sources;
+    private final String origin;
+
+    private SourceCorpus(List<String> sources, String origin) {
+        this.sources = sources;
+        this.origin = origin;
+    }
+
+    static SourceCorpus load(String directory) throws IOException {
+        Path root = Path.of(directory == null ? "src/main/java" : directory);
+        if (!Files.isDirectory(root)) {
+            if (directory != null) {
+                throw new IOException("Corpus directory not found: " + root);
+            }
+            return new SourceCorpus(BUILT_IN, "built-in");
+        }
+        List<String> sources = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".java")).sorted().toList()) {
+                String source = Files.readString(file);
+                if (source.length() <= MAX_CHARS && CLASS_DECLARATION.matcher(source).find()) {
+                    sources.add(source);
+                }
+            }
+        }
+        if (sources.isEmpty()) {
+            throw new IOException("No Java classes under " + root);
+        }
+        return new SourceCorpus(List.copyOf(sources), root.toString());
+    }
+
+    String get(int index) {
+        return sources.get(index);
+    }
+
+    int size() {
+        return sources.size();
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    private static final List<String> BUILT_IN = List.of(
+            """
+            public class InvoiceCalculator {
+                public double total(double net, double taxRate) { return net * (1 + taxRate); }
+                public int lineCount(String invoiceId) { return invoiceId.length(); }
+                public boolean isOverdue(int daysOpen, int termDays) { return daysOpen > termDays; }
+                public String label(String customer, long number) { return customer + number; }
+            }
+            """,
+            """
+            package com.acme.orders;
+
+            import java.util.List;
+            import java.util.Optional;
+
+            public class OrderService {
+                private final OrderRepository repository;
+                private final PaymentGateway payments;
+
+                public OrderService(OrderRepository repository, PaymentGateway payments) {
+                    this.repository = repository;
+                    this.payments = payments;
+                }
+
+                public Optional<Order> find(long id) { return repository.findById(id); }
+
+                public List<Order> openOrders(String customerId) {
+                    if (customerId == null || customerId.isBlank()) {
+                        throw new IllegalArgumentException("customerId is required");
+                    }
+                    return repository.findOpen(customerId);
+                }
+
+                public boolean pay(long orderId, int amountCents) {
+                    if (amountCents <= 0) {
+                        return false;
+                    }
+                    return payments.charge(orderId, amountCents);
+                }
+
+                interface OrderRepository {
+                    Optional<Order> findById(long id);
+                    List<Order> findOpen(String customerId);
+                }
+
+                interface PaymentGateway {
+                    boolean charge(long orderId, int amountCents);
+                }
+
+                record Order(long id, String customerId, int totalCents) {}
+            }
+            """,
+            """
+            package com.acme.model;
+
+            import java.time.LocalDate;
+
+            public class Customer {
+                private String name;
+                private String email;
+                private LocalDate since;
+                private int loyaltyPoints;
+                private boolean active;
+
+                public String getName() { return name; }
+                public void setName(String name) { this.name = name; }
+                public String getEmail() { return email; }
+                public void setEmail(String email) { this.email = email; }
+                public LocalDate getSince() { return since; }
+                public void setSince(LocalDate since) { this.since = since; }
+                public int getLoyaltyPoints() { return loyaltyPoints; }
+                public void setLoyaltyPoints(int loyaltyPoints) { this.loyaltyPoints = loyaltyPoints; }
+                public boolean isActive() { return active; }
+                public void setActive(boolean active) { this.active = active; }
+            }
+            """,
+            """
+            package com.acme.util;
+
+            public final class Strings {
+                private Strings() {}
+
+                public static boolean isBlank(String value) { return value == null || value.trim().isEmpty(); }
+                public static String truncate(String value, int max) {
+                    if (max < 0) throw new IllegalArgumentException("max must not be negative");
+                    return value.length() <= max ? value : value.substring(0, max);
+                }
+                public static int countOf(String text, char c) {
+                    int count = 0;
+                    for (int i = 0; i < text.length(); i++) if (text.charAt(i) == c) count++;
+                    return count;
+                }
+                public static String repeat(String unit, int times) { return unit.repeat(times); }
+            }
+            """,
+            """
+            package com.acme.shipping;
+
+            public class ShippingRates {
+                public enum Zone { DOMESTIC, EUROPE, WORLD }
+
+                public long priceCents(Zone zone, double weightKg, boolean express) {
+                    if (weightKg <= 0) throw new IllegalArgumentException("weight must be positive");
+                    long base = switch (zone) {
+                        case DOMESTIC -> 499;
+                        case EUROPE -> 1299;
+                        case WORLD -> 2499;
+                    };
+                    long perKg = Math.round(weightKg * (zone == Zone.DOMESTIC ? 100 : 350));
+                    return express ? (base + perKg) * 2 : base + perKg;
+                }
+
+                public int deliveryDays(Zone zone, boolean express) {
+                    int days = zone.ordinal() * 3 + 2;
+                    return express ? Math.max(1, days / 2) : days;
+                }
+            }
+            """);
+}
@@ -0,0 +1,98 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.models.ContentBlob;
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.repository.ContentBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Runs against H2 (the "test" profile) in MySQL mode, so the insert-if-absent statement is the real one
+@SpringBootTest
+@ActiveProfiles("test")
+class BlobStoreTest {
+
+    @Autowired
+    private BlobStore blobStore;
+    @Autowired
+    private ContentBlobRepository contentBlobRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void identicalTextsAreStoredOnce() {
+        String text = testCode();
+
+        Map<String, ContentBlob> first = transactionTemplate.execute(status -> blobStore.storeAll(List.of(text, text)));
+        Map<String, ContentBlob> second = transactionTemplate.execute(status -> blobStore.storeAll(List.of(text)));
+
+        assertEquals(first.keySet(), second.keySet());
+        assertEquals(1, rowsWithHash(BlobStore.hashOf(text)));
+    }
+
+    @Test
+    void blobsAreCompressedAndReadBackUnchanged() {
+        String text = testCode() + "        // ümläuts and ☃ survive\n";
+        String hash = BlobStore.hashOf(text);
+        transactionTemplate.executeWithoutResult(status -> blobStore.storeAll(List.of(text)));
+
+        String read = transactionTemplate.execute(status -> {
+            ContentBlob blob = contentBlobRepository.findById(hash).orElseThrow();
+            assertEquals(BlobCodec.DEFLATE, blob.getCodec());
+            assertTrue(blob.getData().length < blob.getOriginalSize(), blob.getData().length + " bytes");
+            return blobStore.read(blob);
+        });
+        assertEquals(text, read);
+    }
+
+    // What a writer sees when another one inserts the same blob between its lookup and its insert
+    @Test
+    void blobInsertedByAnotherWriterIsNotAnError() {
+        String text = testCode();
+        transactionTemplate.executeWithoutResult(status -> blobStore.storeAll(List.of(text)));
+        ContentBlobRepository staleLookup = mock(ContentBlobRepository.class);
+        when(staleLookup.findExistingHashes(anyCollection())).thenReturn(List.of());
+        when(staleLookup.getReferenceById(any())).thenAnswer(call -> contentBlobRepository.getReferenceById(call.getArgument(0)));
+        BlobStore racing = new BlobStore(staleLookup, jdbcTemplate);
+
+        String read = transactionTemplate.execute(status -> racing.read(racing.storeAll(List.of(text)).get(BlobStore.hashOf(text))));
+
+        assertEquals(text, read);
+        assertEquals(1, rowsWithHash(BlobStore.hashOf(text)));
+    }
+
+    @Test
+    void legacyRowsAreReadFromTheirInlineColumns() {
+        SavedTest legacy = new SavedTest();
+        legacy.setSourceCode("class Legacy {}");
+        legacy.setGeneratedTestCode("class LegacyTest {}");
+
+        assertEquals("class Legacy {}", blobStore.sourceOf(legacy));
+        assertEquals("class LegacyTest {}", blobStore.testOf(legacy));
+    }
+
+    private int rowsWithHash(String hash) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM content_blobs WHERE hash = ?", Integer.class, hash);
+    }
+
+    // Unique per call, since the context (and its database) is shared with other tests
+    private static String testCode() {
+        return ("    @Test\n    void test_" + UUID.randomUUID().toString().replace('-', '_') + "() {\n"
+                + "        assertNotNull(calculator.add(5, 5), \"Result should not be null\");\n    }\n\n").repeat(20);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.EdgeCase;
+import com.example.unittestgenerator.dto.GenerateResponse;
+import com.example.unittestgenerator.dto.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassModelTest {
+
+    private static final String SOURCE = """
+            package com.acme;
+
+            public class Calc {
+                public enum Mode { FAST, SLOW }
+
+                private int total;
+
+                public Calc(int start) throws java.io.IOException { this.total = start; }
+
+                public int divide(int a, int b) {
+                    if (b < 0) throw new IllegalArgumentException("negative");
+                    return a / b;
+                }
+
+                public String label(Mode mode, java.util.List<String> parts) { return parts.get(0); }
+
+                public void reset() { total = 0; }
+
+                private int hidden() { return 1; }
+            }
+            """;
+
+    private final GeneratorService service = GeneratorService.standalone().create();
+
+    @Test
+    void analyzesSignaturesThrowsAndBodyHints() {
+        ClassModel model = service.analyze(SOURCE, GenerationOptions.defaults());
+
+        assertEquals("com.acme", model.packageName());
+        assertEquals(List.of("divide(int,int)", "label(Mode,java.util.List<String>)", "reset()"),
+                model.methods().stream().map(ClassModel.MethodModel::signature).toList());
+        assertEquals(List.of("java.io.IOException"), model.constructors().get(0).thrown());
+
+        ClassModel.MethodModel divide = model.methods().get(0);
+        assertEquals(List.of("IllegalArgumentException"), divide.thrownInBody());
+        assertEquals(Set.of(ClassModel.BodyHint.DIVIDES), divide.hints());
+        assertTrue(model.methods().get(1).hints().contains(ClassModel.BodyHint.INDEXES));
+        assertEquals("Calc.Mode", model.enums().get(0).nestedName());
+    }
+
+    @Test
+    void codecRoundTripsAndRendersTheSameTestWithoutParsing() {
+        GenerateResponse parsed = service.generate(SOURCE, false);
+        ClassModel decoded = ClassModelCodec.decode(ClassModelCodec.encode(parsed.getClassModel()));
+
+        assertEquals(parsed.getClassModel(), decoded);
+        assertEquals(parsed.getMainTestFileContent(),
+                service.generate(decoded, GenerationOptions.defaults()).getMainTestFileContent());
+        assertThrows(IllegalStateException.class, () -> ClassModelCodec.decode(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void suggestsEdgeCasesFromTheModel() {
+        List<Suggestion> suggestions = service.suggest(service.analyze(SOURCE, GenerationOptions.defaults()));
+
+        assertEquals(List.of("divide", "label", "reset"),
+                suggestions.stream().map(Suggestion::getTargetMethodName).map(n -> n.substring(n.lastIndexOf(' ') + 1)).toList());
+        List<String> divide = suggestions.get(0).getEdgeCases().stream().map(EdgeCase::getSnippet).toList();
+        assertTrue(divide.contains("assertThrows(ArithmeticException.class, () -> calc.divide(5, 0));"));
+        assertTrue(divide.contains("assertThrows(IllegalArgumentException.class, () -> calc.divide(5, 5));"));
+        assertTrue(suggestions.get(1).getEdgeCases().stream()
+                .anyMatch(e -> e.getSnippet().contains("@EnumSource(Calc.Mode.class)")));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.CompileDiagnostic;
+import com.example.unittestgenerator.dto.CompileReport;
+import com.example.unittestgenerator.dto.GenerateResponse;
+import com.example.unittestgenerator.dto.SourceFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompileCheckTest {
+
+    // The test classpath has JUnit 5, AssertJ and Mockito, but not TestNG or JUnit 4
+    private final CompileCheck compileCheck = new CompileCheck(true, "", 2, true, GeneratorMetrics.noop());
+    private final GeneratorService service = GeneratorService.standalone().withCompileCheck(compileCheck).create();
+
+    private static final String PRICING = """
+            package com.acme.shop;
+
+            public class Pricing {
+                private final int rate;
+                public Pricing(int rate) { this.rate = rate; }
+                public int total(int net, int qty) { return net * qty * rate; }
+                public boolean isFree(String code) { return "FREE".equals(code); }
+            }
+            """;
+
+    @Test
+    void generatedTestsAreCompiledWithTheirSourceAndReportErrorsByLine() {
+        GenerateResponse response = service.generate(PRICING, false);
+        assertEquals(CompileReport.Status.PASSED, response.getCompileCheck().getStatus(),
+                () -> response.getCompileCheck().getDiagnostics().toString());
+
+        // Wrong literal type and a constructor that doesn't exist
+        String broken = response.getMainTestFileContent()
+                .replaceFirst("(?s)(void setUp\\(\\)[^{]*\\{)", "$1\n        Pricing none = new Pricing();\n        int flag = \"yes\";");
+        CompileReport report = compileCheck.check(PRICING, broken);
+
+        assertEquals(CompileReport.Status.FAILED, report.getStatus());
+        assertEquals(2, report.getDiagnostics().size(), report.getDiagnostics().toString());
+        for (CompileDiagnostic diagnostic : report.getDiagnostics()) {
+            assertEquals("test", diagnostic.getFile());
+            assertTrue(diagnostic.getLine() > 0);
+        }
+        assertNull(service.generate(PRICING, false, GenerationOptions.defaults().withCompileCheck(false)).getCompileCheck());
+    }
+
+    @Test
+    void batchFilesResolveTheirSiblingsFromTheSourcePath() {
+        SourceFile orders = new SourceFile("src/main/java/com/acme/shop/Orders.java", """
+                package com.acme.shop;
+
+                public class Orders {
+                    private final Pricing pricing = new Pricing(2);
+                    public int charge(int net) { return pricing.total(net, 1); }
+                }
+                """);
+        SourceFile pricing = new SourceFile("src/main/java/com/acme/shop/Pricing.java", PRICING);
+        List<String> tests = List.of(service.generate(orders.getSourceCode(), false,
+                GenerationOptions.defaults().withCompileCheck(false)).getMainTestFileContent());
+
+        CompileReport alone = compileCheck.check(orders, tests, CompileCheck.SourcePath.of(List.of(orders))).get(0);
+        CompileReport together = compileCheck.check(orders, tests, CompileCheck.SourcePath.of(List.of(orders, pricing))).get(0);
+
+        assertEquals(CompileReport.Status.FAILED, alone.getStatus());
+        assertEquals("source", alone.getDiagnostics().get(0).getFile());
+        assertEquals(CompileReport.Status.PASSED, together.getStatus(), () -> together.getDiagnostics().toString());
+    }
+
+    @Test
+    void testsForFrameworksMissingFromTheClasspathAreSkipped() {
+        GenerateResponse response = service.generate(PRICING, false, GenerationOptions.defaults().withTemplateStyle("testng"));
+
+        assertEquals(CompileReport.Status.SKIPPED, response.getCompileCheck().getStatus());
+        assertTrue(response.getCompileCheck().getNote().startsWith("org.testng"), response.getCompileCheck().getNote());
+        assertNull(GeneratorService.standalone().create().generate(PRICING, false).getCompileCheck());
+    }
+}
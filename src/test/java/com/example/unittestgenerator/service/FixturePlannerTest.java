@@ -0,0 +1,99 @@
+package com.example.unittestgenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixturePlannerTest {
+
+    private final GeneratorService service = GeneratorService.standalone().create();
+
+    @Test
+    void mocksCollaboratorsOfTheGreediestConstructor() {
+        String source = """
+                package com.acme.orders;
+
+                import com.acme.repo.OrderRepository;
+
+                public class OrderService {
+                    private final OrderRepository repository;
+                    private final int retries;
+
+                    public OrderService() { this(null, 1); }
+                    public OrderService(OrderService other) { this(other.repository, other.retries); }
+                    public OrderService(OrderRepository repository, int retries) {
+                        this.repository = repository;
+                        this.retries = retries;
+                    }
+
+                    public int count(String status) { return 0; }
+                }
+                """;
+
+        String test = service.generate(source, false).getMainTestFileContent();
+
+        assertTrue(test.startsWith("package com.acme.orders;\n\n"));
+        assertTrue(test.contains("import com.acme.repo.OrderRepository;\n"));
+        assertTrue(test.contains("import static org.mockito.Mockito.mock;\n"));
+        assertTrue(test.contains("    private OrderRepository repository;\n    private OrderService orderService;\n"));
+        assertTrue(test.contains("        repository = mock(OrderRepository.class);\n"
+                + "        orderService = new OrderService(repository, 5);\n"));
+    }
+
+    @Test
+    void injectsAnnotatedFieldsAndCallsStaticMethodsOnTheType() {
+        String source = """
+                public class Reports {
+                    @Autowired
+                    private Clock clock;
+
+                    Reports() throws java.io.IOException {}
+
+                    public static String title(String name) { return name; }
+                }
+                """;
+
+        String test = service.generate(source, false).getMainTestFileContent();
+
+        assertTrue(test.contains("void setUp() throws Exception {"));
+        assertTrue(test.contains("reports = new Reports();\n"
+                + "        ReflectionTestUtils.setField(reports, \"clock\", clock);\n"));
+        assertTrue(test.contains("Reports.title(\"valid_string\")"));
+        assertFalse(test.contains("reports.title("));
+    }
+
+    @Test
+    void reusesThePlanWhileTheConstructorsStayTheSame() {
+        FixturePlanner planner = new FixturePlanner();
+        HeuristicValueRegistry values = HeuristicValueRegistry.defaults();
+        ClassModel first = service.analyze("class A { A(Dep d) {} public void m() {} }", GenerationOptions.defaults());
+        ClassModel methodAdded = service.analyze("class A { A(Dep d) {} public void m() {} public void n() {} }", GenerationOptions.defaults());
+        ClassModel constructorChanged = service.analyze("class A { A(Dep d, int x) {} public void m() {} }", GenerationOptions.defaults());
+
+        FixturePlanner.Plan plan = planner.planFor(first, values.forModel(first));
+
+        assertSame(plan, planner.planFor(methodAdded, values.forModel(methodAdded)));
+        assertEquals(2, planner.planFor(constructorChanged, values.forModel(constructorChanged)).arguments().size());
+        assertEquals(1, planner.size());
+        assertNull(planner.planFor(service.analyze("class B { private B() {} }", GenerationOptions.defaults()),
+                values.forModel(first)).typeName());
+    }
+
+    @Test
+    void dropsTheLeastRecentlyPlannedClassWhenFull() {
+        FixturePlanner planner = new FixturePlanner(2);
+        HeuristicValueRegistry values = HeuristicValueRegistry.defaults();
+        ClassModel a = service.analyze("class A { A(Dep d) {} }", GenerationOptions.defaults());
+        ClassModel b = service.analyze("class B { B(Dep d) {} }", GenerationOptions.defaults());
+        ClassModel c = service.analyze("class C { C(Dep d) {} }", GenerationOptions.defaults());
+
+        FixturePlanner.Plan planA = planner.planFor(a, values.forModel(a));
+        FixturePlanner.Plan planB = planner.planFor(b, values.forModel(b));
+        planner.planFor(a, values.forModel(a));
+        planner.planFor(c, values.forModel(c));
+
+        assertEquals(2, planner.size());
+        assertSame(planA, planner.planFor(a, values.forModel(a)));
+        assertNotSame(planB, planner.planFor(b, values.forModel(b)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.unittestgenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationAdmissionTest {
+
+    private static GenerationAdmission admission(int maxConcurrent, int maxWaiting, int perMinute, int burst) {
+        return new GenerationAdmission(1_000, 10_000, 100, maxConcurrent, maxWaiting, 10, perMinute, burst,
+                GeneratorMetrics.noop());
+    }
+
+    @Test
+    void refusesOversizedInputWith413() {
+        GenerationAdmission admission = admission(1, 0, 0, 1);
+
+        admission.checkRequestSize(-1, false);
+        admission.checkRequestSize(5_000, true);
+        admission.checkSource("x".repeat(100));
+        AdmissionRejectedException body = assertThrows(AdmissionRejectedException.class,
+                () -> admission.checkRequestSize(5_000, false));
+        AdmissionRejectedException source = assertThrows(AdmissionRejectedException.class,
+                () -> admission.checkSource("x".repeat(101)));
+
+        assertEquals(413, body.getStatus());
+        assertEquals(0, source.getRetryAfterSeconds());
+        assertEquals(2, admission.stats().getRejectedTooLarge());
+    }
+
+    @Test
+    void turnsAwayRequestsBeyondTheConcurrencyLimit() {
+        GenerationAdmission admission = admission(1, 1, 0, 1);
+
+        GenerationAdmission.Permit permit = admission.acquire();
+        AdmissionRejectedException busy = assertThrows(AdmissionRejectedException.class, admission::acquire);
+        permit.close();
+        permit.close(); // idempotent: must not free a second slot
+
+        assertEquals(429, busy.getStatus());
+        assertEquals(1, busy.getRetryAfterSeconds());
+        try (GenerationAdmission.Permit again = admission.acquire()) {
+            assertEquals(1, admission.stats().getActive());
+            assertThrows(AdmissionRejectedException.class, admission::acquire);
+        }
+        assertEquals(0, admission.stats().getActive());
+        assertEquals(2, admission.stats().getRejectedBusy());
+    }
+
+    @Test
+    void limitsEachUserToItsOwnBucket() {
+        GenerationAdmission admission = admission(1, 0, 60, 2);
+
+        admission.checkRate(1L);
+        admission.checkRate(1L);
+        AdmissionRejectedException limited = assertThrows(AdmissionRejectedException.class, () -> admission.checkRate(1L));
+        admission.checkRate(2L);
+        admission.checkRate(null);
+
+        assertEquals(429, limited.getStatus());
+        assertEquals(1, limited.getRetryAfterSeconds());
+        assertEquals(1, admission.stats().getRejectedRate());
+        assertEquals(2, admission.stats().getTrackedUsers());
+    }
+}
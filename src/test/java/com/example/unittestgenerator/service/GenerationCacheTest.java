@@ -0,0 +1,60 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.GenerateResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationCacheTest {
+
+    private static final String SOURCE = """
+            public class Calculator {
+                public int add(int a, int b) { return a + b; }
+            }
+            """;
+
+    @Test
+    void fingerprintIgnoresWhitespaceAndComments() {
+        String reformatted = """
+                // a calculator
+                public class Calculator
+                {
+                    /** Adds. */
+                    public int add(int a,int b){return a+b;}
+                }
+                """;
+        assertEquals(SourceFingerprint.of(SOURCE), SourceFingerprint.of(reformatted));
+    }
+
+    @Test
+    void fingerprintKeepsLiteralsAndTokenBoundaries() {
+        assertNotEquals(SourceFingerprint.of("String s = \"a b\";"), SourceFingerprint.of("String s = \"ab\";"));
+        assertNotEquals(SourceFingerprint.of("int x = a - -b;"), SourceFingerprint.of("int x = a--b;"));
+        assertNotEquals(SourceFingerprint.of("int x;"), SourceFingerprint.of("intx;"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        GenerationCache cache = new GenerationCache(true, 2, 600);
+        cache.put("a", new GenerateResponse("A", null));
+        cache.put("b", new GenerateResponse("B", null));
+        assertNotNull(cache.get("a"));
+        cache.put("c", new GenerateResponse("C", null));
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(2, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void repeatSubmissionIsServedFromCache() {
+        GeneratorService service = GeneratorService.standalone().withCache(new GenerationCache(true, 10, 600)).create();
+        GenerateResponse first = service.generate(SOURCE);
+        GenerateResponse second = service.generate(SOURCE.replace("    ", "\t"));
+
+        assertSame(first, second);
+        assertNotSame(first, service.generate(SOURCE, false));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.JobSummary;
+import com.example.unittestgenerator.dto.SourceFile;
+import com.example.unittestgenerator.models.ContentBlob;
+import com.example.unittestgenerator.models.GenerationJob;
+import com.example.unittestgenerator.models.GenerationJobResult;
+import com.example.unittestgenerator.models.JobStatus;
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.ContentBlobRepository;
+import com.example.unittestgenerator.repository.GenerationJobRepository;
+import com.example.unittestgenerator.repository.GenerationJobResultRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GenerationJobServiceTest {
+
+    private final GenerationJobRepository jobRepository = mock(GenerationJobRepository.class);
+    private final GenerationJobResultRepository resultRepository = mock(GenerationJobResultRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ContentBlobRepository contentBlobRepository = mock(ContentBlobRepository.class);
+    private final SavedTestWriter savedTestWriter = mock(SavedTestWriter.class);
+    private final GeneratorService generatorService = GeneratorService.standalone().create();
+
+    // The "database": jobs by id and result rows in insertion order
+    private final Map<Long, GenerationJob> jobs = new HashMap<>();
+    private final List<GenerationJobResult> rows = new ArrayList<>();
+    private final List<Runnable> queued = new ArrayList<>();
+
+    GenerationJobServiceTest() {
+        AtomicLong ids = new AtomicLong();
+        when(jobRepository.save(any())).thenAnswer(call -> {
+            GenerationJob job = call.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(ids.incrementAndGet());
+            }
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(jobRepository.findById(anyLong())).thenAnswer(call -> Optional.ofNullable(jobs.get(call.<Long>getArgument(0))));
+        when(resultRepository.saveAll(anyList())).thenAnswer(call -> {
+            rows.addAll(call.getArgument(0));
+            return call.getArgument(0);
+        });
+        // Stored blobs come back as references
+        when(contentBlobRepository.getReferenceById(anyString()))
+                .thenAnswer(call -> new ContentBlob(call.getArgument(0), BlobCodec.DEFLATE, 0, new byte[0]));
+        when(userRepository.existsById(7L)).thenReturn(true);
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.getReferenceById(7L)).thenReturn(user);
+    }
+
+    private GenerationJobService service() {
+        return new GenerationJobService(jobRepository, resultRepository, userRepository,
+                new BlobStore(contentBlobRepository, mock(JdbcTemplate.class)), savedTestWriter, generatorService,
+                new GenerationAdmission(1_000, 1_000, 1_000, 1, 0, 0, 0, 1, GeneratorMetrics.noop()),
+                new TransactionTemplate(noOpTransactionManager()), new ObjectMapper(), queued::add, 10);
+    }
+
+    private static List<SourceFile> files() {
+        return List.of(
+                new SourceFile("A.java", "public class A { public int a(int x) { return x; } }"),
+                new SourceFile("Broken.java", "public class {"),
+                new SourceFile("B.java", "public class B { public String b(String s) { return s; } public static class C {} }"));
+    }
+
+    @Test
+    void submitReturnsAtOnceAndWorkersCommitResultsPerFile() {
+        GenerationJobService service = service();
+        List<JobSummary> progress = new ArrayList<>();
+
+        JobSummary submitted = service.submit(7L, files(), null, "junit4");
+        service.subscribe(submitted.getId(), (summary, newResults) -> progress.add(summary));
+
+        assertEquals(JobStatus.QUEUED, submitted.getStatus());
+        assertEquals(1, queued.size());
+        assertTrue(rows.isEmpty());
+
+        queued.get(0).run();
+
+        JobSummary done = service.find(submitted.getId()).orElseThrow();
+        assertEquals(JobStatus.SUCCEEDED, done.getStatus());
+        assertEquals(3, done.getCompletedFiles());
+        assertEquals(3, done.getSucceededClasses());
+        assertEquals(1, done.getFailedClasses());
+        assertEquals(7L, done.getUserId());
+        assertNull(done.getAccessKey()); // a user's jobs are read with their token
+        assertEquals(List.of(0, 1, 2, 3), progress.stream().map(JobSummary::getCompletedFiles).toList().subList(0, 4));
+        assertTrue(progress.get(progress.size() - 1).isFinished());
+        assertEquals(Arrays.asList("A", null, "B", "B.C"), rows.stream().map(GenerationJobResult::getClassName).toList());
+        assertTrue(rows.get(0).getTestBlob() != null && rows.get(1).getError() != null);
+        verify(savedTestWriter, times(3)).persistNow(anyList());
+    }
+
+    @Test
+    void resumesAnInterruptedJobFromItsLastCommittedFile() {
+        GenerationJobService service = service();
+        JobSummary submitted = service.submit(null, files(), null, null);
+        GenerationJob job = jobs.get(submitted.getId());
+        assertEquals(36, submitted.getAccessKey().length());
+        assertEquals(submitted.getAccessKey(), job.getAccessKey());
+        job.setStatus(JobStatus.RUNNING);
+        job.setCompletedFiles(2); // A and Broken were committed before the restart
+        queued.clear();
+        when(jobRepository.findByStatusInOrderByIdAsc(anyCollection())).thenReturn(List.of(job));
+
+        service.resumeUnfinished();
+        queued.get(0).run();
+
+        assertEquals(JobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(List.of("B", "B.C"), rows.stream().map(GenerationJobResult::getClassName).toList());
+        assertTrue(rows.stream().allMatch(row -> row.getFileIndex() == 2));
+        verify(savedTestWriter).persistNow(List.of()); // anonymous jobs add nothing to history
+    }
+
+    @Test
+    void rejectsInvalidSubmissionsBeforeQueueing() {
+        GenerationJobService service = service();
+
+        assertThrows(IllegalArgumentException.class, () -> service.submit(null, List.of(), null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.submit(99L, files(), null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.submit(null, files(), null, "nope"));
+        assertTrue(queued.isEmpty());
+        assertTrue(jobs.isEmpty());
+    }
+
+    private static PlatformTransactionManager noOpTransactionManager() {
+        PlatformTransactionManager manager = mock(PlatformTransactionManager.class);
+        when(manager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return manager;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.ClassTestResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratorServiceTest {
+
+    private final GeneratorService service = GeneratorService.standalone().create();
+
+    @Test
+    void generatesOneTestClassPerTopLevelAndNestedClass() {
+        String source = """
+                package com.acme;
+
+                public class Order {
+                    public int total(int qty) { return qty; }
+
+                    public static class Line {
+                        public String label(String s) { return s; }
+                    }
+                }
+
+                interface Priced { int price(); }
+                """;
+
+        List<ClassTestResult> results = service.generateAllClasses("Order.java", source);
+
+        assertEquals(List.of("Order", "Order.Line"), results.stream().map(ClassTestResult::getClassName).toList());
+        assertTrue(results.get(1).getMainTestFileContent().contains("line = new Order.Line();"));
+    }
+
+    @Test
+    void reportsUnparseableFileWithoutThrowing() {
+        List<ClassTestResult> results = service.generateAllClasses("Broken.java", "public class {");
+
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).isSuccess());
+    }
+
+    @Test
+    void languageLevelOptionSelectsParser() {
+        String java21 = """
+                public class Shapes {
+                    public String describe(Object o) {
+                        return switch (o) {
+                            case Integer i when i > 0 -> "positive";
+                            default -> "other";
+                        };
+                    }
+                }
+                """;
+        ParserPool pool = new ParserPool("JAVA_17", 4);
+
+        assertThrows(IllegalArgumentException.class, () -> service.generate(java21, false));
+        assertNotNull(service.generate(java21, false, GenerationOptions.defaults().withLanguageLevel(pool.resolve("21"))));
+    }
+
+    @Test
+    void streamedChunksConcatenateToTheBufferedOutput() throws Exception {
+        String source = """
+                public class Calculator {
+                    public int add(int a, int b) { return a + b; }
+                    public void reset() {}
+                    public String join(java.util.List<String> parts) { return ""; }
+                }
+                """;
+        StringBuilder streamed = new StringBuilder();
+        List<TestChunk> kinds = new ArrayList<>();
+        service.prepareStream(source, GenerationOptions.defaults()).writeTo((kind, name, content) -> {
+            kinds.add(kind);
+            streamed.append(content);
+        });
+
+        assertEquals(service.generate(source, false).getMainTestFileContent(), streamed.toString());
+        assertEquals(List.of(TestChunk.HEADER, TestChunk.METHOD, TestChunk.METHOD, TestChunk.METHOD, TestChunk.FOOTER), kinds);
+    }
+
+    @Test
+    void parallelRenderingIsByteIdenticalToSequential() {
+        String[] types = {"int", "String", "Level", "List<Long>", "Order", "double[]", "boolean"};
+        StringBuilder source = new StringBuilder("""
+                package com.acme;
+
+                import java.util.List;
+
+                public class Ledger {
+                    public enum Level { LOW, HIGH }
+
+                    public Ledger(OrderRepository repository) {}
+                """);
+        for (int m = 0; m < 203; m++) {
+            source.append("    public int op").append(m).append('(');
+            for (int p = 0; p < m % 4; p++) {
+                source.append(p > 0 ? ", " : "").append(types[(m + p) % types.length]).append(" a").append(p);
+            }
+            source.append(") { return 0; }\n");
+        }
+        source.append("}\n");
+        ParallelRendering parallel = new ParallelRendering(16, 4);
+        GeneratorService parallelService = GeneratorService.standalone().withRendering(parallel).create();
+
+        String sequential = service.generate(source.toString(), false).getMainTestFileContent();
+
+        assertTrue(parallel.appliesTo(203));
+        assertEquals(4, parallel.tasksFor(203));
+        for (int run = 0; run < 20; run++) {
+            assertEquals(sequential, parallelService.generate(source.toString(), false).getMainTestFileContent());
+        }
+        parallel.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.unittestgenerator.service;
+
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicValueRegistryTest {
+
+    private static final String SOURCE = """
+            public class Shop {
+                public enum Size { SMALL, MEDIUM, LARGE }
+                public void order(long id, short qty, Integer count, Size size, java.util.List<Long> ids,
+                                  java.util.Optional<String> note, char[] codes, java.math.BigDecimal price, Object any) {}
+            }
+            """;
+
+    private final ClassModel model = ClassAnalyzer.analyze(new ParserPool("JAVA_17", 1).parse(SOURCE)
+            .findFirst(ClassOrInterfaceDeclaration.class).orElseThrow(), "Shop");
+    private final List<String> types = model.methods().get(0).params().stream()
+            .map(ClassModel.ParamModel::type).toList();
+
+    @Test
+    void literalsMatchTheDeclaredTypeWhileCsvValuesStayPlain() {
+        HeuristicValueRegistry.UnitValues values = HeuristicValueRegistry.defaults().forModel(model);
+
+        assertEquals("9223372036854775807L", values.resolve(types.get(0)).literal(HeuristicKind.MAX));
+        assertEquals("9223372036854775807", values.resolve(types.get(0)).csv(HeuristicKind.MAX));
+        assertEquals("(short) 5", values.resolve(types.get(1)).literal(HeuristicKind.POSITIVE));
+        assertEquals("5", values.resolve(types.get(1)).csv(HeuristicKind.POSITIVE));
+        assertTrue(values.resolve(types.get(2)).isCsvCompatible());
+        assertEquals("new java.math.BigDecimal(\"5.5\")", values.resolve(types.get(7)).literal(HeuristicKind.POSITIVE));
+    }
+
+    @Test
+    void resolvesEnumsContainersAndArrays() {
+        HeuristicValueRegistry.UnitValues values = HeuristicValueRegistry.defaults().forModel(model);
+
+        assertEquals("Shop.Size.LARGE", values.resolve(types.get(3)).literal(HeuristicKind.MAX));
+        assertEquals("SMALL", values.resolve(types.get(3)).csv(HeuristicKind.POSITIVE));
+        assertEquals("java.util.List.of(-5L)", values.resolve(types.get(4)).literal(HeuristicKind.NEGATIVE));
+        assertEquals("java.util.Optional.empty()", values.resolve(types.get(5)).literal(HeuristicKind.ZERO));
+        assertEquals("new char[] {'a'}", values.resolve(types.get(6)).literal(HeuristicKind.POSITIVE));
+        assertSame(ValueTable.NULL, values.resolve(types.get(8)));
+        assertFalse(values.resolve(types.get(4)).isCsvCompatible());
+    }
+
+    @Test
+    void customProvidersTakePrecedenceAndAreAskedOncePerType() {
+        int[] calls = {0};
+        ValueProvider money = (type, resolver) -> {
+            if (!type.asString().equals("java.math.BigDecimal")) {
+                return null;
+            }
+            calls[0]++;
+            return ValueTable.literals("Money.ONE", "Money.MINUS_ONE", "Money.ZERO", "Money.MAX");
+        };
+        HeuristicValueRegistry registry = new HeuristicValueRegistry(List.of(money));
+
+        assertEquals("Money.ONE", registry.forModel(model).resolve(types.get(7)).literal(HeuristicKind.POSITIVE));
+        registry.forModel(model).resolve(types.get(7));
+        assertEquals(1, calls[0]);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.HistoryPage;
+import com.example.unittestgenerator.dto.SavedTestSearchRow;
+import com.example.unittestgenerator.dto.SavedTestSummary;
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HistorySearchIndexTest {
+
+    private final SavedTestRepository savedTestRepository = mock(SavedTestRepository.class);
+    private final HistorySearchIndex index = new HistorySearchIndex(savedTestRepository, GeneratorMetrics.noop(), 16, 1 << 24);
+
+    private static final String PAYMENTS = """
+            package com.acme.pay;
+
+            public class PaymentCalculator {
+                public long feeFor(Invoice invoice) { return invoice.totalCents() / 100; }
+                public boolean isRefundable(String orderId) { return orderId.startsWith("R"); }
+            }
+            """;
+
+    @Test
+    void wordsMatchAsPrefixesOfNamesAndCamelCaseParts() {
+        when(savedTestRepository.findSearchRows(eq(1L), eq(0L), any())).thenReturn(List.of(
+                row(10, "PaymentCalculator", SearchTerms.of("PaymentCalculator", null, PAYMENTS)),
+                row(11, "OrderService", SearchTerms.of("OrderService", null, "class OrderService { Invoice open(String orderId) { return null; } }")),
+                row(12, "LegacyPayments", null)));
+
+        assertEquals(List.of(10L), ids(index.search(1L, "calc", null, 20)));
+        assertEquals(List.of(10L), ids(index.search(1L, "PaymentCalc", null, 20)));
+        assertEquals(List.of(12L, 10L), ids(index.search(1L, "pay", null, 20)));
+        assertEquals(List.of(11L, 10L), ids(index.search(1L, "invoice", null, 20)));
+        assertEquals(List.of(11L), ids(index.search(1L, "invoice open", null, 20)));
+        assertEquals(List.of(), ids(index.search(1L, "invoice legacy", null, 20)));
+        assertEquals(List.of(12L, 11L, 10L), ids(index.search(1L, "", null, 20)));
+        // Keywords and literals aren't terms, but identifiers in method bodies are
+        assertEquals(List.of(), ids(index.search(1L, "public", null, 20)));
+        assertEquals(List.of(10L), ids(index.search(1L, "startsWith", null, 20)));
+        verify(savedTestRepository, times(1)).findSearchRows(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void pagesFollowTheCursorNewestFirst() {
+        List<SavedTestSearchRow> rows = new ArrayList<>();
+        for (int id = 1; id <= 45; id++) {
+            rows.add(row(id, "Widget" + id, id % 3 == 0 ? "widget gadget" : "widget"));
+        }
+        when(savedTestRepository.findSearchRows(eq(1L), eq(0L), any())).thenReturn(rows);
+
+        HistoryPage first = index.search(1L, "gad", null, 10);
+        HistoryPage second = index.search(1L, "gad", first.getNextCursor(), 10);
+
+        assertEquals(List.of(45L, 42L, 39L, 36L, 33L, 30L, 27L, 24L, 21L, 18L), ids(first));
+        assertEquals(List.of(15L, 12L, 9L, 6L, 3L), ids(second));
+        assertNull(second.getNextCursor());
+        assertThrows(IllegalArgumentException.class, () -> index.search(1L, "gad", "not-a-cursor", 10));
+    }
+
+    @Test
+    void savesAndDeletesUpdateALoadedIndex() {
+        when(savedTestRepository.findSearchRows(eq(1L), eq(0L), any())).thenReturn(List.of(
+                row(5, "Alpha", "alpha"), row(9, "Beta", "beta")));
+        assertEquals(List.of(9L, 5L), ids(index.search(1L, "", null, 20)));
+
+        index.added(List.of(saved(1L, 12, "Alphabet", "alphabet"), saved(1L, 7, "AlphaTwo", "alpha two"),
+                saved(2L, 13, "Other", "alpha")));
+        index.removed(1L, 5L);
+        index.removed(1L, 404L);
+
+        assertEquals(List.of(12L, 7L), ids(index.search(1L, "alpha", null, 20)));
+        assertEquals(List.of(7L), ids(index.search(1L, "alpha", new HistoryPage.Cursor(LocalDateTime.now(), 12L).encode(), 20)));
+        // Users that never searched aren't loaded by saves
+        assertEquals(1, index.loadedUsers());
+    }
+
+    @Test
+    void queriesOverOneHundredThousandEntriesStayIndexed() {
+        UserSearchIndex large = new UserSearchIndex();
+        for (int id = 1; id <= 100_000; id++) {
+            large.add(new SavedTestSummary((long) id, "Service" + id, null, 0, 0),
+                    "service" + id + " common " + (id % 2 == 0 ? "even" : "odd") + " bucket" + (id % 100));
+        }
+        large.remove(99_998L);
+
+        // "bucket4" also covers bucket40..bucket49
+        HistoryPage page = large.search(List.of("even", "bucket4"), null, 3);
+        assertEquals(List.of(99_948L, 99_946L, 99_944L), ids(page));
+        assertEquals(List.of(99_904L, 99_848L), ids(large.search(List.of("even", "bucket4"), 99_940L, 2)));
+        assertEquals(List.of(99_999L, 99_997L), ids(large.search(List.of("common", "odd"), null, 2)));
+        // service9, service90..99, ... service90000..99999, less the deleted one
+        assertEquals(11_110, large.search(List.of("service9"), null, 20_000).getItems().size());
+    }
+
+    private static SavedTestSearchRow row(long id, String className, String terms) {
+        return new SavedTestSearchRow(id, className, LocalDateTime.now(), 10, 20, terms);
+    }
+
+    private static SavedTest saved(long userId, long id, String className, String terms) {
+        User user = new User();
+        user.setId(userId);
+        SavedTest test = new SavedTest();
+        test.setId(id);
+        test.setUser(user);
+        test.setClassName(className);
+        test.setSearchTerms(terms);
+        return test;
+    }
+
+    private static List<Long> ids(HistoryPage page) {
+        return page.getItems().stream().map(SavedTestSummary::getId).toList();
+    }
+}
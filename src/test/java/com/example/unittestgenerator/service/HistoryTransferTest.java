@@ -0,0 +1,124 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.HistoryImportResult;
+import com.example.unittestgenerator.dto.HistoryPage;
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against H2 (the "test" profile): the cursor, the JDBC batches and the blob rows are real
+@SpringBootTest
+@ActiveProfiles("test")
+class HistoryTransferTest {
+
+    @Autowired
+    private HistoryTransfer historyTransfer;
+    @Autowired
+    private HistorySearchIndex searchIndex;
+    @Autowired
+    private SavedTestRepository savedTestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void importedHistoryExportsBackLineForLine() throws Exception {
+        Long userId = newUser("transfer-roundtrip");
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1_234; i++) {
+            input.append(entry(i)).append('\n');
+        }
+        input.append("{\"className\":\"NoSource\"}\n");
+
+        HistoryImportResult result = historyTransfer.importNdjson(userId, stream(input.toString()));
+        assertNull(result.getError());
+        assertEquals(1_234, result.getImported());
+        assertEquals(1, result.getSkipped());
+        assertEquals(List.of("line 1235: sourceCode is missing"), result.getProblems());
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        historyTransfer.exportNdjson(userId, ndjson);
+        String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1_234, lines.length);
+        assertTrue(lines[0].contains("\"className\":\"Service0\""));
+        assertTrue(lines[0].contains("\"createdAt\":\"2024-01-01T10:00:00\""));
+        assertTrue(lines[1_233].contains("class Service1233TestImpl"));
+        assertTrue(Arrays.stream(lines).allMatch(line -> line.startsWith("{")));
+
+        // An export imports again as-is, ids aside
+        Long otherUserId = newUser("transfer-copy");
+        assertEquals(1_234, historyTransfer.importNdjson(otherUserId, stream(ndjson.toString(StandardCharsets.UTF_8))).getImported());
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        historyTransfer.exportZip(otherUserId, zip);
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        assertEquals(2 * 1_234, names.size());
+        assertTrue(names.get(0).endsWith("-Service0/Service0.java"));
+        assertTrue(names.get(1).endsWith("-Service0/Service0Test.java"));
+    }
+
+    @Test
+    void importedEntriesAreSearchable() throws Exception {
+        Long userId = newUser("transfer-search");
+        assertEquals(0, searchIndex.search(userId, "service7", null, 10).getItems().size()); // loads an empty index
+
+        historyTransfer.importNdjson(userId, stream(entry(7) + "\n" + entry(8) + "\n"));
+
+        HistoryPage page = searchIndex.search(userId, "service7", null, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals("Service7", page.getItems().get(0).getClassName());
+    }
+
+    @Test
+    void malformedInputKeepsTheBatchesBeforeIt() throws Exception {
+        Long userId = newUser("transfer-malformed");
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            input.append(entry(i)).append('\n');
+        }
+        input.append("{\"className\": \n");
+
+        HistoryImportResult result = historyTransfer.importNdjson(userId, stream(input.toString()));
+        assertNotNull(result.getError());
+        assertTrue(result.getError().startsWith("line 60"), result.getError());
+        assertEquals(500, result.getImported()); // one full batch; the partial one never reached the database
+        assertEquals(500, savedTestRepository.findSummaries(userId, PageRequest.of(0, 1000)).size());
+    }
+
+    private Long newUser(String name) {
+        User user = new User(name, "secret");
+        user.setEmail(name + "@example.com");
+        return userRepository.save(user).getId();
+    }
+
+    private static String entry(int i) {
+        return "{\"id\":" + (i + 1) + ",\"className\":\"Service" + i + "\",\"createdAt\":\"2024-01-01T10:00:00\","
+                + "\"sourceCode\":\"public class Service" + i + " { int size() { return " + i + "; } }\","
+                + "\"generatedTestCode\":\"class Service" + i + "TestImpl {}\"}";
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
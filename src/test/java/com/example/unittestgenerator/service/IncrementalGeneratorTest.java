@@ -0,0 +1,130 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.dto.IncrementalGenerateResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalGeneratorTest {
+
+    private static final String BEFORE = """
+            public class Calculator {
+                public int add(int a, int b) { return a + b; }
+                public int sub(int a, int b) { return a - b; }
+                public String name() { return "calc"; }
+            }
+            """;
+
+    private final GeneratorService generatorService = GeneratorService.standalone().create();
+    private final IncrementalGenerator incremental =
+            new IncrementalGenerator(generatorService, GeneratorMetrics.noop());
+
+    @Test
+    void unchangedSourceReproducesPreviousTestExactly() {
+        String previousTest = generatorService.generate(BEFORE, false).getMainTestFileContent();
+
+        IncrementalGenerateResponse response =
+                incremental.regenerate(BEFORE, previousTest, BEFORE, GenerationOptions.defaults());
+
+        assertFalse(response.isFullRegeneration());
+        assertEquals(3, response.getUnchanged());
+        assertEquals(previousTest, response.getMainTestFileContent());
+    }
+
+    @Test
+    void onlyChangedAndAddedMethodsAreRegeneratedAndManualEditsSurvive() {
+        String previousTest = generatorService.generate(BEFORE, false).getMainTestFileContent()
+                .replace("calculator.name()", "calculator.name() /* checked by hand */")
+                .replace("\n}\n", "\n    @Test\n    void myOwnTest() {\n    }\n}\n");
+        String after = BEFORE
+                .replace("return a - b;", "return b - a;")
+                .replace("public String name()", "public long count() { return 1L; }\n    public String name()")
+                .replace("    public int add(int a, int b) { return a + b; }\n", "");
+
+        IncrementalGenerateResponse response =
+                incremental.regenerate(BEFORE, previousTest, after, GenerationOptions.defaults());
+        String content = response.getMainTestFileContent();
+
+        assertEquals(1, response.getAdded());
+        assertEquals(1, response.getChanged());
+        assertEquals(1, response.getRemoved());
+        assertEquals(1, response.getUnchanged());
+        assertTrue(content.contains("/* checked by hand */"));
+        assertTrue(content.contains("void myOwnTest()"));
+        assertTrue(content.contains("void testCount_HappyPath()"));
+        assertFalse(content.contains("testAdd_"));
+        assertTrue(content.indexOf("testSub_") < content.indexOf("testCount_"));
+    }
+
+    @Test
+    void changedConstructorRegeneratesTheFixture() {
+        String before = """
+                public class Foo {
+                    public Foo(Repo repo) {}
+                    public int size(int n) { return n; }
+                }
+                """;
+        String after = before.replace("Foo(Repo repo)", "Foo(Repo repo, Clock clock)");
+        String previousTest = generatorService.generate(before, false).getMainTestFileContent()
+                .replace("\n}\n", "\n    @Test\n    void myOwnTest() {\n    }\n}\n");
+
+        IncrementalGenerateResponse response =
+                incremental.regenerate(before, previousTest, after, GenerationOptions.defaults());
+        String content = response.getMainTestFileContent();
+
+        assertFalse(response.isFullRegeneration());
+        assertEquals(1, response.getUnchanged());
+        assertTrue(content.contains("clock = mock(Clock.class);"), content);
+        assertTrue(content.contains("foo = new Foo(repo, clock);"), content);
+        assertFalse(content.contains("new Foo(repo);"), content);
+        assertTrue(content.contains("void myOwnTest()"));
+        assertEquals(generatorService.generate(after, false).getMainTestFileContent(),
+                incremental.regenerate(before, generatorService.generate(before, false).getMainTestFileContent(),
+                        after, GenerationOptions.defaults()).getMainTestFileContent());
+    }
+
+    @Test
+    void changedFixtureUnderAHandEditedHeaderStartsOver() {
+        String before = "public class Foo { public Foo(Repo repo) {} public int size(int n) { return n; } }";
+        String after = before.replace("Foo(Repo repo)", "Foo(Repo repo, Clock clock)");
+        String previousTest = generatorService.generate(before, false).getMainTestFileContent()
+                .replace("class FooTest {", "class FooTest {\n    private static final int LIMIT = 3;");
+
+        assertTrue(incremental.regenerate(before, previousTest, after, GenerationOptions.defaults()).isFullRegeneration());
+        assertFalse(incremental.regenerate(before, previousTest, before, GenerationOptions.defaults()).isFullRegeneration());
+    }
+
+    @Test
+    void handWrittenTestsKeepTheirCommentsAndPlace() {
+        String generated = generatorService.generate(BEFORE, false).getMainTestFileContent();
+        String manual = "    // regression for BUG-42\n    @Test\n    void bug42() {\n    }\n\n";
+        int subTests = generated.indexOf("    @Test\n    void testSub_");
+        String previousTest = generated.substring(0, subTests) + manual
+                + "    // keep: pinned by the pricing team\n" + generated.substring(subTests);
+        String after = BEFORE.replace("return a + b;", "return b + a;");
+
+        IncrementalGenerateResponse response =
+                incremental.regenerate(BEFORE, previousTest, after, GenerationOptions.defaults());
+        String content = response.getMainTestFileContent();
+
+        assertEquals(1, response.getChanged());
+        assertTrue(content.contains(manual), content);
+        assertTrue(content.indexOf("testAdd_") < content.indexOf("bug42"));
+        assertTrue(content.indexOf("bug42") < content.indexOf("// keep: pinned by the pricing team\n    @Test\n    void testSub_"));
+        assertEquals(previousTest, incremental.regenerate(BEFORE, previousTest, BEFORE, GenerationOptions.defaults())
+                .getMainTestFileContent());
+    }
+
+    @Test
+    void renamedClassFallsBackToFullRegeneration() {
+        String previousTest = generatorService.generate(BEFORE, false).getMainTestFileContent();
+        String renamed = BEFORE.replace("Calculator", "Adder");
+
+        IncrementalGenerateResponse response =
+                incremental.regenerate(BEFORE, previousTest, renamed, GenerationOptions.defaults());
+
+        assertTrue(response.isFullRegeneration());
+        assertEquals(generatorService.generate(renamed, false).getMainTestFileContent(),
+                response.getMainTestFileContent());
+    }
+}
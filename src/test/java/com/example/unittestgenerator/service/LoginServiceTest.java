@@ -0,0 +1,90 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoginServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BCryptPasswordEncoder encoder = spy(new BCryptPasswordEncoder(4));
+    private final User alice = new User("alice", new BCryptPasswordEncoder(4).encode("s3cret"));
+
+    LoginServiceTest() {
+        alice.setId(7L);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void repeatLoginsSkipBcryptUntilThePasswordChanges() {
+        LoginService logins = new LoginService(userRepository, encoder, 0, 600);
+
+        assertEquals(Optional.of(alice), logins.authenticate("alice", "s3cret", "10.0.0.1"));
+        assertEquals(Optional.of(alice), logins.authenticate("alice", "s3cret", "10.0.0.1"));
+        verify(encoder, times(1)).matches(eq("s3cret"), eq(alice.getPassword()));
+
+        assertTrue(logins.authenticate("alice", "wrong", "10.0.0.1").isEmpty());
+        assertTrue(logins.authenticate("bob", "s3cret", "10.0.0.1").isEmpty());
+
+        alice.setPassword(new BCryptPasswordEncoder(4).encode("changed"));
+        assertTrue(logins.authenticate("alice", "s3cret", "10.0.0.1").isEmpty());
+        assertEquals(Optional.of(alice), logins.authenticate("alice", "changed", "10.0.0.1"));
+    }
+
+    @Test
+    void attemptsBeyondTheLimitAreRefusedBeforeAnyHashing() {
+        LoginService logins = new LoginService(userRepository, encoder, 3, 600);
+        clearInvocations(encoder);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(logins.authenticate("alice", "guess" + i, "10.0.0.1").isEmpty());
+        }
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> logins.authenticate("alice", "s3cret", "10.0.0.2"));
+        assertEquals(429, e.getStatus());
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 60);
+        verify(encoder, times(3)).matches(any(), any());
+
+        // Same address, other usernames: limited per address as well
+        assertThrows(AdmissionRejectedException.class, () -> logins.authenticate("bob", "x", "10.0.0.1"));
+    }
+
+    @Test
+    void passwordsAreRehashedWhenTheStrengthIsRaised() {
+        LoginService logins = new LoginService(userRepository, new BCryptPasswordEncoder(5), 0, 600);
+        String weakHash = alice.getPassword();
+
+        assertEquals(Optional.of(alice), logins.authenticate("alice", "s3cret", null));
+
+        assertNotEquals(weakHash, alice.getPassword());
+        assertTrue(alice.getPassword().startsWith("$2a$05$"));
+        verify(userRepository).save(alice);
+        assertEquals(Optional.of(alice), logins.authenticate("alice", "s3cret", null));
+    }
+
+    @Test
+    void issuedTokensVerifyWithoutTheUserAndRejectTampering() {
+        TokenService tokens = new TokenService("", 60);
+        TokenService.IssuedToken token = tokens.issue(alice);
+
+        assertEquals(7L, TokenService.userIdOf(tokens.decoder().decode(token.value())));
+        assertEquals("alice", tokens.decoder().decode(token.value()).getClaimAsString("username"));
+
+        // Another user's claims under alice's signature
+        User mallory = new User("mallory", "x");
+        mallory.setId(8L);
+        String[] forged = tokens.issue(mallory).value().split("\\.");
+        String tampered = forged[0] + "." + forged[1] + "." + token.value().split("\\.")[2];
+        assertThrows(RuntimeException.class, () -> tokens.decoder().decode(tampered));
+        // Signed with another key
+        assertThrows(RuntimeException.class, () -> new TokenService("", 60).decoder().decode(token.value()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.unittestgenerator.service;
+
+import com.example.unittestgenerator.models.SavedTest;
+import com.example.unittestgenerator.models.User;
+import com.example.unittestgenerator.repository.ContentBlobRepository;
+import com.example.unittestgenerator.repository.SavedTestRepository;
+import com.example.unittestgenerator.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SavedTestWriterTest {
+
+    private final SavedTestRepository savedTestRepository = mock(SavedTestRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BlobStore blobStore = new BlobStore(mock(ContentBlobRepository.class), mock(JdbcTemplate.class));
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(noOpTransactionManager());
+    private final HistorySearchIndex searchIndex = new HistorySearchIndex(savedTestRepository, GeneratorMetrics.noop(), 16, 1 << 20);
+
+    @Test
+    void flushesQueuedSavesOnShutdown() throws Exception {
+        when(userRepository.getReferenceById(anyLong())).thenReturn(new User());
+        SavedTestWriter writer = new SavedTestWriter(savedTestRepository, userRepository, blobStore, transactionTemplate, GeneratorMetrics.noop(), searchIndex, 100, 10, 10);
+        writer.start();
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.submit(new PendingSave(1L, "A", "class A {}", "class ATest {}")));
+        }
+        writer.stop();
+
+        assertEquals(25, writer.stats().getWritten());
+        assertEquals(0, writer.stats().getQueueDepth());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void failingRowIsIsolatedFromTheRestOfItsBatch() throws Exception {
+        when(userRepository.getReferenceById(anyLong())).thenReturn(new User());
+        when(savedTestRepository.saveAll(anyList())).thenAnswer(call -> {
+            List<SavedTest> batch = call.getArgument(0);
+            if (batch.stream().anyMatch(t -> t.getSourceSize() == 2)) {
+                throw new IllegalStateException("foreign key violation");
+            }
+            return batch;
+        });
+
+        SavedTestWriter writer = new SavedTestWriter(savedTestRepository, userRepository, blobStore, transactionTemplate, GeneratorMetrics.noop(), searchIndex, 100, 10, 10);
+        writer.submit(new PendingSave(1L, "A", "a", "a"));
+        writer.submit(new PendingSave(99L, "A", "bb", "b"));
+        writer.submit(new PendingSave(1L, "A", "c", "c"));
+        writer.start();
+        writer.stop();
+
+        assertEquals(2, writer.stats().getWritten());
+        assertEquals(1, writer.stats().getFailed());
+    }
+
+    @Test
+    void dropsSavesWhenQueueStaysFull() {
+        // worker never started, so nothing drains the single slot
+        SavedTestWriter writer = new SavedTestWriter(savedTestRepository, userRepository, blobStore, transactionTemplate, GeneratorMetrics.noop(), searchIndex, 1, 10, 1);
+
+        assertTrue(writer.submit(new PendingSave(1L, "A", "a", "a")));
+        assertFalse(writer.submit(new PendingSave(1L, "A", "b", "b")));
+        assertEquals(1, writer.stats().getDropped());
+    }
+
+    @Test
+    void savesJoiningATransactionAreIndexedOnlyOnceItCommits() {
+        when(userRepository.getReferenceById(anyLong())).thenReturn(new User());
+        HistorySearchIndex index = mock(HistorySearchIndex.class);
+        SavedTestWriter writer = new SavedTestWriter(savedTestRepository, userRepository, blobStore, transactionTemplate, GeneratorMetrics.noop(), index, 100, 10, 10);
+
+        // A job's per-file transaction that rolls back, then one that commits
+        for (int outcome : new int[]{TransactionSynchronization.STATUS_ROLLED_BACK, TransactionSynchronization.STATUS_COMMITTED}) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                writer.persistNow(List.of(new PendingSave(1L, "A", "a", "a")));
+                verify(index, never()).added(anyList());
+                for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                    if (outcome == TransactionSynchronization.STATUS_COMMITTED) {
+                        synchronization.afterCommit();
+                    }
+                    synchronization.afterCompletion(outcome);
+                }
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        verify(index, times(1)).added(anyList());
+        assertEquals(1, writer.stats().getWritten());
+    }
+
+    private static PlatformTransactionManager noOpTransactionManager() {
+        PlatformTransactionManager manager = mock(PlatformTransactionManager.class);
+        when(manager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return manager;
+    }
+}
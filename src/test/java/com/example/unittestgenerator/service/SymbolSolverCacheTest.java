@@ -0,0 +1,76 @@
+package com.example.unittestgenerator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolSolverCacheTest {
+
+    private final GeneratorService service = GeneratorService.standalone().create();
+
+    @Test
+    void resolvesEnumsAndSuperclassesFromOtherProjectSources() {
+        SymbolSolverCache cache = new SymbolSolverCache(true, 4, Long.MAX_VALUE, GeneratorMetrics.noop());
+        GenerationOptions options = GenerationOptions.defaults().withSymbols(cache.project(1L, "shop"));
+        service.unitOf("package com.acme; public enum Status { OPEN, CLOSED }", options);
+        service.unitOf("package com.acme; public class Base { public int size() { return 0; } }", options);
+
+        ClassModel model = service.analyze("""
+                package com.acme;
+
+                public class Orders extends Base {
+                    public boolean isOpen(Status status) { return status == Status.OPEN; }
+                }
+                """, options);
+
+        ClassModel.EnumModel status = model.enums().stream()
+                .filter(e -> e.name().equals("Status")).findFirst().orElseThrow();
+        assertEquals(List.of("OPEN", "CLOSED"), status.constants());
+        assertTrue(model.methods().stream().anyMatch(m -> m.name().equals("size")));
+        assertTrue(service.generate(model, options).getMainTestFileContent().contains("orders.isOpen(Status.OPEN)"));
+    }
+
+    @Test
+    void reusesResolutionsAcrossRequestsForTheSameProject() {
+        SymbolSolverCache cache = new SymbolSolverCache(true, 4, Long.MAX_VALUE, GeneratorMetrics.noop());
+        service.unitOf("package p; public enum Mode { A, B }", GenerationOptions.defaults().withSymbols(cache.project(1L, "p")));
+
+        service.analyze("package p; class X { public void run(Mode mode) {} }",
+                GenerationOptions.defaults().withSymbols(cache.project(1L, "p")));
+        service.analyze("package p; class Y { public void stop(Mode mode) {} }",
+                GenerationOptions.defaults().withSymbols(cache.project(1L, "p")));
+
+        assertEquals(1, cache.stats().getResolutionMisses());
+        assertEquals(1, cache.stats().getResolutionHits());
+        assertEquals(2, cache.stats().getHits());
+        assertTrue(cache.stats().getEstimatedBytes() > 0);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedProject() {
+        SymbolSolverCache cache = new SymbolSolverCache(true, 2, Long.MAX_VALUE, GeneratorMetrics.noop());
+        ProjectSymbols first = cache.project(1L, "a");
+        cache.project(1L, "b");
+        cache.project(1L, "a");
+        cache.project(1L, "c");
+
+        assertSame(first, cache.project(1L, "a"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertFalse(cache.drop(1L, "b"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SymbolSolverCache(false, 2, 0, GeneratorMetrics.noop()).project(1L, "a"));
+    }
+
+    @Test
+    void projectIdsAreScopedToTheirOwner() {
+        SymbolSolverCache cache = new SymbolSolverCache(true, 8, Long.MAX_VALUE, GeneratorMetrics.noop());
+        ProjectSymbols mine = cache.project(1L, "shop");
+
+        assertNotSame(mine, cache.project(2L, "shop"));
+        assertTrue(cache.drop(2L, "shop"));
+        assertSame(mine, cache.project(1L, "shop")); // someone else's drop leaves it alone
+        assertThrows(IllegalArgumentException.class, () -> cache.project(null, "shop"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.unittestgenerator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateRegistryTest {
+
+    private static final String SOURCE = """
+            public class Calculator {
+                public int add(int a, int b) { return a + b; }
+                public String join(java.util.List<String> parts) { return ""; }
+            }
+            """;
+
+    @Test
+    void compilesVariablesAndRejectsUnknownOnes() {
+        CodeTemplate template = CodeTemplate.compile("t", "cost: $$${method}!");
+        StringBuilder out = new StringBuilder();
+        template.render(out, (sb, var) -> sb.append(var.key()));
+
+        assertEquals("cost: $method!", out.toString());
+        assertThrows(IllegalArgumentException.class, () -> CodeTemplate.compile("t", "${nope}"));
+    }
+
+    @Test
+    void builtInStylesRenderTheirOwnFrameworks() {
+        TemplateRegistry templates = TemplateRegistry.defaults();
+        GeneratorService service = GeneratorService.standalone().withTemplates(templates).create();
+
+        String junit4 = generate(service, "junit4");
+        String testng = generate(service, "testng");
+        String assertj = generate(service, "assertj");
+
+        assertTrue(junit4.contains("import org.junit.Test;"));
+        assertTrue(junit4.contains("@Test(expected = IllegalArgumentException.class)"));
+        assertTrue(testng.contains("@Test(dataProvider = \"testAdd_BoundariesData\")"));
+        assertTrue(testng.contains("{5, 5}, // Positive values"));
+        assertTrue(assertj.contains("assertThat(calculator.add(5, 5)).as(\"Result should not be null\").isNotNull();"));
+        assertTrue(assertj.contains("@CsvSource({"), "assertj keeps the junit5 templates it doesn't override");
+        assertThrows(IllegalArgumentException.class, () -> templates.resolve("spock"));
+    }
+
+    @Test
+    void directoryTemplatesOverrideAndAddStyles(@TempDir Path dir) throws Exception {
+        Files.createDirectories(dir.resolve("junit5"));
+        Files.writeString(dir.resolve("junit5/footer.tmpl"), "} // end of ${testClass}\n");
+        Files.createDirectories(dir.resolve("house"));
+        Files.writeString(dir.resolve("house/assert-value.tmpl"), "check(${call});\n");
+
+        TemplateRegistry templates = new TemplateRegistry("junit5", dir.toString());
+        GeneratorService service = GeneratorService.standalone().withTemplates(templates).create();
+
+        assertTrue(generate(service, null).endsWith("} // end of CalculatorTest\n"));
+        assertTrue(generate(service, "house").contains("        check(calculator.add(5, 5));\n"));
+    }
+
+    private static String generate(GeneratorService service, String style) {
+        return service.generate(SOURCE, false, GenerationOptions.defaults().withTemplateStyle(style)).getMainTestFileContent();
+    }
+}